@@ -179,6 +179,25 @@ public interface Model extends AutoCloseable {
      */
     <I, O> Predictor<I, O> newPredictor(Translator<I, O> translator);
 
+    /**
+     * Creates a new Predictor based on the model and chooses whether it copies the parameters.
+     *
+     * <p>A predictor created with {@code copy} set to {@code false} reads the parameter arrays of
+     * the model directly, so any number of such predictors share a single copy of the parameters in
+     * native memory. Engines that always need a private copy, or that cannot run predictors sharing
+     * parameters concurrently, copy the parameters even if {@code copy} is {@code false}.
+     *
+     * @param translator the object used for pre-processing and postprocessing
+     * @param copy whether to copy the parameters for the new predictor
+     * @param <I> the input object for pre-processing
+     * @param <O> the output object from postprocessing
+     * @return an instance of {@code Predictor}
+     * @see ai.djl.inference.PredictorPool
+     */
+    default <I, O> Predictor<I, O> newPredictor(Translator<I, O> translator, boolean copy) {
+        return newPredictor(translator);
+    }
+
     /**
      * Returns the input descriptor of the model.
      *
@@ -225,6 +244,14 @@ public interface Model extends AutoCloseable {
      */
     <T> T getArtifact(String name, Function<InputStream, T> function) throws IOException;
 
+    /**
+     * Removes the cached artifacts with the given name, so they are loaded again by the next call
+     * to {@link #getArtifact(String, Function)}.
+     *
+     * @param name the name of the artifact
+     */
+    void invalidateArtifact(String name);
+
     /**
      * Finds an artifact resource with a given name in the model.
      *
@@ -26,7 +26,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,9 +51,10 @@ public class BasePredictor<I, O> implements Predictor<I, O> {
 
     protected Model model;
     protected NDManager manager;
-    Metrics metrics;
+    volatile Metrics metrics;
     private Block block;
     private ParameterStore parameterStore;
+    private ThreadPoolExecutor[] stages;
 
     /**
      * Creates a new instance of {@code BasePredictor} with the given {@link Model} and {@link
@@ -111,6 +118,68 @@ public class BasePredictor<I, O> implements Predictor<I, O> {
         }
     }
 
+    /**
+     * Enables the asynchronous pipelined mode used by {@link #batchPredictAsync(List)}.
+     *
+     * <p>In pipelined mode, pre-processing, forward and postprocessing each run on their own
+     * thread, so the pre-processing of one batch overlaps with the forward pass of the previous
+     * batch and the postprocessing of the one before. Each stage accepts at most {@code queueDepth}
+     * pending batches; when a stage is full, the stage feeding it (or the caller of {@code
+     * batchPredictAsync}) blocks until there is room.
+     *
+     * @param queueDepth the maximum number of batches waiting in front of each stage
+     */
+    public void setPipelineQueueDepth(int queueDepth) {
+        if (queueDepth < 1) {
+            throw new IllegalArgumentException("queueDepth must be positive: " + queueDepth);
+        }
+        if (stages != null) {
+            throw new IllegalStateException("Pipelined mode has already been enabled");
+        }
+        stages =
+                new ThreadPoolExecutor[] {
+                    newStage("preprocess", queueDepth),
+                    newStage("forward", queueDepth),
+                    newStage("postprocess", queueDepth)
+                };
+    }
+
+    /**
+     * Predicts a batch asynchronously.
+     *
+     * <p>If the pipelined mode was enabled with {@link #setPipelineQueueDepth(int)}, the batch is
+     * queued to the pre-processing stage and this method returns without waiting for the result.
+     * Otherwise the batch is predicted on the calling thread and an already completed future is
+     * returned.
+     *
+     * <p>When {@link Metrics} are set, the latency of each stage is recorded under the same
+     * "Preprocess", "Inference" and "Postprocess" metric names as {@link #batchPredict(List)},
+     * and the number of batches waiting in front of each stage when a batch arrives is recorded
+     * as "PreprocessQueue", "InferenceQueue" and "PostprocessQueue".
+     *
+     * @param inputs a list of inputs
+     * @return a {@link CompletableFuture} for the list of output objects defined by the user
+     */
+    public CompletableFuture<List<O>> batchPredictAsync(List<I> inputs) {
+        if (stages == null) {
+            CompletableFuture<List<O>> future = new CompletableFuture<>();
+            try {
+                future.complete(batchPredict(inputs));
+            } catch (TranslateException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+
+        PipelineJob job = new PipelineJob(inputs);
+        recordQueue("PreprocessQueue", stages[0]);
+        CompletableFuture<List<O>> future =
+                CompletableFuture.supplyAsync(() -> preprocessStage(job), stages[0])
+                        .thenApplyAsync(this::forwardStage, stages[1])
+                        .thenApplyAsync(this::postprocessStage, stages[2]);
+        return future.whenComplete((r, t) -> job.context.close());
+    }
+
     /** {@inheritDoc} */
     @Override
     public void setMetrics(Metrics metrics) {
@@ -124,6 +193,108 @@ public class BasePredictor<I, O> implements Predictor<I, O> {
         return block.forward(parameterStore, ndList);
     }
 
+    private PipelineJob preprocessStage(PipelineJob job) {
+        long begin = System.nanoTime();
+        try {
+            Batchifier batchifier = translator.getBatchifier();
+            if (batchifier == null) {
+                int size = job.inputs.size();
+                job.data = new NDList[size];
+                for (int i = 0; i < size; ++i) {
+                    job.data[i] = translator.processInput(job.context, job.inputs.get(i));
+                }
+            } else {
+                job.data = new NDList[] {processInputs(job.context, job.inputs)};
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(new TranslateException(e));
+        }
+        recordStage("Preprocess", begin, job.data);
+        recordQueue("InferenceQueue", stages[1]);
+        return job;
+    }
+
+    private PipelineJob forwardStage(PipelineJob job) {
+        long begin = System.nanoTime();
+        for (int i = 0; i < job.data.length; ++i) {
+            job.data[i] = forward(job.data[i]);
+        }
+        recordStage("Inference", begin, job.data);
+        recordQueue("PostprocessQueue", stages[2]);
+        return job;
+    }
+
+    private List<O> postprocessStage(PipelineJob job) {
+        long begin = System.nanoTime();
+        List<O> outputs;
+        try {
+            Batchifier batchifier = translator.getBatchifier();
+            if (batchifier == null) {
+                outputs = new ArrayList<>(job.data.length);
+                for (NDList result : job.data) {
+                    outputs.add(translator.processOutput(job.context, result));
+                }
+            } else {
+                outputs = processOutputs(job.context, job.data[0]);
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(new TranslateException(e));
+        }
+        recordStage("Postprocess", begin, null);
+        return outputs;
+    }
+
+    private void recordStage(String name, long begin, NDList[] lists) {
+        if (metrics != null) {
+            if (lists != null) {
+                for (NDList list : lists) {
+                    waitToRead(list);
+                }
+            }
+            metrics.addMetric(name, System.nanoTime() - begin, "nano");
+        }
+    }
+
+    private void recordQueue(String name, ThreadPoolExecutor stage) {
+        if (metrics != null) {
+            metrics.addMetric(name, stage.getQueue().size(), "count");
+        }
+    }
+
+    private static ThreadPoolExecutor newStage(String name, int queueDepth) {
+        return new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueDepth),
+                r -> {
+                    Thread thread = new Thread(r, "djl-predictor-" + name);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (r, executor) -> {
+                    // block the upstream stage until there is room, this is the backpressure
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Predictor is closed");
+                    }
+                    try {
+                        executor.getQueue().put(r);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException(e);
+                    }
+                    // closed while waiting, the stage thread may be gone and never take the task
+                    if (executor.isShutdown() && executor.getQueue().remove(r)) {
+                        throw new RejectedExecutionException("Predictor is closed");
+                    }
+                });
+    }
+
     @SuppressWarnings("PMD.SignatureDeclareThrowsException")
     private NDList processInputs(TranslatorContext ctx, List<I> inputs) throws Exception {
         int batchSize = inputs.size();
@@ -176,16 +347,41 @@ public class BasePredictor<I, O> implements Predictor<I, O> {
     /** {@inheritDoc} */
     @Override
     public void close() {
+        if (stages != null) {
+            for (ThreadPoolExecutor stage : stages) {
+                stage.shutdown();
+                try {
+                    if (!stage.awaitTermination(1, TimeUnit.MINUTES)) {
+                        logger.warn("Timed out waiting for pending predictions.");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
         manager.close();
     }
 
+    /** The state of a batch moving through the stages of the pipelined mode. */
+    private final class PipelineJob {
+
+        List<I> inputs;
+        PredictorContext context;
+        NDList[] data;
+
+        PipelineJob(List<I> inputs) {
+            this.inputs = inputs;
+            context = new PredictorContext();
+        }
+    }
+
     private class PredictorContext implements TranslatorContext {
 
         private NDManager ctxManager;
         private Map<String, Object> attachments;
 
         PredictorContext() {
-            ctxManager = manager.newSubManager();
+            ctxManager = manager.newScopedManager();
             attachments = new ConcurrentHashMap<>();
         }
 
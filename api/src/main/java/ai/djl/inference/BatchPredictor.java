@@ -0,0 +1,319 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.inference;
+
+import ai.djl.Model;
+import ai.djl.metric.Metrics;
+import ai.djl.translate.TranslateException;
+import ai.djl.translate.Translator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code BatchPredictor} is a {@link Predictor} that groups concurrent single predictions into
+ * batches.
+ *
+ * <p>Calls to {@link #predict(Object)} and {@link #submit(Object)} from any number of threads are
+ * queued. A background thread drains the queue and runs the collected inputs through a single
+ * {@link Predictor#batchPredict(List)} call as soon as either {@code maxBatchSize} inputs are
+ * available or the oldest queued input has waited for {@code maxDelay}. The inputs are combined
+ * with the {@link ai.djl.translate.Batchifier} of the {@link Translator}, so the translator must
+ * support batching.
+ *
+ * <p>When {@link Metrics} are set, the size of every batch is recorded as "BatchSize" and the
+ * number of inputs still waiting after a batch is taken is recorded as "QueueDepth".
+ *
+ * <pre>
+ * try (BatchPredictor&lt;BufferedImage, Classifications&gt; predictor =
+ *         new BatchPredictor&lt;&gt;(model, translator, 32, 5, TimeUnit.MILLISECONDS)) {
+ *     CompletableFuture&lt;Classifications&gt; future = predictor.submit(image);
+ *     ...
+ * }
+ * </pre>
+ *
+ * @param <I> the type of the input
+ * @param <O> the type of the output
+ */
+public class BatchPredictor<I, O> implements Predictor<I, O> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchPredictor.class);
+
+    private static final Object SHUTDOWN = new Object();
+
+    private Predictor<I, O> predictor;
+    private int maxBatchSize;
+    private long maxDelay;
+    private BlockingQueue<Object> queue;
+    private Thread worker;
+    private volatile boolean closed;
+    private boolean released;
+    private volatile Metrics metrics;
+
+    /**
+     * Creates a new instance of {@code BatchPredictor} for the given {@link Model} and {@link
+     * Translator}.
+     *
+     * @param model the model on which the predictions are based
+     * @param translator the translator to be used
+     * @param maxBatchSize the maximum number of inputs in a single batch
+     * @param maxDelay the maximum time the oldest input may wait for a batch to fill up
+     * @param unit the {@link TimeUnit} of {@code maxDelay}
+     */
+    public BatchPredictor(
+            Model model,
+            Translator<I, O> translator,
+            int maxBatchSize,
+            long maxDelay,
+            TimeUnit unit) {
+        this(model.newPredictor(translator), maxBatchSize, maxDelay, unit);
+    }
+
+    /**
+     * Creates a new instance of {@code BatchPredictor} that batches calls into the given {@link
+     * Predictor}.
+     *
+     * <p>The {@code BatchPredictor} takes ownership of the predictor and closes it on {@link
+     * #close()}. The predictor is only ever called from a single background thread.
+     *
+     * @param predictor the predictor that runs the batches
+     * @param maxBatchSize the maximum number of inputs in a single batch
+     * @param maxDelay the maximum time the oldest input may wait for a batch to fill up
+     * @param unit the {@link TimeUnit} of {@code maxDelay}
+     */
+    public BatchPredictor(
+            Predictor<I, O> predictor, int maxBatchSize, long maxDelay, TimeUnit unit) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        if (maxDelay < 0) {
+            throw new IllegalArgumentException("maxDelay must not be negative: " + maxDelay);
+        }
+        this.predictor = predictor;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = unit.toNanos(maxDelay);
+        queue = new LinkedBlockingQueue<>();
+        worker = new Thread(this::dispatch, "djl-batch-predictor");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Queues an input for prediction and returns immediately.
+     *
+     * @param input the input
+     * @return a {@link CompletableFuture} that completes with the output, or exceptionally with
+     *     the error raised while predicting the batch that contained the input, or with an {@link
+     *     IllegalStateException} if this predictor is closed or its dispatcher was interrupted
+     */
+    public CompletableFuture<O> submit(I input) {
+        Request<I, O> request = new Request<>(input);
+        if (closed) {
+            request.future.completeExceptionally(
+                    new IllegalStateException("BatchPredictor is closed"));
+            return request.future;
+        }
+        queue.add(request);
+        // close() may have drained the queue between the check and add, the request is failed
+        // here unless the dispatcher or close() took it already
+        if (closed && queue.remove(request)) {
+            request.future.completeExceptionally(
+                    new IllegalStateException("BatchPredictor is closed"));
+        }
+        return request.future;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public O predict(I input) throws TranslateException {
+        return await(submit(input));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Each input is queued individually and may be batched together with inputs from other
+     * threads.
+     */
+    @Override
+    public List<O> batchPredict(List<I> inputs) throws TranslateException {
+        List<CompletableFuture<O>> futures = new ArrayList<>(inputs.size());
+        for (I input : inputs) {
+            futures.add(submit(input));
+        }
+        List<O> ret = new ArrayList<>(inputs.size());
+        for (CompletableFuture<O> future : futures) {
+            ret.add(await(future));
+        }
+        return ret;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+        predictor.setMetrics(metrics);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Inputs that were queued before {@code close} are still predicted.
+     */
+    @Override
+    public synchronized void close() {
+        if (released) {
+            return;
+        }
+        released = true;
+        closed = true;
+        queue.add(SHUTDOWN);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // inputs that raced with close() after the dispatcher exited
+        failQueued();
+        predictor.close();
+    }
+
+    private O await(CompletableFuture<O> future) throws TranslateException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TranslateException) {
+                throw (TranslateException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new TranslateException(cause);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dispatch() {
+        List<Request<I, O>> batch = new ArrayList<>(maxBatchSize);
+        boolean shutdown = false;
+        while (!shutdown) {
+            try {
+                Object first = queue.take();
+                if (first == SHUTDOWN) {
+                    break;
+                }
+                batch.add((Request<I, O>) first);
+
+                long deadline = ((Request<I, O>) first).timestamp + maxDelay;
+                while (batch.size() < maxBatchSize) {
+                    long timeout = deadline - System.nanoTime();
+                    Object next = queue.poll(Math.max(timeout, 0), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    } else if (next == SHUTDOWN) {
+                        shutdown = true;
+                        break;
+                    }
+                    batch.add((Request<I, O>) next);
+                }
+            } catch (InterruptedException e) {
+                // nothing would take the requests anymore, so they fail instead of hanging
+                logger.warn("BatchPredictor dispatcher interrupted.");
+                closed = true;
+                for (Request<I, O> request : batch) {
+                    request.future.completeExceptionally(
+                            new IllegalStateException("BatchPredictor is closed"));
+                }
+                failQueued();
+                return;
+            }
+
+            if (shutdown) {
+                // SHUTDOWN is the last element ever queued, drain whatever is left
+                Object next;
+                while ((next = queue.poll()) != null) {
+                    if (next != SHUTDOWN) {
+                        batch.add((Request<I, O>) next);
+                    }
+                }
+            }
+            // close() may have drained more than maxBatchSize inputs
+            for (int i = 0; i < batch.size(); i += maxBatchSize) {
+                run(batch.subList(i, Math.min(i + maxBatchSize, batch.size())));
+            }
+            batch.clear();
+        }
+    }
+
+    // fails the requests left in the queue, submit() fails the ones added after closed is set
+    private void failQueued() {
+        Object next;
+        while ((next = queue.poll()) != null) {
+            if (next != SHUTDOWN) {
+                ((Request<?, ?>) next)
+                        .future.completeExceptionally(
+                                new IllegalStateException("BatchPredictor is closed"));
+            }
+        }
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    private void run(List<Request<I, O>> batch) {
+        Metrics m = metrics;
+        if (m != null) {
+            m.addMetric("BatchSize", batch.size(), "count");
+            m.addMetric("QueueDepth", queue.size(), "count");
+        }
+
+        List<I> inputs = new ArrayList<>(batch.size());
+        for (Request<I, O> request : batch) {
+            inputs.add(request.input);
+        }
+        try {
+            List<O> outputs = predictor.batchPredict(inputs);
+            for (int i = 0; i < batch.size(); ++i) {
+                batch.get(i).future.complete(outputs.get(i));
+            }
+        } catch (Throwable t) {
+            // an Error fails this batch only, the dispatcher keeps serving the next ones
+            if (t instanceof Error) {
+                logger.error("Batch prediction failed.", t);
+            }
+            for (Request<I, O> request : batch) {
+                request.future.completeExceptionally(t);
+            }
+        }
+    }
+
+    private static final class Request<I, O> {
+
+        I input;
+        long timestamp;
+        CompletableFuture<O> future;
+
+        Request(I input) {
+            this.input = input;
+            timestamp = System.nanoTime();
+            future = new CompletableFuture<>();
+        }
+    }
+}
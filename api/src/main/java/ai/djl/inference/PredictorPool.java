@@ -0,0 +1,312 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.inference;
+
+import ai.djl.Model;
+import ai.djl.metric.Metrics;
+import ai.djl.translate.TranslateException;
+import ai.djl.translate.Translator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code PredictorPool} is a fixed size pool of {@link Predictor}s that can be shared by any
+ * number of threads.
+ *
+ * <p>A {@link Predictor} must not be used by more than one thread at a time. Instead of creating a
+ * predictor per thread, callers lease a predictor from the pool for the duration of a request and
+ * return it by closing the lease. All predictors in the pool are created with {@link
+ * Model#newPredictor(Translator, boolean)} without copying parameters, so they share the read-only
+ * parameter arrays of the model and only one copy of the parameters is kept in native memory,
+ * unless the engine cannot run predictors that share parameters concurrently.
+ * Predictors are created lazily, so at most as many predictors are warmed up as there are threads
+ * using the pool concurrently.
+ *
+ * <p>The pool only blocks on a {@link Semaphore} and never holds a monitor while waiting, so it is
+ * safe to use from a large number of lightweight threads. Waiters are woken up as soon as a
+ * predictor is returned or the pool is closed.
+ *
+ * <pre>
+ * try (PredictorPool&lt;BufferedImage, Classifications&gt; pool =
+ *         new PredictorPool&lt;&gt;(model, translator, 4)) {
+ *     // from any thread
+ *     try (Predictor&lt;BufferedImage, Classifications&gt; predictor = pool.lease()) {
+ *         Classifications result = predictor.predict(image);
+ *     }
+ * }
+ * </pre>
+ *
+ * @param <I> the type of the input
+ * @param <O> the type of the output
+ */
+public class PredictorPool<I, O> implements AutoCloseable {
+
+    private Model model;
+    private Translator<I, O> translator;
+    private int size;
+    private AtomicInteger created;
+    // one permit for every predictor that is idle or not created yet
+    private Semaphore permits;
+    private BlockingQueue<Predictor<I, O>> idle;
+    private Queue<Predictor<I, O>> all;
+    private volatile Metrics metrics;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new instance of {@code PredictorPool}.
+     *
+     * @param model the model on which the predictions are based
+     * @param translator the translator to be used by all predictors
+     * @param size the maximum number of predictors in the pool
+     */
+    public PredictorPool(Model model, Translator<I, O> translator, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + size);
+        }
+        this.model = model;
+        this.translator = translator;
+        this.size = size;
+        created = new AtomicInteger();
+        permits = new Semaphore(size);
+        idle = new LinkedBlockingQueue<>(size);
+        all = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Leases a {@link Predictor} from the pool, waiting until one becomes available.
+     *
+     * <p>The returned predictor must be closed to return it to the pool. It must only be used by
+     * one thread at a time.
+     *
+     * @return a leased {@link Predictor}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Predictor<I, O> lease() throws InterruptedException {
+        checkOpen();
+        permits.acquire();
+        return new Lease(acquire());
+    }
+
+    /**
+     * Leases a {@link Predictor} from the pool, waiting up to the specified time for one to become
+     * available.
+     *
+     * @param timeout how long to wait before giving up
+     * @param unit the {@link TimeUnit} of {@code timeout}
+     * @return a leased {@link Predictor}, or {@code null} if none became available in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Predictor<I, O> lease(long timeout, TimeUnit unit) throws InterruptedException {
+        checkOpen();
+        if (!permits.tryAcquire(timeout, unit)) {
+            return null;
+        }
+        return new Lease(acquire());
+    }
+
+    /**
+     * Predicts an item with a predictor leased for the duration of the call.
+     *
+     * @param input the input
+     * @return the output object defined by the user
+     * @throws TranslateException if an error occurs during prediction
+     */
+    public O predict(I input) throws TranslateException {
+        try (Predictor<I, O> predictor = leaseForPrediction()) {
+            return predictor.predict(input);
+        }
+    }
+
+    /**
+     * Predicts a batch with a predictor leased for the duration of the call.
+     *
+     * @param inputs a list of inputs
+     * @return a list of output objects defined by the user
+     * @throws TranslateException if an error occurs during prediction
+     */
+    public List<O> batchPredict(List<I> inputs) throws TranslateException {
+        try (Predictor<I, O> predictor = leaseForPrediction()) {
+            return predictor.batchPredict(inputs);
+        }
+    }
+
+    /**
+     * Attaches a {@link Metrics} to all current and future predictors of the pool.
+     *
+     * @param metrics the Metrics class
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+        for (Predictor<I, O> predictor : all) {
+            predictor.setMetrics(metrics);
+        }
+    }
+
+    /**
+     * Returns the maximum number of predictors in the pool.
+     *
+     * @return the maximum number of predictors in the pool
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of predictors that have been created so far.
+     *
+     * @return the number of predictors that have been created so far
+     */
+    public int getCreated() {
+        return created.get();
+    }
+
+    /**
+     * Returns the number of predictors that are created and not currently leased.
+     *
+     * @return the number of idle predictors
+     */
+    public int getIdle() {
+        return idle.size();
+    }
+
+    /**
+     * Closes all predictors in the pool.
+     *
+     * <p>Predictors that are still leased are closed as well, so all leases should be returned
+     * before closing the pool. Threads waiting for a lease fail with an {@link
+     * IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Predictor<I, O> predictor;
+        while ((predictor = all.poll()) != null) {
+            predictor.close();
+        }
+        idle.clear();
+        // wakes up one waiter, which passes the permit on to the next one
+        permits.release();
+    }
+
+    private Predictor<I, O> leaseForPrediction() throws TranslateException {
+        try {
+            return lease();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException(e);
+        }
+    }
+
+    // called with a permit, which is given back if no predictor can be returned
+    private Predictor<I, O> acquire() {
+        if (closed) {
+            permits.release();
+            throw new IllegalStateException("PredictorPool is closed");
+        }
+        Predictor<I, O> predictor = idle.poll();
+        if (predictor != null) {
+            return predictor;
+        }
+        // the permit stands for a predictor that is not created yet
+        created.incrementAndGet();
+        try {
+            predictor = model.newPredictor(translator, false);
+        } catch (RuntimeException | Error e) {
+            // give the slot back, so a later lease can create the predictor again
+            created.decrementAndGet();
+            permits.release();
+            throw e;
+        }
+        Metrics m = metrics;
+        if (m != null) {
+            predictor.setMetrics(m);
+        }
+        all.add(predictor);
+        // close() may have drained all the predictors already
+        if (closed) {
+            if (all.remove(predictor)) {
+                predictor.close();
+            }
+            permits.release();
+            throw new IllegalStateException("PredictorPool is closed");
+        }
+        return predictor;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("PredictorPool is closed");
+        }
+    }
+
+    private final class Lease implements Predictor<I, O> {
+
+        private Predictor<I, O> predictor;
+
+        Lease(Predictor<I, O> predictor) {
+            this.predictor = predictor;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public O predict(I input) throws TranslateException {
+            return get().predict(input);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public List<O> batchPredict(List<I> inputs) throws TranslateException {
+            return get().batchPredict(inputs);
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>The metrics are attached to the pooled predictor and stay attached after the lease
+         * is returned.
+         */
+        @Override
+        public void setMetrics(Metrics metrics) {
+            get().setMetrics(metrics);
+        }
+
+        /**
+         * Returns the predictor to the pool.
+         *
+         * <p>Closing a lease more than once has no effect.
+         */
+        @Override
+        public void close() {
+            if (predictor != null) {
+                if (!closed) {
+                    idle.offer(predictor);
+                }
+                predictor = null;
+                permits.release();
+            }
+        }
+
+        private Predictor<I, O> get() {
+            if (predictor == null) {
+                throw new IllegalStateException("Predictor lease has already been returned");
+            }
+            return predictor;
+        }
+    }
+}
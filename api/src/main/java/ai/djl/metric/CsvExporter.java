@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * {@code CsvExporter} appends metrics to a CSV file.
+ *
+ * <p>Each export appends one row per metric. A header row is written when the file is created:
+ *
+ * <pre>
+ * timestamp,name,unit,count,sum,mean,min,max,p50,p90,p99
+ * </pre>
+ */
+public class CsvExporter implements MetricsExporter {
+
+    private static final String HEADER = "timestamp,name,unit,count,sum,mean,min,max,p50,p90,p99";
+
+    private BufferedWriter writer;
+
+    /**
+     * Constructs a {@code CsvExporter} that appends to the given file.
+     *
+     * @param file the file to append the metrics to
+     * @throws IOException if the file cannot be opened
+     */
+    public CsvExporter(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        boolean exists = Files.exists(file) && Files.size(file) > 0;
+        writer =
+                Files.newBufferedWriter(
+                        file,
+                        StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+        if (!exists) {
+            writer.write(HEADER);
+            writer.newLine();
+            writer.flush();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void export(long timestamp, List<MetricSummary> summaries)
+            throws IOException {
+        for (MetricSummary summary : summaries) {
+            StringBuilder sb = new StringBuilder(128);
+            sb.append(timestamp).append(',');
+            appendField(sb, summary.getName());
+            sb.append(',');
+            appendField(sb, summary.getUnit());
+            sb.append(',').append(summary.getCount());
+            sb.append(',').append(summary.getSum());
+            sb.append(',').append(summary.getMean());
+            sb.append(',').append(summary.getMin());
+            sb.append(',').append(summary.getMax());
+            sb.append(',').append(summary.getP50());
+            sb.append(',').append(summary.getP90());
+            sb.append(',').append(summary.getP99());
+            writer.write(sb.toString());
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private static void appendField(StringBuilder sb, String value) {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+            sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+        } else {
+            sb.append(value);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@code Histogram} aggregates non-negative {@code long} values into logarithmic buckets.
+ *
+ * <p>Unlike a list of {@link Metric}s, a {@code Histogram} uses a fixed amount of memory no matter
+ * how many values are recorded, and {@link #record(long)} does not allocate. Values smaller than
+ * {@code 2^precision} are counted exactly. Larger values are counted in buckets whose width is
+ * {@code 2^-precision} of the value, so with the default precision of 5 bits every reported
+ * percentile is within about 3% of the recorded value.
+ *
+ * <p>Recording is lock free and safe to call from any number of threads. Queries such as {@link
+ * #percentile(double)} and {@link #mean()} walk the buckets once and may run concurrently with
+ * recording, in which case they reflect a close approximation of the values recorded so far.
+ *
+ * @see Metrics#histogram(String)
+ */
+public class Histogram {
+
+    /** The default number of bits of precision. */
+    public static final int DEFAULT_PRECISION = 5;
+
+    private String name;
+    private String unit;
+    private int precision;
+    private int subBucketCount;
+    private AtomicLongArray counts;
+    private LongAdder count;
+    private LongAdder sum;
+    private LongAccumulator min;
+    private LongAccumulator max;
+
+    /**
+     * Constructs a {@code Histogram} with the default precision and "count" as unit.
+     *
+     * @param name the histogram name
+     */
+    public Histogram(String name) {
+        this(name, "count", DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructs a {@code Histogram}.
+     *
+     * @param name the histogram name
+     * @param unit the unit of the recorded values
+     * @param precision the number of bits of precision, from 1 to 10
+     */
+    public Histogram(String name, String unit, int precision) {
+        if (precision < 1 || precision > 10) {
+            throw new IllegalArgumentException("precision must be between 1 and 10: " + precision);
+        }
+        this.name = name;
+        this.unit = unit;
+        this.precision = precision;
+        subBucketCount = 1 << precision;
+        counts = new AtomicLongArray((64 - precision) * subBucketCount);
+        count = new LongAdder();
+        sum = new LongAdder();
+        min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the value to record, must not be negative
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Histogram value must not be negative: " + value);
+        }
+        counts.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the name of the {@code Histogram}.
+     *
+     * @return the histogram name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the unit of the recorded values.
+     *
+     * @return the unit of the recorded values
+     */
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of all recorded values.
+     *
+     * @return the sum of all recorded values
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the smallest recorded value, or 0 if no value has been recorded.
+     *
+     * @return the smallest recorded value
+     */
+    public long getMin() {
+        long value = min.get();
+        return value == Long.MAX_VALUE ? 0 : value;
+    }
+
+    /**
+     * Returns the largest recorded value, or 0 if no value has been recorded.
+     *
+     * @return the largest recorded value
+     */
+    public long getMax() {
+        long value = max.get();
+        return value == Long.MIN_VALUE ? 0 : value;
+    }
+
+    /**
+     * Returns the average of the recorded values, or 0 if no value has been recorded.
+     *
+     * @return the average of the recorded values
+     */
+    public double mean() {
+        long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        return (double) sum.sum() / n;
+    }
+
+    /**
+     * Returns the value at the given percentile.
+     *
+     * <p>The result is the upper bound of the bucket that contains the percentile, clamped to the
+     * range of recorded values.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the value at the given percentile, or 0 if no value has been recorded
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+        long total = 0;
+        int buckets = counts.length();
+        for (int i = 0; i < buckets; ++i) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < buckets; ++i) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                long value = getBucketUpperBound(i);
+                return Math.max(Math.min(value, getMax()), getMin());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns the number of buckets.
+     *
+     * @return the number of buckets
+     */
+    public int getNumberOfBuckets() {
+        return counts.length();
+    }
+
+    /**
+     * Returns the number of values recorded in the bucket at the given index.
+     *
+     * @param index the bucket index
+     * @return the number of values in the bucket
+     */
+    public long getBucketCount(int index) {
+        return counts.get(index);
+    }
+
+    /**
+     * Returns the smallest value that is counted in the bucket at the given index.
+     *
+     * @param index the bucket index
+     * @return the smallest value of the bucket
+     */
+    public long getBucketLowerBound(int index) {
+        if (index < subBucketCount * 2) {
+            return index;
+        }
+        int shift = index / subBucketCount - 1;
+        long mantissa = subBucketCount + index % subBucketCount;
+        return mantissa << shift;
+    }
+
+    /**
+     * Returns the largest value that is counted in the bucket at the given index.
+     *
+     * @param index the bucket index
+     * @return the largest value of the bucket
+     */
+    public long getBucketUpperBound(int index) {
+        if (index < subBucketCount * 2) {
+            return index;
+        }
+        int shift = index / subBucketCount - 1;
+        long mantissa = subBucketCount + index % subBucketCount;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /** Clears all recorded values. */
+    public void reset() {
+        for (int i = 0; i < counts.length(); ++i) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        min.reset();
+        max.reset();
+    }
+
+    /**
+     * Moves all recorded values into a new {@code Histogram} and clears this one.
+     *
+     * <p>Every value recorded concurrently is counted either by the returned histogram or by this
+     * one, so no value is lost between two snapshots.
+     *
+     * @return a new {@code Histogram} holding the values recorded so far
+     */
+    public Histogram getAndReset() {
+        Histogram snapshot = new Histogram(name, unit, precision);
+        for (int i = 0; i < counts.length(); ++i) {
+            long value = counts.getAndSet(i, 0);
+            if (value != 0) {
+                snapshot.counts.set(i, value);
+            }
+        }
+        snapshot.count.add(count.sumThenReset());
+        snapshot.sum.add(sum.sumThenReset());
+        snapshot.min.accumulate(min.getThenReset());
+        snapshot.max.accumulate(max.getThenReset());
+        return snapshot;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return name
+                + '.'
+                + unit
+                + ":count="
+                + getCount()
+                + ",mean="
+                + mean()
+                + ",p50="
+                + percentile(50)
+                + ",p90="
+                + percentile(90)
+                + ",p99="
+                + percentile(99)
+                + ",max="
+                + getMax();
+    }
+
+    private int bucketIndex(long value) {
+        if (value < subBucketCount) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - precision;
+        int mantissa = (int) (value >>> shift);
+        return (shift + 1) * subBucketCount + mantissa - subBucketCount;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * {@code JsonLinesExporter} appends metrics to a file in the JSON Lines format.
+ *
+ * <p>Each export is written as a single line that holds a JSON object with the timestamp of the
+ * snapshot and an array of the metric summaries:
+ *
+ * <pre>
+ * {"timestamp":1573430400000,"metrics":[{"name":"forward","unit":"nano","count":10,...}]}
+ * </pre>
+ */
+public class JsonLinesExporter implements MetricsExporter {
+
+    private BufferedWriter writer;
+
+    /**
+     * Constructs a {@code JsonLinesExporter} that appends to the given file.
+     *
+     * @param file the file to append the metrics to
+     * @throws IOException if the file cannot be opened
+     */
+    public JsonLinesExporter(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        writer =
+                Files.newBufferedWriter(
+                        file,
+                        StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void export(long timestamp, List<MetricSummary> summaries)
+            throws IOException {
+        StringBuilder sb = new StringBuilder(128 + summaries.size() * 160);
+        sb.append("{\"timestamp\":").append(timestamp).append(",\"metrics\":[");
+        boolean first = true;
+        for (MetricSummary summary : summaries) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append("{\"name\":");
+            appendString(sb, summary.getName());
+            sb.append(",\"unit\":");
+            appendString(sb, summary.getUnit());
+            sb.append(",\"count\":").append(summary.getCount());
+            appendNumber(sb, "sum", summary.getSum());
+            appendNumber(sb, "mean", summary.getMean());
+            appendNumber(sb, "min", summary.getMin());
+            appendNumber(sb, "max", summary.getMax());
+            appendNumber(sb, "p50", summary.getP50());
+            appendNumber(sb, "p90", summary.getP90());
+            appendNumber(sb, "p99", summary.getP99());
+            if (!Double.isNaN(summary.getLast())) {
+                appendNumber(sb, "last", summary.getLast());
+            }
+            sb.append('}');
+        }
+        sb.append("]}\n");
+        writer.write(sb.toString());
+        writer.flush();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private static void appendNumber(StringBuilder sb, String key, double value) {
+        sb.append(",\"").append(key).append("\":");
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            sb.append("null");
+        } else {
+            sb.append(value);
+        }
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+}
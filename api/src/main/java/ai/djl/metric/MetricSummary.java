@@ -0,0 +1,266 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@code MetricSummary} holds the aggregated statistics of a metric at one point in time.
+ *
+ * <p>Summaries are created by {@link Metrics#getSummaries()} from either the recorded {@link
+ * Metric} values or a {@link Histogram}, and are what a {@link MetricsExporter} writes out.
+ */
+public class MetricSummary {
+
+    private String name;
+    private String unit;
+    private long count;
+    private double sum;
+    private double min;
+    private double max;
+    private double p50;
+    private double p90;
+    private double p99;
+    private double last;
+    private boolean histogram;
+
+    /**
+     * Constructs a {@code MetricSummary}.
+     *
+     * @param name the metric name
+     * @param unit the metric unit
+     * @param count the number of recorded values
+     * @param sum the sum of the recorded values
+     * @param min the smallest recorded value
+     * @param max the largest recorded value
+     * @param p50 the 50th percentile
+     * @param p90 the 90th percentile
+     * @param p99 the 99th percentile
+     * @param last the most recently recorded value, or {@code NaN} if unknown
+     */
+    public MetricSummary(
+            String name,
+            String unit,
+            long count,
+            double sum,
+            double min,
+            double max,
+            double p50,
+            double p90,
+            double p99,
+            double last) {
+        this(name, unit, count, sum, min, max, p50, p90, p99, last, false);
+    }
+
+    /**
+     * Constructs a {@code MetricSummary}.
+     *
+     * @param name the metric name
+     * @param unit the metric unit
+     * @param count the number of recorded values
+     * @param sum the sum of the recorded values
+     * @param min the smallest recorded value
+     * @param max the largest recorded value
+     * @param p50 the 50th percentile
+     * @param p90 the 90th percentile
+     * @param p99 the 99th percentile
+     * @param last the most recently recorded value, or {@code NaN} if unknown
+     * @param histogram {@code true} if the summary is of a {@link Histogram}
+     */
+    public MetricSummary(
+            String name,
+            String unit,
+            long count,
+            double sum,
+            double min,
+            double max,
+            double p50,
+            double p90,
+            double p99,
+            double last,
+            boolean histogram) {
+        this.name = name;
+        this.unit = unit;
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.last = last;
+        this.histogram = histogram;
+    }
+
+    /**
+     * Creates a {@code MetricSummary} from a list of {@link Metric} values with the same name.
+     *
+     * @param name the metric name
+     * @param metrics the recorded values, must not be empty
+     * @return the {@code MetricSummary}
+     */
+    public static MetricSummary of(String name, List<Metric> metrics) {
+        Metric[] array = metrics.toArray(new Metric[0]);
+        int size = array.length;
+        double[] values = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; ++i) {
+            values[i] = array[i].getValue().doubleValue();
+            sum += values[i];
+        }
+        double last = values[size - 1];
+        Arrays.sort(values);
+        return new MetricSummary(
+                name,
+                array[size - 1].getUnit(),
+                size,
+                sum,
+                values[0],
+                values[size - 1],
+                values[size * 50 / 100],
+                values[size * 90 / 100],
+                values[size * 99 / 100],
+                last);
+    }
+
+    /**
+     * Creates a {@code MetricSummary} from a {@link Histogram}.
+     *
+     * @param histogram the histogram
+     * @return the {@code MetricSummary}
+     */
+    public static MetricSummary of(Histogram histogram) {
+        return new MetricSummary(
+                histogram.getName(),
+                histogram.getUnit(),
+                histogram.getCount(),
+                histogram.getSum(),
+                histogram.getMin(),
+                histogram.getMax(),
+                histogram.percentile(50),
+                histogram.percentile(90),
+                histogram.percentile(99),
+                Double.NaN,
+                true);
+    }
+
+    /**
+     * Returns the metric name.
+     *
+     * @return the metric name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the metric unit.
+     *
+     * @return the metric unit
+     */
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the recorded values.
+     *
+     * @return the sum of the recorded values
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the average of the recorded values.
+     *
+     * @return the average of the recorded values
+     */
+    public double getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Returns the smallest recorded value.
+     *
+     * @return the smallest recorded value
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the largest recorded value
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the 50th percentile of the recorded values.
+     *
+     * @return the 50th percentile
+     */
+    public double getP50() {
+        return p50;
+    }
+
+    /**
+     * Returns the 90th percentile of the recorded values.
+     *
+     * @return the 90th percentile
+     */
+    public double getP90() {
+        return p90;
+    }
+
+    /**
+     * Returns the 99th percentile of the recorded values.
+     *
+     * @return the 99th percentile
+     */
+    public double getP99() {
+        return p99;
+    }
+
+    /**
+     * Returns the most recently recorded value, or {@code NaN} for histograms.
+     *
+     * @return the most recently recorded value
+     */
+    public double getLast() {
+        return last;
+    }
+
+    /**
+     * Returns {@code true} if this is the summary of a {@link Histogram} rather than of a list of
+     * {@link Metric} values.
+     *
+     * @return {@code true} if this is the summary of a {@link Histogram}
+     */
+    public boolean isHistogram() {
+        return histogram;
+    }
+}
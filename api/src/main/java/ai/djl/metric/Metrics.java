@@ -18,6 +18,8 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -34,6 +36,11 @@ import java.util.stream.Collectors;
  * performance indicators (KPIs) during inference and training runs. These KPIs include various
  * latencies, CPU and GPU memory consumption, losses, etc.
  *
+ * <p>Every {@link Metric} added to the collection is kept in memory. For values that are recorded
+ * at a high rate for a long time, such as per-request latencies, use a {@link Histogram} from
+ * {@link #histogram(String)} instead, which uses a fixed amount of memory and does not allocate
+ * when recording.
+ *
  * <p>For more details about using the metrics, see the <a
  * href="https://github.com/awslabs/djl/blob/master/docs/how_to_collect_metrics.md">metrics
  * tutorial</a>.
@@ -43,10 +50,12 @@ public class Metrics {
     private static final MetricValueComparator VALUE_COMPARATOR = new MetricValueComparator();
 
     private Map<String, List<Metric>> metrics;
+    private Map<String, Histogram> histograms;
 
     /** Constructs an empty {@code Metrics} instance. */
     public Metrics() {
         metrics = new ConcurrentHashMap<>();
+        histograms = new ConcurrentHashMap<>();
     }
 
     /**
@@ -55,11 +64,17 @@ public class Metrics {
      * @param metric the {@link Metric} to be added
      */
     public void addMetric(Metric metric) {
-        List<Metric> list =
-                metrics.computeIfAbsent(
-                        metric.getMetricName(),
-                        v -> Collections.synchronizedList(new ArrayList<>()));
-        list.add(metric);
+        // adding inside compute() makes getSummaries(true) see either all or none of the values
+        metrics.compute(
+                metric.getMetricName(),
+                (k, v) -> {
+                    List<Metric> list = v;
+                    if (list == null) {
+                        list = Collections.synchronizedList(new ArrayList<>());
+                    }
+                    list.add(metric);
+                    return list;
+                });
     }
 
     /**
@@ -141,6 +156,126 @@ public class Metrics {
         return metric.stream().collect(Collectors.averagingDouble(m -> m.getValue().doubleValue()));
     }
 
+    /**
+     * Returns the {@link Histogram} with the specified name, creating it if it does not exist.
+     *
+     * @param name the name of the histogram
+     * @return the {@link Histogram} with the specified name
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, Histogram::new);
+    }
+
+    /**
+     * Returns the {@link Histogram} with the specified name and unit, creating it if it does not
+     * exist.
+     *
+     * @param name the name of the histogram
+     * @param unit the unit of the values recorded in a newly created histogram
+     * @return the {@link Histogram} with the specified name
+     */
+    public Histogram histogram(String name, String unit) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram =
+                    histograms.computeIfAbsent(
+                            name, k -> new Histogram(k, unit, Histogram.DEFAULT_PRECISION));
+        }
+        return histogram;
+    }
+
+    /**
+     * Records a value in the {@link Histogram} with the specified name.
+     *
+     * @param name the name of the histogram
+     * @param value the value to record, must not be negative
+     */
+    public void recordValue(String name, long value) {
+        histogram(name).record(value);
+    }
+
+    /**
+     * Returns {@code true} if the metrics object has a histogram with the given name.
+     *
+     * @param name the name to check for
+     * @return {@code true} if the metrics object has a histogram with the given name
+     */
+    public boolean hasHistogram(String name) {
+        return histograms.containsKey(name);
+    }
+
+    /**
+     * Returns the names of all {@link Metric}s in the collection.
+     *
+     * @return the names of all {@link Metric}s
+     */
+    public Set<String> getMetricNames() {
+        return metrics.keySet();
+    }
+
+    /**
+     * Returns the names of all {@link Histogram}s in the collection.
+     *
+     * @return the names of all {@link Histogram}s
+     */
+    public Set<String> getHistogramNames() {
+        return histograms.keySet();
+    }
+
+    /**
+     * Returns a {@link MetricSummary} for every metric and histogram in the collection, sorted by
+     * name.
+     *
+     * @return a list of {@link MetricSummary}
+     */
+    public List<MetricSummary> getSummaries() {
+        return getSummaries(false);
+    }
+
+    /**
+     * Returns a {@link MetricSummary} for every metric and histogram in the collection, sorted by
+     * name, and optionally clears the collection at the same time.
+     *
+     * <p>With {@code reset} set, every value recorded concurrently is either part of the returned
+     * summaries or stays in the collection for the next call, unlike calling {@link
+     * #getSummaries()} followed by {@link #reset()}.
+     *
+     * @param reset {@code true} to clear the recorded values that are summarized
+     * @return a list of {@link MetricSummary}
+     */
+    public List<MetricSummary> getSummaries(boolean reset) {
+        List<MetricSummary> summaries = new ArrayList<>();
+        for (String name : new TreeSet<>(metrics.keySet())) {
+            List<Metric> list = reset ? metrics.remove(name) : metrics.get(name);
+            if (list != null && !list.isEmpty()) {
+                summaries.add(MetricSummary.of(name, list));
+            }
+        }
+        for (String name : new TreeSet<>(histograms.keySet())) {
+            Histogram histogram = histograms.get(name);
+            if (histogram != null && reset) {
+                histogram = histogram.getAndReset();
+            }
+            if (histogram != null && histogram.getCount() > 0) {
+                summaries.add(MetricSummary.of(histogram));
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Removes all recorded {@link Metric}s and clears all {@link Histogram}s.
+     *
+     * <p>Histograms stay registered, so references obtained from {@link #histogram(String)}
+     * remain valid.
+     */
+    public void reset() {
+        metrics.clear();
+        for (Histogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
     /** Comparator based on {@code Metric}'s value field. */
     private static final class MetricValueComparator implements Comparator<Metric>, Serializable {
 
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A {@code MetricsExporter} writes snapshots of {@link Metrics} to an external system.
+ *
+ * <p>Exporters are driven by a {@link MetricsReporter}, which takes a snapshot at a fixed interval
+ * or at the end of every training epoch and passes it to each exporter.
+ *
+ * @see PrometheusExporter
+ * @see JsonLinesExporter
+ * @see CsvExporter
+ */
+public interface MetricsExporter extends AutoCloseable {
+
+    /**
+     * Exports a snapshot of metrics.
+     *
+     * @param timestamp the time of the snapshot in milliseconds since the epoch
+     * @param summaries the summaries of all metrics in the snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    void export(long timestamp, List<MetricSummary> summaries) throws IOException;
+
+    /**
+     * Exports the values recorded since the previous snapshot.
+     *
+     * <p>This is called instead of {@link #export(long, List)} when the {@link MetricsReporter}
+     * clears the metrics after each report. The default implementation exports the summaries as a
+     * regular snapshot.
+     *
+     * @param timestamp the time of the snapshot in milliseconds since the epoch
+     * @param summaries the summaries of the values recorded since the previous snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    default void exportInterval(long timestamp, List<MetricSummary> summaries)
+            throws IOException {
+        export(timestamp, summaries);
+    }
+
+    /**
+     * Releases the resources held by this exporter.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    default void close() throws IOException {}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import ai.djl.training.TrainingListener;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code MetricsReporter} periodically exports snapshots of a {@link Metrics} object through one or
+ * more {@link MetricsExporter}s.
+ *
+ * <p>A report is emitted on every {@link #report()} call, at a fixed interval after {@link
+ * #start(long, TimeUnit)}, and, when the reporter is set as the {@link TrainingListener} of a
+ * {@link ai.djl.training.Trainer}, at the end of every epoch.
+ *
+ * <p>If {@link #setResetAfterReport(boolean)} is enabled, all recorded values are cleared after
+ * each report, so long-running jobs do not keep every sample on the heap. The snapshots are then
+ * passed to {@link MetricsExporter#exportInterval(long, List)}, so exporters of cumulative
+ * counters can keep running totals.
+ *
+ * <pre>
+ * MetricsReporter reporter =
+ *         new MetricsReporter(metrics, new PrometheusExporter(Paths.get("/var/lib/djl.prom")));
+ * reporter.start(10, TimeUnit.SECONDS);
+ * </pre>
+ */
+public class MetricsReporter implements TrainingListener, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsReporter.class);
+
+    private Metrics metrics;
+    private List<MetricsExporter> exporters;
+    private boolean resetAfterReport;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a {@code MetricsReporter}.
+     *
+     * @param metrics the {@link Metrics} to report
+     * @param exporters the {@link MetricsExporter}s to write the reports to
+     */
+    public MetricsReporter(Metrics metrics, MetricsExporter... exporters) {
+        this.metrics = metrics;
+        this.exporters = Arrays.asList(exporters);
+    }
+
+    /**
+     * Sets whether recorded values are cleared after each report.
+     *
+     * @param resetAfterReport {@code true} to clear recorded values after each report
+     */
+    public void setResetAfterReport(boolean resetAfterReport) {
+        this.resetAfterReport = resetAfterReport;
+    }
+
+    /**
+     * Starts reporting at a fixed interval on a background thread.
+     *
+     * @param period the interval between reports
+     * @param unit the {@link TimeUnit} of {@code period}
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (scheduler != null) {
+            throw new IllegalStateException("MetricsReporter has already been started");
+        }
+        scheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        r -> {
+                            Thread thread = new Thread(r, "djl-metrics-reporter");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        scheduler.scheduleAtFixedRate(this::report, period, period, unit);
+    }
+
+    /**
+     * Exports a snapshot of the metrics to all exporters.
+     *
+     * <p>A failing exporter is logged and does not prevent the other exporters from running.
+     */
+    public synchronized void report() {
+        long timestamp = System.currentTimeMillis();
+        List<MetricSummary> summaries = metrics.getSummaries(resetAfterReport);
+        for (MetricsExporter exporter : exporters) {
+            try {
+                if (resetAfterReport) {
+                    exporter.exportInterval(timestamp, summaries);
+                } else {
+                    exporter.export(timestamp, summaries);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to export metrics.", e);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onEpoch() {
+        report();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onTrainingBatch() {}
+
+    /** {@inheritDoc} */
+    @Override
+    public void onValidationBatch() {}
+
+    /**
+     * Stops the periodic reports, emits a final report and closes all exporters.
+     *
+     * @throws IOException if an exporter fails to close
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+        }
+        report();
+        for (MetricsExporter exporter : exporters) {
+            exporter.close();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code PrometheusExporter} writes metrics in the Prometheus text exposition format.
+ *
+ * <p>Every export replaces the content of the output file atomically, which makes the file
+ * suitable for the textfile collector of the Prometheus node exporter. Each metric is written as a
+ * {@code summary} with 0.5, 0.9 and 0.99 quantiles. Metric names are prefixed with {@code djl_}
+ * and characters that are not allowed by Prometheus are replaced with underscores. If several
+ * metrics map to the same name, for example a {@link Metric} list and a {@link Histogram} with the
+ * same name, the ones seen later get a numeric suffix. An exporter keeps the name it has assigned
+ * to a metric, so every metric is exported under the same name in every interval.
+ *
+ * <p>When the {@link MetricsReporter} clears the metrics after each report, the {@code _sum} and
+ * {@code _count} samples keep growing across reports as Prometheus expects, while the quantiles
+ * cover the last interval only. Metrics without new values keep their totals with {@code NaN}
+ * quantiles.
+ */
+public class PrometheusExporter implements MetricsExporter {
+
+    private Path file;
+    private Map<String, MetricSummary> totals = new TreeMap<>();
+    private Map<String, String> names = new HashMap<>();
+
+    /**
+     * Constructs a {@code PrometheusExporter}.
+     *
+     * @param file the file to write the metrics to
+     */
+    public PrometheusExporter(Path file) {
+        this.file = file.toAbsolutePath();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void exportInterval(long timestamp, List<MetricSummary> summaries)
+            throws IOException {
+        Map<String, MetricSummary> interval = getFamilies(summaries, names);
+        Map<String, MetricSummary> updated = new TreeMap<>();
+        for (Map.Entry<String, MetricSummary> entry : totals.entrySet()) {
+            String name = entry.getKey();
+            updated.put(name, accumulate(entry.getValue(), interval.get(name)));
+        }
+        for (Map.Entry<String, MetricSummary> entry : interval.entrySet()) {
+            updated.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        totals = updated;
+        write(totals);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void export(long timestamp, List<MetricSummary> summaries)
+            throws IOException {
+        write(getFamilies(summaries, names));
+    }
+
+    /**
+     * Writes metrics in the Prometheus text exposition format.
+     *
+     * @param writer the {@link Writer} to write to
+     * @param summaries the summaries of the metrics to write
+     * @throws IOException if an I/O error occurs
+     */
+    public static void format(Writer writer, List<MetricSummary> summaries) throws IOException {
+        format(writer, getFamilies(summaries, new HashMap<>()));
+    }
+
+    private void write(Map<String, MetricSummary> families) throws IOException {
+        Path dir = file.getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                format(writer, families);
+            }
+            Files.move(
+                    tmp,
+                    file,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void format(Writer writer, Map<String, MetricSummary> families)
+            throws IOException {
+        for (Map.Entry<String, MetricSummary> entry : families.entrySet()) {
+            String name = entry.getKey();
+            MetricSummary summary = entry.getValue();
+            String unit = summary.getUnit() == null ? "" : escape(summary.getUnit());
+            writer.write("# TYPE " + name + " summary\n");
+            writeSample(writer, name, "unit=\"" + unit + "\",quantile=\"0.5\"", summary.getP50());
+            writeSample(writer, name, "unit=\"" + unit + "\",quantile=\"0.9\"", summary.getP90());
+            writeSample(writer, name, "unit=\"" + unit + "\",quantile=\"0.99\"", summary.getP99());
+            writeSample(writer, name + "_sum", "unit=\"" + unit + '"', summary.getSum());
+            writeSample(writer, name + "_count", "unit=\"" + unit + '"', summary.getCount());
+        }
+    }
+
+    // maps every summary to a unique Prometheus metric name, names already assigned are kept
+    private static Map<String, MetricSummary> getFamilies(
+            List<MetricSummary> summaries, Map<String, String> names) {
+        Map<String, MetricSummary> families = new LinkedHashMap<>();
+        for (MetricSummary summary : summaries) {
+            // a metric list and a histogram with the same name are different series
+            String key = (summary.isHistogram() ? "histogram:" : "metric:") + summary.getName();
+            String family = names.get(key);
+            if (family == null) {
+                String name = sanitize(summary.getName());
+                family = name;
+                for (int i = 2; names.containsValue(family); ++i) {
+                    family = name + '_' + i;
+                }
+                names.put(key, family);
+            }
+            families.put(family, summary);
+        }
+        return families;
+    }
+
+    // adds the interval to the totals, the quantiles are the ones of the interval only
+    private static MetricSummary accumulate(MetricSummary total, MetricSummary interval) {
+        if (interval == null) {
+            return new MetricSummary(
+                    total.getName(),
+                    total.getUnit(),
+                    total.getCount(),
+                    total.getSum(),
+                    Double.NaN,
+                    Double.NaN,
+                    Double.NaN,
+                    Double.NaN,
+                    Double.NaN,
+                    Double.NaN,
+                    total.isHistogram());
+        }
+        return new MetricSummary(
+                interval.getName(),
+                interval.getUnit(),
+                total.getCount() + interval.getCount(),
+                total.getSum() + interval.getSum(),
+                interval.getMin(),
+                interval.getMax(),
+                interval.getP50(),
+                interval.getP90(),
+                interval.getP99(),
+                interval.getLast(),
+                interval.isHistogram());
+    }
+
+    private static void writeSample(Writer writer, String name, String labels, double value)
+            throws IOException {
+        writer.write(name + '{' + labels + "} " + formatValue(value) + '\n');
+    }
+
+    private static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        } else if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+
+    private static String sanitize(String name) {
+        StringBuilder sb = new StringBuilder("djl_");
+        for (int i = 0; i < name.length(); ++i) {
+            char c = name.charAt(i);
+            if ((c >= 'a' && c <= 'z')
+                    || (c >= 'A' && c <= 'Z')
+                    || (c >= '0' && c <= '9')
+                    || c == '_'
+                    || c == ':') {
+                sb.append(c);
+            } else {
+                sb.append('_');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
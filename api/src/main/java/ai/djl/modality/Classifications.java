@@ -14,21 +14,26 @@ package ai.djl.modality;
 
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.types.DataType;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.NoSuchElementException;
 
 /**
  * {@code Classifications} is the container that stores the classification results for
  * classification on a single input.
+ *
+ * <p>When created from an {@link NDArray} or a {@code float[]}, the probabilities are kept in a
+ * primitive array, and {@link Classification} items are only created for the classes that are
+ * returned, so {@link #topK(int)} and {@link #best()} stay cheap for models with many classes.
+ * Probabilities of type {@link DataType#FLOAT64} are kept as {@code double} values.
  */
 public class Classifications {
 
     protected List<String> classNames;
     protected List<Double> probabilities;
+    private float[] values;
+    private double[] doubleValues;
 
     /**
      * Constructs a {@code Classifications} using a parallel list of classNames and probabilities.
@@ -50,10 +55,30 @@ public class Classifications {
      */
     public Classifications(List<String> classNames, NDArray probabilities) {
         this.classNames = classNames;
-        NDArray array = probabilities.asType(DataType.FLOAT64, false);
-        this.probabilities =
-                Arrays.stream(array.toDoubleArray()).boxed().collect(Collectors.toList());
-        array.close();
+        DataType dataType = probabilities.getDataType();
+        if (dataType == DataType.FLOAT32) {
+            values = probabilities.toFloatArray();
+        } else if (dataType == DataType.FLOAT64) {
+            doubleValues = probabilities.toDoubleArray();
+        } else {
+            NDArray array = probabilities.asType(DataType.FLOAT64, false);
+            doubleValues = array.toDoubleArray();
+            array.close();
+        }
+        this.probabilities = new ArrayView(values, doubleValues);
+    }
+
+    /**
+     * Constructs a {@code Classifications} using list of classNames parallel to an array of
+     * probabilities.
+     *
+     * @param classNames the names of the classes
+     * @param probabilities the probabilities for each class for the input
+     */
+    public Classifications(List<String> classNames, float[] probabilities) {
+        this.classNames = classNames;
+        this.values = probabilities;
+        this.probabilities = new ArrayView(probabilities, null);
     }
 
     /**
@@ -80,21 +105,50 @@ public class Classifications {
      */
     @SuppressWarnings("unchecked")
     public <T extends Classification> T item(int index) {
-        return (T) new Classification(classNames.get(index), probabilities.get(index));
+        return (T) new Classification(classNames.get(index), getProbability(index));
     }
 
     /**
      * Returns a list of the top {@code k} best classes.
      *
+     * <p>The best classes are selected with a bounded heap in {@code O(n log k)}, and only the
+     * returned items are created. Classes with equal probabilities keep their original order.
+     *
      * @param k the number of classes to return
      * @param <T> the type of the classification item for the task
      * @return the list of classification items for the best classes in order of best to worst
      */
     public <T extends Classification> List<T> topK(int k) {
-        List<T> items = items();
-        items.sort(Comparator.comparingDouble(Classification::getProbability).reversed());
-        int count = Math.min(items.size(), k);
-        return items.subList(0, count);
+        int size = classNames.size();
+        int count = Math.min(size, k);
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+
+        // min-heap of the best indices seen so far, with the worst of them at the root
+        int[] heap = new int[count];
+        int heapSize = 0;
+        for (int i = 0; i < size; ++i) {
+            if (heapSize < count) {
+                heap[heapSize++] = i;
+                siftUp(heap, heapSize - 1);
+            } else if (isBetter(i, heap[0])) {
+                heap[0] = i;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        int[] order = new int[count];
+        while (heapSize > 0) {
+            order[--heapSize] = heap[0];
+            heap[0] = heap[heapSize];
+            siftDown(heap, heapSize);
+        }
+        List<T> list = new ArrayList<>(count);
+        for (int index : order) {
+            list.add(item(index));
+        }
+        return list;
     }
 
     /**
@@ -102,9 +156,23 @@ public class Classifications {
      *
      * @param <T> the type of the classification item for the task
      * @return the classification item
+     * @throws NoSuchElementException if there are no classes
      */
     public <T extends Classification> T best() {
-        return item(probabilities.indexOf(Collections.max(probabilities)));
+        int size = probabilities.size();
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int best = 0;
+        double max = getProbability(0);
+        for (int i = 1; i < size; ++i) {
+            double probability = getProbability(i);
+            if (probability > max) {
+                max = probability;
+                best = i;
+            }
+        }
+        return item(best);
     }
 
     /**
@@ -136,6 +204,86 @@ public class Classifications {
         return sb.toString();
     }
 
+    /**
+     * Returns the probability of the class at a given index.
+     *
+     * @param index the index of the class
+     * @return the probability of the class
+     */
+    protected double getProbability(int index) {
+        if (values != null) {
+            return values[index];
+        } else if (doubleValues != null) {
+            return doubleValues[index];
+        }
+        return probabilities.get(index);
+    }
+
+    private boolean isBetter(int i, int j) {
+        double a = getProbability(i);
+        double b = getProbability(j);
+        return a > b || (a == b && i < j);
+    }
+
+    private void siftUp(int[] heap, int pos) {
+        int index = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!isBetter(heap[parent], index)) {
+                break;
+            }
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = index;
+    }
+
+    private void siftDown(int[] heap, int size) {
+        if (size == 0) {
+            return;
+        }
+        int index = heap[0];
+        int pos = 0;
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < size && isBetter(heap[child], heap[right])) {
+                child = right;
+            }
+            if (!isBetter(index, heap[child])) {
+                break;
+            }
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = index;
+    }
+
+    /** A read-only {@code List<Double>} view of a {@code float} or a {@code double} array. */
+    private static final class ArrayView extends AbstractList<Double> {
+
+        private float[] floats;
+        private double[] doubles;
+
+        ArrayView(float[] floats, double[] doubles) {
+            this.floats = floats;
+            this.doubles = doubles;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Double get(int index) {
+            return floats != null ? floats[index] : doubles[index];
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int size() {
+            return floats != null ? floats.length : doubles.length;
+        }
+    }
+
     /**
      * A {@code Classification} stores the classification result for a single class on a single
      * input.
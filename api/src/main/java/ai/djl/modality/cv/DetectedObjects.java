@@ -13,6 +13,7 @@
 package ai.djl.modality.cv;
 
 import ai.djl.modality.Classifications;
+import java.util.AbstractList;
 import java.util.List;
 
 /**
@@ -37,13 +38,34 @@ public class DetectedObjects extends Classifications {
         this.boundingBoxes = boundingBoxes;
     }
 
+    /**
+     * Constructs a DetectedObjects from primitive arrays, usually during post-processing.
+     *
+     * <p>The arrays are used as the backing storage of the result without boxing each value, and
+     * the {@link Rectangle}s are only created when they are accessed.
+     *
+     * @param classNames the names of the objects that were detected
+     * @param probabilities the probability of the objects that were detected
+     * @param boundingBoxes the bounding boxes of the objects that were detected, as consecutive
+     *     (x, y, width, height) values
+     */
+    public DetectedObjects(
+            List<String> classNames, double[] probabilities, double[] boundingBoxes) {
+        super(classNames, new DoubleList(probabilities));
+        if (boundingBoxes.length != probabilities.length * 4) {
+            throw new IllegalArgumentException(
+                    "Expected 4 values per bounding box, got: " + boundingBoxes.length);
+        }
+        this.boundingBoxes = new RectangleList(boundingBoxes);
+    }
+
     /** {@inheritDoc} */
     @Override
     @SuppressWarnings("unchecked")
     public <T extends Classification> T item(int index) {
         return (T)
                 new DetectedObject(
-                        classNames.get(index), probabilities.get(index), boundingBoxes.get(index));
+                        classNames.get(index), getProbability(index), boundingBoxes.get(index));
     }
 
     /**
@@ -92,4 +114,52 @@ public class DetectedObjects extends Classifications {
             return sb.toString();
         }
     }
+
+    /** A read-only {@code List<Double>} view of a {@code double} array. */
+    private static final class DoubleList extends AbstractList<Double> {
+
+        private double[] values;
+
+        DoubleList(double[] values) {
+            this.values = values;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Double get(int index) {
+            return values[index];
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    /** A read-only list of {@link Rectangle}s stored as consecutive (x, y, width, height). */
+    private static final class RectangleList extends AbstractList<BoundingBox> {
+
+        private double[] values;
+
+        RectangleList(double[] values) {
+            this.values = values;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public BoundingBox get(int index) {
+            int i = index * 4;
+            if (index < 0 || i >= values.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return new Rectangle(values[i], values[i + 1], values[i + 2], values[i + 3]);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int size() {
+            return values.length / 4;
+        }
+    }
 }
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv;
+
+import java.util.Arrays;
+
+/**
+ * {@code NonMaxSuppression} removes overlapping detections from the output of an object detection
+ * model on plain Java arrays, independent of the engine.
+ *
+ * <p>Boxes are passed as a flat {@code float[]} of consecutive {@code [x_min, y_min, x_max, y_max]}
+ * values, together with a score and a class id for each box. Candidates with a score not above
+ * the threshold, or with a negative class id, which marks the background, are ignored. The
+ * remaining candidates are reduced to the {@code topK} best with a partial selection that does
+ * not sort the whole candidate set, and then suppressed greedily in order of decreasing score:
+ *
+ * <ul>
+ *   <li>By default, a box is suppressed by a better box of the same class whose intersection over
+ *       union (IoU) exceeds the NMS threshold.
+ *   <li>With {@link Builder#optForceSuppress(boolean)}, boxes suppress each other regardless of
+ *       their class.
+ *   <li>With {@link Builder#optSoftNms(float)}, overlapping boxes are not removed but their score
+ *       is decayed by {@code exp(-iou^2 / sigma)}, and they are only dropped once their score falls
+ *       below the threshold.
+ * </ul>
+ *
+ * @see MultiBoxDetection
+ */
+public class NonMaxSuppression {
+
+    private float threshold;
+    private float nmsThreshold;
+    private boolean forceSuppress;
+    private float softNmsSigma;
+    private int topK;
+    private int maxDetections;
+
+    /**
+     * Creates a new instance of {@code NonMaxSuppression} with the arguments in the given {@link
+     * Builder}.
+     *
+     * @param builder the {@link Builder} with the necessary arguments
+     */
+    public NonMaxSuppression(Builder builder) {
+        this.threshold = builder.threshold;
+        this.nmsThreshold = builder.nmsThreshold;
+        this.forceSuppress = builder.forceSuppress;
+        this.softNmsSigma = builder.softNmsSigma;
+        this.topK = builder.topK;
+        this.maxDetections = builder.maxDetections;
+    }
+
+    /**
+     * Applies non-maximum suppression.
+     *
+     * <p>With soft-NMS, the decayed scores are written back to {@code scores}.
+     *
+     * @param boxes the boxes as consecutive {@code [x_min, y_min, x_max, y_max]} values
+     * @param scores the score of each box
+     * @param classIds the class id of each box, or {@code null} if all boxes have the same class
+     * @return the indices of the kept boxes, in order of decreasing score
+     */
+    public int[] suppress(float[] boxes, float[] scores, int[] classIds) {
+        int size = scores.length;
+        if (boxes.length != size * 4 || (classIds != null && classIds.length != size)) {
+            throw new IllegalArgumentException("boxes, scores and classIds must be parallel");
+        }
+
+        int[] candidates = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; ++i) {
+            if (scores[i] > threshold && (classIds == null || classIds[i] >= 0)) {
+                candidates[count++] = i;
+            }
+        }
+        count = sort(candidates, count, topK, scores);
+
+        if (softNmsSigma > 0) {
+            return softSuppress(boxes, scores, classIds, candidates, count);
+        }
+        return hardSuppress(boxes, classIds, candidates, count);
+    }
+
+    /**
+     * Returns the indices of the {@code k} highest scores above the threshold, in order of
+     * decreasing score.
+     *
+     * <p>The {@code k} best scores are found with a partial selection in linear expected time, and
+     * only those are sorted.
+     *
+     * @param scores the scores
+     * @param k the maximum number of indices to return
+     * @param threshold the score that a returned index must exceed
+     * @return the indices of the best scores
+     */
+    public static int[] topK(float[] scores, int k, float threshold) {
+        int[] indices = new int[scores.length];
+        int count = 0;
+        for (int i = 0; i < scores.length; ++i) {
+            if (scores[i] > threshold) {
+                indices[count++] = i;
+            }
+        }
+        count = sort(indices, count, k, scores);
+        return Arrays.copyOf(indices, count);
+    }
+
+    /**
+     * Returns the intersection over union of two boxes.
+     *
+     * @param boxes the boxes as consecutive {@code [x_min, y_min, x_max, y_max]} values
+     * @param i the index of the first box
+     * @param j the index of the second box
+     * @return the intersection over union, from 0 to 1
+     */
+    public static float iou(float[] boxes, int i, int j) {
+        int a = i * 4;
+        int b = j * 4;
+        float areaA = (boxes[a + 2] - boxes[a]) * (boxes[a + 3] - boxes[a + 1]);
+        float areaB = (boxes[b + 2] - boxes[b]) * (boxes[b + 3] - boxes[b + 1]);
+        return iou(boxes, a, b, areaA, areaB);
+    }
+
+    private int[] hardSuppress(float[] boxes, int[] classIds, int[] order, int count) {
+        float[] areas = areas(boxes, order, count);
+        boolean[] suppressed = new boolean[count];
+        int limit = maxDetections > 0 ? maxDetections : count;
+        int[] kept = new int[Math.min(count, limit)];
+        int numKept = 0;
+        for (int i = 0; i < count && numKept < limit; ++i) {
+            if (suppressed[i]) {
+                continue;
+            }
+            int best = order[i];
+            kept[numKept++] = best;
+            int a = best * 4;
+            for (int j = i + 1; j < count; ++j) {
+                if (suppressed[j]) {
+                    continue;
+                }
+                int other = order[j];
+                if (!forceSuppress && classIds != null && classIds[other] != classIds[best]) {
+                    continue;
+                }
+                if (iou(boxes, a, other * 4, areas[i], areas[j]) > nmsThreshold) {
+                    suppressed[j] = true;
+                }
+            }
+        }
+        return Arrays.copyOf(kept, numKept);
+    }
+
+    private int[] softSuppress(
+            float[] boxes, float[] scores, int[] classIds, int[] candidates, int count) {
+        float[] areas = areas(boxes, candidates, count);
+        int limit = maxDetections > 0 ? maxDetections : count;
+        int[] kept = new int[Math.min(count, limit)];
+        int numKept = 0;
+        int remaining = count;
+        while (remaining > 0 && numKept < limit) {
+            // move the best remaining candidate to the front of the remaining range
+            int start = count - remaining;
+            int best = start;
+            for (int i = start + 1; i < count; ++i) {
+                if (scores[candidates[i]] > scores[candidates[best]]) {
+                    best = i;
+                }
+            }
+            swap(candidates, start, best);
+            swap(areas, start, best);
+            int index = candidates[start];
+            kept[numKept++] = index;
+            --remaining;
+
+            int a = index * 4;
+            int j = start + 1;
+            while (j < count) {
+                int other = candidates[j];
+                if (forceSuppress || classIds == null || classIds[other] == classIds[index]) {
+                    float iou = iou(boxes, a, other * 4, areas[start], areas[j]);
+                    scores[other] *= (float) Math.exp(-iou * iou / softNmsSigma);
+                    if (scores[other] <= threshold) {
+                        // drop the candidate by moving the last remaining one into its place
+                        --count;
+                        --remaining;
+                        candidates[j] = candidates[count];
+                        areas[j] = areas[count];
+                        continue;
+                    }
+                }
+                ++j;
+            }
+        }
+        return Arrays.copyOf(kept, numKept);
+    }
+
+    private static float[] areas(float[] boxes, int[] indices, int count) {
+        float[] areas = new float[count];
+        for (int i = 0; i < count; ++i) {
+            int a = indices[i] * 4;
+            areas[i] = (boxes[a + 2] - boxes[a]) * (boxes[a + 3] - boxes[a + 1]);
+        }
+        return areas;
+    }
+
+    private static float iou(float[] boxes, int a, int b, float areaA, float areaB) {
+        float width = Math.min(boxes[a + 2], boxes[b + 2]) - Math.max(boxes[a], boxes[b]);
+        float height = Math.min(boxes[a + 3], boxes[b + 3]) - Math.max(boxes[a + 1], boxes[b + 1]);
+        if (width <= 0 || height <= 0) {
+            return 0;
+        }
+        float intersection = width * height;
+        return intersection / (areaA + areaB - intersection);
+    }
+
+    private static int sort(int[] indices, int count, int k, float[] scores) {
+        // sorts primitive keys of score bits and index, which avoids boxing and makes ties
+        // between equal scores resolve in index order
+        long[] keys = new long[count];
+        for (int i = 0; i < count; ++i) {
+            int bits = Float.floatToIntBits(scores[indices[i]]);
+            // flip the magnitude bits of negative floats so that their ints order like the floats
+            bits ^= (bits >> 31) & 0x7FFFFFFF;
+            keys[i] = ((long) bits << 32) | (~indices[i] & 0xFFFFFFFFL);
+        }
+        int size = count;
+        if (k > 0 && count > k) {
+            select(keys, count, k);
+            size = k;
+        }
+        Arrays.sort(keys, 0, size);
+        for (int i = 0; i < size; ++i) {
+            indices[i] = ~(int) keys[size - 1 - i];
+        }
+        return size;
+    }
+
+    private static void select(long[] keys, int count, int k) {
+        // moves the k largest keys to the front, in no particular order
+        int left = 0;
+        int right = count - 1;
+        while (left < right) {
+            // median of three keeps sorted input from degrading to quadratic time
+            int mid = (left + right) >>> 1;
+            if (keys[mid] > keys[left]) {
+                swap(keys, mid, left);
+            }
+            if (keys[right] > keys[left]) {
+                swap(keys, right, left);
+            }
+            if (keys[right] > keys[mid]) {
+                swap(keys, right, mid);
+            }
+            long pivot = keys[mid];
+
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (keys[i] > pivot) {
+                    ++i;
+                }
+                while (keys[j] < pivot) {
+                    --j;
+                }
+                if (i <= j) {
+                    swap(keys, i++, j--);
+                }
+            }
+            if (k - 1 <= j) {
+                right = j;
+            } else if (k - 1 >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    private static void swap(long[] array, int i, int j) {
+        long tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    private static void swap(float[] array, int i, int j) {
+        float tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    /** The Builder to construct a {@link NonMaxSuppression} object. */
+    public static final class Builder {
+
+        private float threshold = 0.01f;
+        private float nmsThreshold = 0.5f;
+        private boolean forceSuppress;
+        private float softNmsSigma;
+        private int topK = -1;
+        private int maxDetections = -1;
+
+        /**
+         * Sets the score that a detection must exceed to be kept. Defaults to 0.01.
+         *
+         * @param threshold the score threshold
+         * @return this {@code Builder}
+         */
+        public Builder optThreshold(float threshold) {
+            this.threshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets the intersection over union above which a box is suppressed. Defaults to 0.5.
+         *
+         * @param nmsThreshold the non-maximum suppression(NMS) threshold
+         * @return this {@code Builder}
+         */
+        public Builder optNmsThreshold(float nmsThreshold) {
+            this.nmsThreshold = nmsThreshold;
+            return this;
+        }
+
+        /**
+         * Sets whether boxes suppress each other regardless of their class. Defaults to {@code
+         * false}.
+         *
+         * @param forceSuppress whether to suppress all detections regardless of class id
+         * @return this {@code Builder}
+         */
+        public Builder optForceSuppress(boolean forceSuppress) {
+            this.forceSuppress = forceSuppress;
+            return this;
+        }
+
+        /**
+         * Enables Gaussian soft-NMS with the given sigma. Defaults to 0, which disables soft-NMS.
+         *
+         * @param sigma the sigma of the Gaussian score decay
+         * @return this {@code Builder}
+         */
+        public Builder optSoftNms(float sigma) {
+            this.softNmsSigma = sigma;
+            return this;
+        }
+
+        /**
+         * Sets the number of best candidates to consider for suppression. Defaults to -1, which
+         * implies that there is no limit.
+         *
+         * @param topK the number of candidates to consider
+         * @return this {@code Builder}
+         */
+        public Builder optTopK(int topK) {
+            this.topK = topK;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of detections to return. Defaults to -1, which implies that there
+         * is no limit.
+         *
+         * @param maxDetections the maximum number of detections
+         * @return this {@code Builder}
+         */
+        public Builder optMaxDetections(int maxDetections) {
+            this.maxDetections = maxDetections;
+            return this;
+        }
+
+        /**
+         * Builds a {@link NonMaxSuppression}.
+         *
+         * @return the {@link NonMaxSuppression}
+         */
+        public NonMaxSuppression build() {
+            return new NonMaxSuppression(this);
+        }
+    }
+}
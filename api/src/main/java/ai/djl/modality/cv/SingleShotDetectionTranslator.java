@@ -19,6 +19,7 @@ import ai.djl.translate.TranslatorContext;
 import ai.djl.util.Utils;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -32,6 +33,7 @@ public class SingleShotDetectionTranslator extends ImageTranslator<DetectedObjec
     private List<String> classes;
     private double imageWidth;
     private double imageHeight;
+    private NonMaxSuppression nms;
 
     /**
      * Creates the SSD translator from the given builder.
@@ -45,25 +47,43 @@ public class SingleShotDetectionTranslator extends ImageTranslator<DetectedObjec
         this.classes = builder.classes;
         this.imageWidth = builder.imageWidth;
         this.imageHeight = builder.imageHeight;
+        this.nms = builder.nms;
     }
 
     /** {@inheritDoc} */
     @Override
     public DetectedObjects processOutput(TranslatorContext ctx, NDList list) throws IOException {
         Model model = ctx.getModel();
+        // the model caches the parsed synset, so the shared field is never written here
+        List<String> classes = this.classes;
         if (classes == null) {
             classes = model.getArtifact(synsetArtifactName, Utils::readLines);
         }
 
+        // copy all outputs to the JVM once instead of slicing each box
         float[] classIds = list.get(0).toFloatArray();
         float[] probabilities = list.get(1).toFloatArray();
-        NDArray boundingBoxes = list.get(2);
+        float[] boundingBoxes = list.get(2).toFloatArray();
+
+        double scaleX = imageWidth > 0 ? imageWidth : 1;
+        double scaleY = imageHeight > 0 ? imageHeight : 1;
+        int size = classIds.length;
+        int[] kept = null;
+        if (nms != null) {
+            int[] ids = new int[size];
+            for (int i = 0; i < size; ++i) {
+                ids[i] = (int) classIds[i];
+            }
+            kept = nms.suppress(boundingBoxes, probabilities, ids);
+            size = kept.length;
+        }
 
         List<String> retNames = new ArrayList<>();
-        List<Double> retProbs = new ArrayList<>();
-        List<BoundingBox> retBB = new ArrayList<>();
-
-        for (int i = 0; i < classIds.length; ++i) {
+        double[] retProbs = new double[size];
+        double[] retBB = new double[size * 4];
+        int count = 0;
+        for (int k = 0; k < size; ++k) {
+            int i = kept == null ? k : kept[k];
             int classId = (int) classIds[i];
             double probability = probabilities[i];
             // classId starts from 0, -1 means background
@@ -71,22 +91,22 @@ public class SingleShotDetectionTranslator extends ImageTranslator<DetectedObjec
                 if (classId >= classes.size()) {
                     throw new AssertionError("Unexpected index: " + classId);
                 }
-                String className = classes.get(classId);
-                float[] box = boundingBoxes.get(i).toFloatArray();
                 // rescale box coordinates by imageWidth and imageHeight
-                double x = imageWidth > 0 ? box[0] / imageWidth : box[0];
-                double y = imageHeight > 0 ? box[1] / imageHeight : box[1];
-                double w = imageWidth > 0 ? box[2] / imageWidth - x : box[2] - x;
-                double h = imageHeight > 0 ? box[3] / imageHeight - y : box[3] - y;
-
-                Rectangle rect = new Rectangle(x, y, w, h);
-                retNames.add(className);
-                retProbs.add(probability);
-                retBB.add(rect);
+                int box = i * 4;
+                int ret = count * 4;
+                double x = boundingBoxes[box] / scaleX;
+                double y = boundingBoxes[box + 1] / scaleY;
+                retBB[ret] = x;
+                retBB[ret + 1] = y;
+                retBB[ret + 2] = boundingBoxes[box + 2] / scaleX - x;
+                retBB[ret + 3] = boundingBoxes[box + 3] / scaleY - y;
+                retNames.add(classes.get(classId));
+                retProbs[count++] = probability;
             }
         }
 
-        return new DetectedObjects(retNames, retProbs, retBB);
+        return new DetectedObjects(
+                retNames, Arrays.copyOf(retProbs, count), Arrays.copyOf(retBB, count * 4));
     }
 
     /** The builder for SSD translator. */
@@ -97,6 +117,7 @@ public class SingleShotDetectionTranslator extends ImageTranslator<DetectedObjec
         private List<String> classes;
         private double imageWidth;
         private double imageHeight;
+        private NonMaxSuppression nms;
 
         /**
          * Sets the threshold for prediction accuracy.
@@ -152,6 +173,20 @@ public class SingleShotDetectionTranslator extends ImageTranslator<DetectedObjec
             return this;
         }
 
+        /**
+         * Sets the {@link NonMaxSuppression} to apply to the model output.
+         *
+         * <p>Use this for models that do not run non-maximum suppression as part of the network.
+         * The suppression runs on the JVM, so it works the same with every engine.
+         *
+         * @param nms the {@link NonMaxSuppression} to apply
+         * @return this builder
+         */
+        public Builder optNms(NonMaxSuppression nms) {
+            this.nms = nms;
+            return this;
+        }
+
         /** {@inheritDoc} */
         @Override
         protected Builder self() {
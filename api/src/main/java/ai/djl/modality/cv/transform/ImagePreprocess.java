@@ -0,0 +1,334 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv.transform;
+
+import ai.djl.modality.cv.util.BufferedImageUtils;
+import ai.djl.modality.cv.util.NDImageUtils;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.Transform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * A {@link Transform} that crops, resizes, converts to tensor and normalizes an image in one pass.
+ *
+ * <p>It produces the same result as a pipeline of {@link Crop} or {@link CenterCrop}, {@link
+ * Resize}, {@link ToTensor} and {@link Normalize}, but reads each source pixel on the JVM and
+ * writes the {@link DataType#FLOAT32} (C, H, W) output directly, without creating an intermediate
+ * {@link NDArray} for every step. The scaling to {@code [0, 1]} and the normalization are folded
+ * into a single multiply-add per channel. The resize is bilinear and is not rounded to 8-bit
+ * values in between, so the output may differ from the engine pipeline by less than one pixel
+ * level.
+ *
+ * <p>The input is either a {@link DataType#UINT8} image {@link NDArray} of shape HWC, or a {@link
+ * BufferedImage} through {@link #transform(NDManager, BufferedImage)}.
+ */
+public class ImagePreprocess implements Transform {
+
+    private int cropX;
+    private int cropY;
+    private int cropWidth;
+    private int cropHeight;
+    private boolean centerCrop;
+    private int width;
+    private int height;
+    private float[] mean;
+    private float[] std;
+    private NDImageUtils.Flag flag;
+
+    /**
+     * Creates an {@code ImagePreprocess} {@link Transform} using {@link Builder}.
+     *
+     * @param builder the builder with the preprocessing steps
+     */
+    public ImagePreprocess(Builder builder) {
+        cropX = builder.cropX;
+        cropY = builder.cropY;
+        cropWidth = builder.cropWidth;
+        cropHeight = builder.cropHeight;
+        centerCrop = builder.centerCrop;
+        width = builder.width;
+        height = builder.height;
+        mean = builder.mean;
+        std = builder.std;
+        flag = builder.flag;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray transform(NDArray array) {
+        if (array.getDataType() != DataType.UINT8) {
+            throw new IllegalArgumentException(
+                    "Expect UINT8 image, but got: " + array.getDataType());
+        }
+        Shape shape = array.getShape();
+        if (shape.dimension() != 3) {
+            throw new IllegalArgumentException("Expect HWC image, but got: " + shape);
+        }
+        int h = (int) shape.get(0);
+        int w = (int) shape.get(1);
+        int channel = (int) shape.get(2);
+        return transform(array.getManager(), array.toByteArray(), w, h, channel);
+    }
+
+    /**
+     * Applies the {@code ImagePreprocess} to a {@code BufferedImage}.
+     *
+     * @param manager the {@link NDManager} to create the output with
+     * @param image the image to transform
+     * @return the {@link DataType#FLOAT32} (C, H, W) output
+     */
+    public NDArray transform(NDManager manager, BufferedImage image) {
+        byte[] pixels = BufferedImageUtils.toByteArray(image, flag, false);
+        int channel = flag == NDImageUtils.Flag.GRAYSCALE ? 1 : 3;
+        return transform(manager, pixels, image.getWidth(), image.getHeight(), channel);
+    }
+
+    private NDArray transform(NDManager manager, byte[] pixels, int w, int h, int channel) {
+        // the source region, following NDImageUtils.crop and NDImageUtils.centerCrop
+        int x = 0;
+        int y = 0;
+        int srcWidth = w;
+        int srcHeight = h;
+        if (centerCrop) {
+            int targetWidth = cropWidth;
+            int targetHeight = cropHeight;
+            if (targetWidth < 0) {
+                targetWidth = Math.min(w, h);
+                targetHeight = targetWidth;
+            }
+            int dw = (w - targetWidth) / 2;
+            int dh = (h - targetHeight) / 2;
+            if (dw > 0) {
+                x = dw;
+                srcWidth = targetWidth;
+            }
+            if (dh > 0) {
+                y = dh;
+                srcHeight = targetHeight;
+            }
+        } else if (cropWidth > 0) {
+            if (cropX + cropWidth > w || cropY + cropHeight > h) {
+                throw new IllegalArgumentException("Crop region is outside of the image.");
+            }
+            x = cropX;
+            y = cropY;
+            srcWidth = cropWidth;
+            srcHeight = cropHeight;
+        }
+        int outWidth = width > 0 ? width : srcWidth;
+        int outHeight = height > 0 ? height : srcHeight;
+
+        float[] scale = new float[channel];
+        float[] bias = new float[channel];
+        for (int c = 0; c < channel; ++c) {
+            float s = std == null ? 1f : std[c];
+            scale[c] = 1f / (255f * s);
+            bias[c] = mean == null ? 0f : -mean[c] / s;
+        }
+
+        int plane = outWidth * outHeight;
+        float[] out = new float[channel * plane];
+        if (outWidth == srcWidth && outHeight == srcHeight) {
+            for (int dy = 0; dy < outHeight; ++dy) {
+                int row = ((y + dy) * w + x) * channel;
+                int dst = dy * outWidth;
+                for (int dx = 0; dx < outWidth; ++dx) {
+                    int src = row + dx * channel;
+                    for (int c = 0; c < channel; ++c) {
+                        out[c * plane + dst + dx] = (pixels[src + c] & 0xFF) * scale[c] + bias[c];
+                    }
+                }
+            }
+        } else {
+            // precompute the source columns and weights, shared by all output rows
+            int[] x0 = new int[outWidth];
+            int[] x1 = new int[outWidth];
+            float[] wx = new float[outWidth];
+            interpolation(srcWidth, outWidth, x, x0, x1, wx);
+            int[] y0 = new int[outHeight];
+            int[] y1 = new int[outHeight];
+            float[] wy = new float[outHeight];
+            interpolation(srcHeight, outHeight, y, y0, y1, wy);
+
+            for (int dy = 0; dy < outHeight; ++dy) {
+                int top = y0[dy] * w * channel;
+                int bottom = y1[dy] * w * channel;
+                float fy = wy[dy];
+                int dst = dy * outWidth;
+                for (int dx = 0; dx < outWidth; ++dx) {
+                    int left = x0[dx] * channel;
+                    int right = x1[dx] * channel;
+                    float fx = wx[dx];
+                    for (int c = 0; c < channel; ++c) {
+                        float tl = pixels[top + left + c] & 0xFF;
+                        float tr = pixels[top + right + c] & 0xFF;
+                        float bl = pixels[bottom + left + c] & 0xFF;
+                        float br = pixels[bottom + right + c] & 0xFF;
+                        float t = tl + (tr - tl) * fx;
+                        float b = bl + (br - bl) * fx;
+                        float value = t + (b - t) * fy;
+                        out[c * plane + dst + dx] = value * scale[c] + bias[c];
+                    }
+                }
+            }
+        }
+        return manager.create(out, new Shape(channel, outHeight, outWidth));
+    }
+
+    // computes the two source indices and the weight of the second one for each output index,
+    // using the pixel center alignment of bilinear resize
+    private static void interpolation(
+            int srcSize, int dstSize, int offset, int[] first, int[] second, float[] weight) {
+        float ratio = (float) srcSize / dstSize;
+        for (int i = 0; i < dstSize; ++i) {
+            float position = (i + 0.5f) * ratio - 0.5f;
+            int index = (int) Math.floor(position);
+            float w = position - index;
+            if (index < 0) {
+                index = 0;
+                w = 0;
+            }
+            if (index >= srcSize - 1) {
+                index = srcSize - 1;
+                w = 0;
+            }
+            first[i] = offset + index;
+            second[i] = offset + Math.min(index + 1, srcSize - 1);
+            weight[i] = w;
+        }
+    }
+
+    /** The Builder to construct an {@link ImagePreprocess}. */
+    public static final class Builder {
+
+        int cropX;
+        int cropY;
+        int cropWidth = -1;
+        int cropHeight = -1;
+        boolean centerCrop;
+        int width = -1;
+        int height = -1;
+        float[] mean;
+        float[] std;
+        NDImageUtils.Flag flag = NDImageUtils.Flag.COLOR;
+
+        /**
+         * Crops the image to a given location and size before resizing.
+         *
+         * @param x the x coordinate of the top-left corner of the crop
+         * @param y the y coordinate of the top-left corner of the crop
+         * @param width the width of the cropped image
+         * @param height the height of the cropped image
+         * @return this {@code Builder}
+         * @see Crop
+         */
+        public Builder optCrop(int x, int y, int width, int height) {
+            cropX = x;
+            cropY = y;
+            cropWidth = width;
+            cropHeight = height;
+            centerCrop = false;
+            return this;
+        }
+
+        /**
+         * Crops the center of the image to a square of size {@code min(width, height)} before
+         * resizing.
+         *
+         * @return this {@code Builder}
+         * @see CenterCrop
+         */
+        public Builder optCenterCrop() {
+            return optCenterCrop(-1, -1);
+        }
+
+        /**
+         * Crops the center of the image to the given width and height before resizing.
+         *
+         * @param width the desired width of the cropped image
+         * @param height the desired height of the cropped image
+         * @return this {@code Builder}
+         * @see CenterCrop
+         */
+        public Builder optCenterCrop(int width, int height) {
+            cropWidth = width;
+            cropHeight = height;
+            centerCrop = true;
+            return this;
+        }
+
+        /**
+         * Resizes the (cropped) image to the given size for both height and width.
+         *
+         * @param size the new size to use for both height and width
+         * @return this {@code Builder}
+         * @see Resize
+         */
+        public Builder optResize(int size) {
+            return optResize(size, size);
+        }
+
+        /**
+         * Resizes the (cropped) image to the given width and height.
+         *
+         * @param width the desired width
+         * @param height the desired height
+         * @return this {@code Builder}
+         * @see Resize
+         */
+        public Builder optResize(int width, int height) {
+            this.width = width;
+            this.height = height;
+            return this;
+        }
+
+        /**
+         * Normalizes each channel of the tensor with mean and standard deviation.
+         *
+         * @param mean the mean to normalize with for each channel
+         * @param std the standard deviation to normalize with for each channel
+         * @return this {@code Builder}
+         * @see Normalize
+         */
+        public Builder optNormalize(float[] mean, float[] std) {
+            this.mean = Arrays.copyOf(mean, mean.length);
+            this.std = Arrays.copyOf(std, std.length);
+            return this;
+        }
+
+        /**
+         * Sets the color mode used to read a {@code BufferedImage} (default is {@link
+         * NDImageUtils.Flag#COLOR}).
+         *
+         * @param flag the color mode for the images
+         * @return this {@code Builder}
+         */
+        public Builder optFlag(NDImageUtils.Flag flag) {
+            this.flag = flag;
+            return this;
+        }
+
+        /**
+         * Builds the {@link ImagePreprocess}.
+         *
+         * @return a new {@link ImagePreprocess}
+         */
+        public ImagePreprocess build() {
+            return new ImagePreprocess(this);
+        }
+    }
+}
@@ -14,10 +14,15 @@ package ai.djl.modality.cv.transform;
 
 import ai.djl.modality.cv.util.NDImageUtils;
 import ai.djl.ndarray.NDArray;
+import ai.djl.translate.BatchTransform;
 import ai.djl.translate.Transform;
 
-/** A {@link Transform} that normalizes an image {@link NDArray} of shape CHW or NCHW. */
-public class Normalize implements Transform {
+/**
+ * A {@link Transform} that normalizes an image {@link NDArray} of shape CHW or NCHW.
+ *
+ * <p>It is a {@link BatchTransform}, so it can run once on a batch of stacked images.
+ */
+public class Normalize implements BatchTransform {
     private float[] mean;
     private float[] std;
 
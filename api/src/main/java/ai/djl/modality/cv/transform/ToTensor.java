@@ -14,15 +14,18 @@ package ai.djl.modality.cv.transform;
 
 import ai.djl.modality.cv.util.NDImageUtils;
 import ai.djl.ndarray.NDArray;
+import ai.djl.translate.BatchTransform;
 import ai.djl.translate.Transform;
 
 /**
  * A {@link Transform} that converts an image {@link NDArray} from preprocessing format to Neural
  * Network format.
  *
+ * <p>It accepts HWC images as well as NHWC batches, so it is a {@link BatchTransform}.
+ *
  * @see NDImageUtils#toTensor(NDArray)
  */
-public class ToTensor implements Transform {
+public class ToTensor implements BatchTransform {
 
     /** {@inheritDoc} */
     @Override
@@ -19,7 +19,12 @@ import ai.djl.ndarray.types.Shape;
 import ai.djl.util.RandomUtils;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
 import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.ByteBuffer;
@@ -104,50 +109,64 @@ public final class BufferedImageUtils {
      */
     public static NDArray toNDArray(
             NDManager manager, BufferedImage image, NDImageUtils.Flag flag) {
+        return toNDArray(manager, image, flag, false);
+    }
+
+    /**
+     * Converts a {@code BufferedImage} to an NDArray with designated color mode and layout.
+     *
+     * <p>Images of type {@link BufferedImage#TYPE_3BYTE_BGR}, {@link BufferedImage#TYPE_INT_RGB},
+     * {@link BufferedImage#TYPE_INT_ARGB} and {@link BufferedImage#TYPE_BYTE_GRAY} are converted
+     * by reading their backing data buffer directly. Other images go through {@link
+     * BufferedImage#getRGB(int, int, int, int, int[], int, int)}.
+     *
+     * @param manager a {@link NDManager} to create the new NDArray with
+     * @param image the buffered image to be converted
+     * @param flag the color mode
+     * @param channelFirst {@code true} to return a (C, H, W) array, {@code false} for (H, W, C)
+     * @return the image {@link NDArray} of {@link DataType#UINT8}
+     */
+    public static NDArray toNDArray(
+            NDManager manager, BufferedImage image, NDImageUtils.Flag flag, boolean channelFirst) {
         int width = image.getWidth();
         int height = image.getHeight();
-        int channel;
-        if (flag == NDImageUtils.Flag.GRAYSCALE) {
-            channel = 1;
-        } else {
-            channel = 3;
-        }
+        int channel = flag == NDImageUtils.Flag.GRAYSCALE ? 1 : 3;
 
+        // the pixels are packed into the buffer that is copied to the array
         ByteBuffer bb = manager.allocateDirect(channel * height * width);
-        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
-            byte[] data = ((DataBufferByte) image.getData().getDataBuffer()).getData();
-            for (byte gray : data) {
-                bb.put(gray);
-                if (flag != NDImageUtils.Flag.GRAYSCALE) {
-                    bb.put(gray);
-                    bb.put(gray);
-                }
-            }
-        } else {
-            // get an array of integer pixels in the default RGB color mode
-            int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
-            for (int rgb : pixels) {
-                int red = (rgb >> 16) & 0xFF;
-                int green = (rgb >> 8) & 0xFF;
-                int blue = rgb & 0xFF;
-
-                if (flag == NDImageUtils.Flag.GRAYSCALE) {
-                    int gray = (red + green + blue) / 3;
-                    bb.put((byte) gray);
-                } else {
-                    bb.put((byte) red);
-                    bb.put((byte) green);
-                    bb.put((byte) blue);
-                }
-            }
-        }
+        pack(image, channel, channelFirst, bb);
 
-        NDArray array = manager.create(new Shape(height, width, channel), DataType.UINT8);
+        Shape shape =
+                channelFirst
+                        ? new Shape(channel, height, width)
+                        : new Shape(height, width, channel);
+        NDArray array = manager.create(shape, DataType.UINT8);
         bb.rewind();
         array.set(bb);
         return array;
     }
 
+    /**
+     * Converts a {@code BufferedImage} to an array of unsigned 8-bit pixel values.
+     *
+     * <p>This reads the pixels the same way as {@link #toNDArray(NDManager, BufferedImage,
+     * NDImageUtils.Flag, boolean)}, for callers that process the pixels on the JVM before creating
+     * an {@link NDArray}.
+     *
+     * @param image the buffered image to be converted
+     * @param flag the color mode
+     * @param channelFirst {@code true} to return the pixels in (C, H, W) order, {@code false} for
+     *     (H, W, C)
+     * @return the pixel values
+     */
+    public static byte[] toByteArray(
+            BufferedImage image, NDImageUtils.Flag flag, boolean channelFirst) {
+        int channel = flag == NDImageUtils.Flag.GRAYSCALE ? 1 : 3;
+        byte[] out = new byte[channel * image.getHeight() * image.getWidth()];
+        pack(image, channel, channelFirst, out, 0);
+        return out;
+    }
+
     /**
      * Reads an image file and converts to NDArray.
      *
@@ -175,4 +194,131 @@ public final class BufferedImageUtils {
             throws IOException {
         return toNDArray(manager, fromFile(path), flag);
     }
+
+    private static boolean isPacked(WritableRaster raster, int pixelStride) {
+        // the pixels must be stored contiguously from the start of a single bank, with no padding
+        // between rows, which excludes sub-images sharing the buffer of a larger image
+        if (raster.getSampleModelTranslateX() != 0
+                || raster.getSampleModelTranslateY() != 0
+                || raster.getDataBuffer().getNumBanks() != 1
+                || raster.getDataBuffer().getOffset() != 0) {
+            return false;
+        }
+        SampleModel sampleModel = raster.getSampleModel();
+        int width = raster.getWidth();
+        if (sampleModel instanceof ComponentSampleModel) {
+            ComponentSampleModel model = (ComponentSampleModel) sampleModel;
+            int[] offsets = model.getBandOffsets();
+            if (pixelStride == 3 && (offsets[0] != 2 || offsets[1] != 1 || offsets[2] != 0)) {
+                return false;
+            }
+            return model.getPixelStride() == pixelStride
+                    && model.getScanlineStride() == width * pixelStride;
+        } else if (sampleModel instanceof SinglePixelPackedSampleModel) {
+            return ((SinglePixelPackedSampleModel) sampleModel).getScanlineStride() == width;
+        }
+        return false;
+    }
+
+    // writes the pixels to out, from its current position, in the given layout
+    private static void pack(
+            BufferedImage image, int channel, boolean channelFirst, ByteBuffer out) {
+        if (out.hasArray()) {
+            pack(image, channel, channelFirst, out.array(), out.arrayOffset() + out.position());
+        } else {
+            // single byte puts on a direct buffer are slow, so pack on the heap and copy in bulk
+            byte[] scratch = new byte[channel * image.getHeight() * image.getWidth()];
+            pack(image, channel, channelFirst, scratch, 0);
+            out.put(scratch);
+        }
+    }
+
+    // writes the pixels to out, from index offset, in the given layout
+    private static void pack(
+            BufferedImage image, int channel, boolean channelFirst, byte[] out, int offset) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int pixels = width * height;
+
+        WritableRaster raster = image.getRaster();
+        int type = image.getType();
+        if (type == BufferedImage.TYPE_BYTE_GRAY) {
+            byte[] data;
+            if (isPacked(raster, 1)) {
+                data = ((DataBufferByte) raster.getDataBuffer()).getData();
+            } else {
+                data = (byte[]) raster.getDataElements(0, 0, width, height, null);
+            }
+            if (channel == 1 || channelFirst) {
+                for (int c = 0; c < channel; ++c) {
+                    System.arraycopy(data, 0, out, offset + c * pixels, pixels);
+                }
+            } else {
+                for (int i = 0, j = offset; i < pixels; ++i, j += 3) {
+                    byte gray = data[i];
+                    out[j] = gray;
+                    out[j + 1] = gray;
+                    out[j + 2] = gray;
+                }
+            }
+        } else if (type == BufferedImage.TYPE_3BYTE_BGR && isPacked(raster, 3)) {
+            byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+            fromBgr(data, pixels, channel, channelFirst, out, offset);
+        } else if ((type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB)
+                && isPacked(raster, 1)) {
+            int[] data = ((DataBufferInt) raster.getDataBuffer()).getData();
+            fromRgb(data, pixels, channel, channelFirst, out, offset);
+        } else {
+            // get an array of integer pixels in the default RGB color mode
+            int[] data = image.getRGB(0, 0, width, height, null, 0, width);
+            fromRgb(data, pixels, channel, channelFirst, out, offset);
+        }
+    }
+
+    private static void fromBgr(
+            byte[] data, int pixels, int channel, boolean channelFirst, byte[] out, int offset) {
+        if (channel == 1) {
+            for (int i = 0, j = 0; i < pixels; ++i, j += 3) {
+                int gray = ((data[j] & 0xFF) + (data[j + 1] & 0xFF) + (data[j + 2] & 0xFF)) / 3;
+                out[offset + i] = (byte) gray;
+            }
+        } else if (channelFirst) {
+            for (int i = 0, j = 0; i < pixels; ++i, j += 3) {
+                out[offset + i] = data[j + 2];
+                out[offset + pixels + i] = data[j + 1];
+                out[offset + 2 * pixels + i] = data[j];
+            }
+        } else {
+            for (int j = 0; j < 3 * pixels; j += 3) {
+                out[offset + j] = data[j + 2];
+                out[offset + j + 1] = data[j + 1];
+                out[offset + j + 2] = data[j];
+            }
+        }
+    }
+
+    private static void fromRgb(
+            int[] data, int pixels, int channel, boolean channelFirst, byte[] out, int offset) {
+        if (channel == 1) {
+            for (int i = 0; i < pixels; ++i) {
+                int rgb = data[i];
+                int gray = (((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF)) / 3;
+                out[offset + i] = (byte) gray;
+            }
+        } else if (channelFirst) {
+            for (int i = 0; i < pixels; ++i) {
+                int rgb = data[i];
+                out[offset + i] = (byte) (rgb >> 16);
+                out[offset + pixels + i] = (byte) (rgb >> 8);
+                out[offset + 2 * pixels + i] = (byte) rgb;
+            }
+        } else {
+            for (int i = 0, j = offset; i < pixels; ++i, j += 3) {
+                int rgb = data[i];
+                out[j] = (byte) (rgb >> 16);
+                out[j + 1] = (byte) (rgb >> 8);
+                out[j + 2] = (byte) rgb;
+            }
+        }
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import ai.djl.Device;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@code MemoryUsage} is a snapshot of the native memory held by an {@link NDManager}.
+ *
+ * <p>It counts the live bytes and the live native handles on each {@link Device}. The bytes of an
+ * array are the size of its dense data.
+ *
+ * @see NDManager#getMemoryUsage()
+ */
+public class MemoryUsage {
+
+    private Map<Device, long[]> usages;
+
+    /**
+     * Constructs a {@code MemoryUsage}.
+     *
+     * @param usages the number of bytes and handles for each {@link Device}
+     */
+    public MemoryUsage(Map<Device, long[]> usages) {
+        this.usages = new LinkedHashMap<>();
+        for (Map.Entry<Device, long[]> entry : usages.entrySet()) {
+            long[] usage = entry.getValue();
+            this.usages.put(entry.getKey(), new long[] {usage[0], usage[1]});
+        }
+    }
+
+    /**
+     * Returns the devices with native memory.
+     *
+     * @return the devices with native memory
+     */
+    public Set<Device> getDevices() {
+        return Collections.unmodifiableSet(usages.keySet());
+    }
+
+    /**
+     * Returns the number of live bytes on all devices.
+     *
+     * @return the number of live bytes on all devices
+     */
+    public long getBytes() {
+        long bytes = 0;
+        for (long[] usage : usages.values()) {
+            bytes += usage[0];
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the number of live bytes on a device.
+     *
+     * @param device the device
+     * @return the number of live bytes on the device
+     */
+    public long getBytes(Device device) {
+        long[] usage = usages.get(device);
+        return usage == null ? 0 : usage[0];
+    }
+
+    /**
+     * Returns the number of live native handles on all devices.
+     *
+     * @return the number of live native handles on all devices
+     */
+    public long getHandles() {
+        long handles = 0;
+        for (long[] usage : usages.values()) {
+            handles += usage[1];
+        }
+        return handles;
+    }
+
+    /**
+     * Returns the number of live native handles on a device.
+     *
+     * @param device the device
+     * @return the number of live native handles on the device
+     */
+    public long getHandles(Device device) {
+        long[] usage = usages.get(device);
+        return usage == null ? 0 : usage[1];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(100);
+        sb.append("bytes: ").append(getBytes()).append(", handles: ").append(getHandles());
+        for (Map.Entry<Device, long[]> entry : usages.entrySet()) {
+            sb.append(", ")
+                    .append(entry.getKey())
+                    .append(": ")
+                    .append(entry.getValue()[0])
+                    .append(" bytes in ")
+                    .append(entry.getValue()[1])
+                    .append(" handles");
+        }
+        return sb.toString();
+    }
+}
@@ -4241,6 +4241,17 @@ public interface NDArray extends AutoCloseable {
      */
     NDArrayEx getNDArrayInternal();
 
+    /**
+     * Returns {@code true} if this {@code NDArray} has been closed and its memory freed.
+     *
+     * <p>The default implementation returns {@code false} for engines that do not track it.
+     *
+     * @return {@code true} if this {@code NDArray} has been closed
+     */
+    default boolean isReleased() {
+        return false;
+    }
+
     /** {@inheritDoc} */
     @Override
     void close();
@@ -870,6 +870,21 @@ public interface NDManager extends AutoCloseable {
      */
     NDManager newSubManager(Device device);
 
+    /**
+     * Creates a child {@code NDManager} for a short-lived scope, such as a single prediction or a
+     * single batch.
+     *
+     * <p>A scoped {@code NDManager} keeps its resources until it is closed, and then releases all
+     * of them in one pass, which makes creating many intermediate {@link NDArray}s cheaper than
+     * with {@link #newSubManager()}. It must not be used by several threads at the same time,
+     * although it can be handed over from one thread to another.
+     *
+     * @return a child {@code NDManager} for a short-lived scope
+     */
+    default NDManager newScopedManager() {
+        return newSubManager();
+    }
+
     /**
      * Returns the default {@link Device} of this {@code NDManager}.
      *
@@ -898,6 +913,20 @@ public interface NDManager extends AutoCloseable {
      */
     void detach(String resourceId);
 
+    /**
+     * Returns the native memory held by the {@link NDArray}s of this {@code NDManager} and all of
+     * its sub-managers.
+     *
+     * <p>The returned {@link MemoryUsage} is a snapshot, split by {@link Device}. Call it on a
+     * sub-manager to get the usage of that part of the manager tree only.
+     *
+     * @return the native memory held by this {@code NDManager} and its sub-managers
+     * @throws UnsupportedOperationException if the engine does not track native memory
+     */
+    default MemoryUsage getMemoryUsage() {
+        throw new UnsupportedOperationException("Not supported!");
+    }
+
     /**
      * An engine specific generic invocation to native operator.
      *
@@ -57,7 +57,7 @@ public class LambdaBlock extends ParameterBlock {
     /** {@inheritDoc} */
     @Override
     public Shape[] getOutputShapes(NDManager manager, Shape[] inputShapes) {
-        try (NDManager subManager = manager.newSubManager()) {
+        try (NDManager subManager = manager.newScopedManager()) {
             NDList input = new NDList(inputShapes.length);
             for (Shape shape : inputShapes) {
                 input.add(subManager.create(shape));
@@ -139,7 +139,7 @@ public class ParallelBlock extends AbstractBlock {
             throw new IllegalArgumentException("The sequential block is empty");
         }
 
-        try (NDManager subManager = manager.newSubManager()) {
+        try (NDManager subManager = manager.newScopedManager()) {
             List<NDList> inputs = new ArrayList<>();
             for (Block block : blocks) {
                 Shape[] shapes = block.getOutputShapes(manager, inputShapes);
@@ -106,6 +106,10 @@ public class Batch implements AutoCloseable {
     /** {@inheritDoc} */
     @Override
     public void close() {
+        if (batchifier != null) {
+            batchifier.release(data);
+            batchifier.getLabelBatchifier().release(labels);
+        }
         manager.close();
         manager = null;
     }
@@ -135,8 +139,8 @@ public class Batch implements AutoCloseable {
             }
         }
 
-        NDList[] splittedData = split(data, size, evenSplit);
-        NDList[] splittedLabels = split(labels, size, evenSplit);
+        NDList[] splittedData = split(data, size, evenSplit, false);
+        NDList[] splittedLabels = split(labels, size, evenSplit, true);
 
         Batch[] splitted = new Batch[splittedData.length];
         for (int i = 0; i < splittedData.length; ++i) {
@@ -147,11 +151,12 @@ public class Batch implements AutoCloseable {
         return splitted;
     }
 
-    private NDList[] split(NDList list, int numOfSlices, boolean evenSplit) {
+    private NDList[] split(NDList list, int numOfSlices, boolean evenSplit, boolean isLabel) {
         if (batchifier == null) {
             throw new IllegalStateException(
                     "Split can only be called on a batch containing a batchifier");
         }
-        return batchifier.split(list, numOfSlices, evenSplit);
+        Batchifier listBatchifier = isLabel ? batchifier.getLabelBatchifier() : batchifier;
+        return listBatchifier.split(list, numOfSlices, evenSplit);
     }
 }
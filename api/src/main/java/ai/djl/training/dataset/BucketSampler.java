@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.util.RandomUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * {@code BucketSampler} is a {@link Sampler} that batches records of similar length together.
+ *
+ * <p>The records are split into windows of {@code windowBatches} batches. Each window is sorted
+ * by length and cut into batches, so the records of a batch have similar lengths and need little
+ * padding from a {@link ai.djl.translate.PaddingStackBatchifier}. When sampling randomly, the
+ * records are shuffled before they are split into windows, and the order of the batches is
+ * shuffled afterwards.
+ */
+public class BucketSampler implements Sampler {
+
+    private LongUnaryOperator length;
+    private int batchSize;
+    private boolean random;
+    private int windowBatches;
+    private Integer seed;
+
+    /**
+     * Creates a new instance of {@code BucketSampler} that sorts windows of 100 batches.
+     *
+     * @param length the function that returns the length of the record at an index
+     * @param batchSize the batch size
+     * @param random whether to shuffle the records and the batches
+     */
+    public BucketSampler(LongUnaryOperator length, int batchSize, boolean random) {
+        this(length, batchSize, random, 100, null);
+    }
+
+    /**
+     * Creates a new instance of {@code BucketSampler}.
+     *
+     * @param length the function that returns the length of the record at an index
+     * @param batchSize the batch size
+     * @param random whether to shuffle the records and the batches
+     * @param windowBatches the number of batches in each window sorted by length
+     * @param seed the seed for shuffling, or {@code null} to use {@link RandomUtils#RANDOM}
+     */
+    public BucketSampler(
+            LongUnaryOperator length,
+            int batchSize,
+            boolean random,
+            int windowBatches,
+            Integer seed) {
+        if (batchSize <= 0 || windowBatches <= 0) {
+            throw new IllegalArgumentException("batchSize and windowBatches must be positive");
+        }
+        this.length = length;
+        this.batchSize = batchSize;
+        this.random = random;
+        this.windowBatches = windowBatches;
+        this.seed = seed;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<List<Long>> sample(RandomAccessDataset dataset) {
+        int size = Math.toIntExact(dataset.size());
+        Random rnd = (seed != null) ? new Random(seed) : RandomUtils.RANDOM;
+        int[] indices = new int[size];
+        for (int i = 0; i < size; ++i) {
+            indices[i] = i;
+        }
+        if (random) {
+            for (int i = size - 1; i > 0; --i) {
+                int j = rnd.nextInt(i + 1);
+                int tmp = indices[i];
+                indices[i] = indices[j];
+                indices[j] = tmp;
+            }
+        }
+
+        List<List<Long>> batches = new ArrayList<>((size + batchSize - 1) / batchSize);
+        int window = Math.toIntExact((long) batchSize * windowBatches);
+        for (int start = 0; start < size; start += window) {
+            int end = Math.min(size, start + window);
+            // sort the packed (length, position) keys instead of boxed indices
+            long[] keys = new long[end - start];
+            for (int i = start; i < end; ++i) {
+                long recordLength = length.applyAsLong(indices[i]);
+                if (recordLength < 0 || recordLength > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Invalid length: " + recordLength);
+                }
+                keys[i - start] = recordLength << 32 | (i - start);
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < keys.length; i += batchSize) {
+                int batchEnd = Math.min(keys.length, i + batchSize);
+                List<Long> batch = new ArrayList<>(batchEnd - i);
+                for (int j = i; j < batchEnd; ++j) {
+                    batch.add((long) indices[start + (int) keys[j]]);
+                }
+                batches.add(batch);
+            }
+        }
+        if (random) {
+            Collections.shuffle(batches, rnd);
+        }
+        return batches.iterator();
+    }
+}
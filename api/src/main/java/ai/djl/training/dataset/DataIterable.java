@@ -46,6 +46,7 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
     private Batchifier batchifier;
     private Pipeline pipeline;
     private Pipeline targetPipeline;
+    private Pipeline batchPipeline;
     private ExecutorService executor;
     private long maxIteration;
     private Device device;
@@ -64,6 +65,7 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
      * @param batchifier a batchifier
      * @param pipeline the pipeline of transforms to apply on the data
      * @param targetPipeline the pipeline of transforms to apply on the labels
+     * @param batchPipeline the pipeline of transforms to apply on the batched data
      * @param executor an {@link ExecutorService}
      * @param preFetchNumber the number of samples to prefetch
      * @param maxIteration the maximum number of iterations
@@ -76,6 +78,7 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
             Batchifier batchifier,
             Pipeline pipeline,
             Pipeline targetPipeline,
+            Pipeline batchPipeline,
             ExecutorService executor,
             int preFetchNumber,
             long maxIteration,
@@ -85,6 +88,7 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
         this.batchifier = batchifier;
         this.pipeline = pipeline;
         this.targetPipeline = targetPipeline;
+        this.batchPipeline = batchPipeline;
         this.executor = executor;
         this.maxIteration = maxIteration;
         this.device = device;
@@ -152,25 +156,28 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
     }
 
     private Batch fetch(List<Long> indices) throws IOException {
-        NDManager subManager = manager.newSubManager();
+        NDManager subManager = manager.newScopedManager();
         NDList[] data = new NDList[indices.size()];
         NDList[] labels = new NDList[indices.size()];
         for (int i = 0; i < indices.size(); i++) {
-            Record record = dataset.get(subManager, indices.get(i));
+            Record record = dataset.fetch(subManager, indices.get(i));
             data[i] = record.getData();
-            // apply transform
-            if (pipeline != null) {
-                data[i] = pipeline.transform(data[i]);
-            }
-
             labels[i] = record.getLabels();
         }
+        // apply transform
+        if (pipeline != null) {
+            data = pipeline.transform(data);
+        }
         NDList batchData = batchifier.batchify(data);
-        NDList batchLabels = batchifier.batchify(labels);
+        NDList batchLabels = batchifier.getLabelBatchifier().batchify(labels);
 
         Arrays.stream(data).forEach(NDList::close);
         Arrays.stream(labels).forEach(NDList::close);
 
+        // apply batch transform
+        if (batchPipeline != null) {
+            batchData = batchPipeline.transform(batchData);
+        }
         // apply label transform
         if (targetPipeline != null) {
             batchLabels = targetPipeline.transform(batchLabels);
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.Device;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.translate.Batchifier;
+import ai.djl.translate.Pipeline;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code ParallelDataIterable} is a data loader that loads the records of each batch in parallel.
+ *
+ * <p>Unlike {@link DataIterable}, which loads a whole batch in a single task, {@code
+ * ParallelDataIterable} submits one task per record to the {@link ExecutorService}, so that {@link
+ * RandomAccessDataset#get(NDManager, long)} and the {@link Pipeline} of one batch run on all worker
+ * threads. A batch is assembled by the worker that finishes its last record, and batches are
+ * returned in sampling order.
+ *
+ * <p>Instead of prefetching a fixed number of batches, the loader keeps prefetching while the
+ * native memory held by loaded but not yet consumed batches stays below a byte budget. The size of
+ * a batch that is still loading is estimated from the batches loaded so far. At least one batch is
+ * always in flight, so a budget smaller than a single batch degrades to loading one batch ahead.
+ *
+ * @see RandomAccessDataset.BaseBuilder#optParallelLoading(ExecutorService, long)
+ */
+public class ParallelDataIterable implements Iterable<Batch>, Iterator<Batch> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelDataIterable.class);
+
+    private RandomAccessDataset dataset;
+    private NDManager manager;
+    private Batchifier batchifier;
+    private Pipeline pipeline;
+    private Pipeline targetPipeline;
+    private Pipeline batchPipeline;
+    private ExecutorService executor;
+    private long maxBufferBytes;
+    private long maxIteration;
+    private Device device;
+
+    private Iterator<List<Long>> sample;
+    private Queue<PendingBatch> queue;
+    private AtomicLong bufferedBytes;
+    private AtomicLong loadedBytes;
+    private AtomicLong loadedBatches;
+    private long count;
+
+    /**
+     * Creates a new instance of {@code ParallelDataIterable} with the given parameters.
+     *
+     * @param dataset the dataset to iterate on
+     * @param manager the manager to create the arrays
+     * @param sampler a sampler to sample data with
+     * @param batchifier a batchifier
+     * @param pipeline the pipeline of transforms to apply on the data
+     * @param targetPipeline the pipeline of transforms to apply on the labels
+     * @param batchPipeline the pipeline of transforms to apply on the batched data
+     * @param executor the {@link ExecutorService} that loads the records
+     * @param maxBufferBytes the maximum number of bytes of loaded batches to buffer
+     * @param maxIteration the maximum number of iterations
+     * @param device the {@link Device}
+     */
+    public ParallelDataIterable(
+            RandomAccessDataset dataset,
+            NDManager manager,
+            Sampler sampler,
+            Batchifier batchifier,
+            Pipeline pipeline,
+            Pipeline targetPipeline,
+            Pipeline batchPipeline,
+            ExecutorService executor,
+            long maxBufferBytes,
+            long maxIteration,
+            Device device) {
+        this.dataset = dataset;
+        this.manager = manager.newSubManager();
+        this.batchifier = batchifier;
+        this.pipeline = pipeline;
+        this.targetPipeline = targetPipeline;
+        this.batchPipeline = batchPipeline;
+        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+        this.maxBufferBytes = maxBufferBytes;
+        this.maxIteration = maxIteration;
+        this.device = device;
+
+        sample = sampler.sample(dataset);
+        queue = new ArrayDeque<>();
+        bufferedBytes = new AtomicLong();
+        loadedBytes = new AtomicLong();
+        loadedBatches = new AtomicLong();
+        preFetch();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<Batch> iterator() {
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext() {
+        if (++count > maxIteration) {
+            return false;
+        }
+        if (queue.isEmpty()) {
+            manager.close();
+            return false;
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Batch next() {
+        PendingBatch pending = queue.poll();
+        if (pending == null) {
+            throw new NoSuchElementException();
+        }
+        Batch batch;
+        try {
+            batch = pending.future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            logger.error(e.getMessage());
+            // the iteration ends here, release the batches loaded ahead
+            for (PendingBatch next : queue) {
+                next.discard();
+            }
+            queue.clear();
+            manager.close();
+            throw new IllegalStateException("Data loading failed", e);
+        }
+        // the batch now belongs to the caller and no longer counts against the budget
+        bufferedBytes.addAndGet(-pending.bytes);
+        preFetch();
+        return batch;
+    }
+
+    /**
+     * Returns the number of bytes currently held or reserved by batches that have been submitted
+     * but not yet returned by {@link #next()}.
+     *
+     * @return the number of buffered bytes
+     */
+    public long getBufferedBytes() {
+        return bufferedBytes.get();
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    private void preFetch() {
+        while (sample.hasNext()) {
+            long estimate = estimateBatchBytes();
+            if (!queue.isEmpty()
+                    && (estimate == 0 || bufferedBytes.get() + estimate > maxBufferBytes)) {
+                // wait for a batch to be consumed, or for the first batch to tell us its size
+                return;
+            }
+            List<Long> indices = sample.next();
+            PendingBatch pending = new PendingBatch(indices.size(), estimate);
+            bufferedBytes.addAndGet(estimate);
+            queue.offer(pending);
+            for (int i = 0; i < indices.size(); ++i) {
+                int slot = i;
+                long index = indices.get(i);
+                try {
+                    executor.submit(() -> pending.load(slot, index));
+                } catch (Throwable t) {
+                    // fail the batch, so next() reports the error instead of waiting for it
+                    pending.abandon(indices.size() - i, t);
+                    return;
+                }
+            }
+        }
+    }
+
+    private long estimateBatchBytes() {
+        long batches = loadedBatches.get();
+        if (batches == 0) {
+            return 0;
+        }
+        return loadedBytes.get() / batches;
+    }
+
+    private static long getBytes(NDList list) {
+        long bytes = 0;
+        for (NDArray array : list) {
+            bytes += array.size() * array.getDataType().getNumOfBytes();
+        }
+        return bytes;
+    }
+
+    /** A batch whose records are being loaded by the worker threads. */
+    private final class PendingBatch {
+
+        private NDManager subManager;
+        private NDList[] data;
+        private NDList[] labels;
+        private AtomicInteger remaining;
+        private CompletableFuture<Batch> future;
+        private volatile long bytes;
+
+        PendingBatch(int size, long reserved) {
+            subManager = manager.newSubManager();
+            data = new NDList[size];
+            labels = new NDList[size];
+            remaining = new AtomicInteger(size);
+            future = new CompletableFuture<>();
+            bytes = reserved;
+        }
+
+        @SuppressWarnings("PMD.AvoidCatchingThrowable")
+        void load(int slot, long index) {
+            try {
+                if (!future.isDone()) {
+                    Record record = dataset.fetch(subManager, index);
+                    NDList recordData = record.getData();
+                    // apply transform
+                    if (pipeline != null) {
+                        recordData = pipeline.transform(recordData);
+                    }
+                    data[slot] = recordData;
+                    labels[slot] = record.getLabels();
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                // the atomic decrement publishes the slots written by the other workers
+                if (remaining.decrementAndGet() == 0) {
+                    if (future.isDone()) {
+                        subManager.close();
+                    } else {
+                        assemble();
+                    }
+                }
+            }
+        }
+
+        /** Fails this batch after the last {@code unsubmitted} records failed to be submitted. */
+        void abandon(int unsubmitted, Throwable cause) {
+            future.completeExceptionally(cause);
+            // the records already submitted skip loading, the last one closes the sub manager
+            if (remaining.addAndGet(-unsubmitted) == 0) {
+                subManager.close();
+            }
+        }
+
+        /** Cancels the loading of this batch, or closes it if it is loaded already. */
+        void discard() {
+            if (!future.cancel(false) && !future.isCompletedExceptionally()) {
+                future.join().close();
+            }
+        }
+
+        @SuppressWarnings("PMD.AvoidCatchingThrowable")
+        private void assemble() {
+            try {
+                NDList batchData = batchifier.batchify(data);
+                NDList batchLabels = batchifier.getLabelBatchifier().batchify(labels);
+
+                Arrays.stream(data).forEach(NDList::close);
+                Arrays.stream(labels).forEach(NDList::close);
+
+                // apply batch transform
+                if (batchPipeline != null) {
+                    batchData = batchPipeline.transform(batchData);
+                }
+                // apply label transform
+                if (targetPipeline != null) {
+                    batchLabels = targetPipeline.transform(batchLabels);
+                }
+                // pin to a specific device
+                if (device != null) {
+                    batchData = batchData.asInDevice(device, false);
+                    batchLabels = batchLabels.asInDevice(device, false);
+                }
+
+                long actual = getBytes(batchData) + getBytes(batchLabels);
+                loadedBytes.addAndGet(actual);
+                loadedBatches.incrementAndGet();
+                bufferedBytes.addAndGet(actual - bytes);
+                bytes = actual;
+                Batch batch = new Batch(subManager, batchData, batchLabels, batchifier);
+                if (!future.complete(batch)) {
+                    // discarded while assembling
+                    batch.close();
+                }
+            } catch (Throwable t) {
+                subManager.close();
+                future.completeExceptionally(t);
+            }
+        }
+    }
+}
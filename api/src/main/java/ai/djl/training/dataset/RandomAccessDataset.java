@@ -16,6 +16,8 @@ import ai.djl.Device;
 import ai.djl.ndarray.NDManager;
 import ai.djl.translate.Batchifier;
 import ai.djl.translate.Pipeline;
+import ai.djl.translate.StackBatchifier;
+import ai.djl.util.Pair;
 import java.io.IOException;
 import java.util.RandomAccess;
 import java.util.concurrent.ExecutorService;
@@ -30,8 +32,11 @@ public abstract class RandomAccessDataset implements Dataset, RandomAccess {
     protected Batchifier batchifier;
     protected Pipeline pipeline;
     protected Pipeline targetPipeline;
+    protected Pipeline batchPipeline;
     protected ExecutorService executor;
     protected int prefetchNumber;
+    protected long maxBufferBytes;
+    protected RecordCache cache;
     private long maxIteration;
     protected Device device;
 
@@ -46,8 +51,11 @@ public abstract class RandomAccessDataset implements Dataset, RandomAccess {
         this.batchifier = builder.batchifier;
         this.pipeline = builder.pipeline;
         this.targetPipeline = builder.targetPipeline;
+        this.batchPipeline = builder.batchPipeline;
         this.executor = builder.executor;
         this.prefetchNumber = builder.prefetchNumber;
+        this.maxBufferBytes = builder.maxBufferBytes;
+        this.cache = builder.cache;
         this.maxIteration = builder.maxIteration;
         this.device = builder.device;
     }
@@ -62,16 +70,58 @@ public abstract class RandomAccessDataset implements Dataset, RandomAccess {
      */
     public abstract Record get(NDManager manager, long index) throws IOException;
 
+    /**
+     * Gets the {@link Record} for the given index from the {@link RecordCache}, or from the dataset
+     * if the record is not cached.
+     *
+     * @param manager the manager used to create the arrays
+     * @param index the index of the requested data item
+     * @return a {@link Record} that contains the data and label of the requested data item
+     * @throws IOException if an I/O error occurs
+     */
+    Record fetch(NDManager manager, long index) throws IOException {
+        if (cache == null) {
+            return get(manager, index);
+        }
+        return cache.get(this, manager, index);
+    }
+
     /** {@inheritDoc} */
     @Override
     public Iterable<Batch> getData(NDManager manager) {
+        Pipeline recordPipeline = pipeline;
+        Pipeline batchTransforms = batchPipeline;
+        if (pipeline != null && batchifier instanceof StackBatchifier) {
+            // run the trailing batch-safe transforms once on the stacked batch
+            Pair<Pipeline, Pipeline> split = pipeline.splitBatchTransforms();
+            recordPipeline = split.getKey();
+            batchTransforms = split.getValue();
+            if (batchPipeline != null) {
+                batchTransforms.addAll(batchPipeline);
+            }
+        }
+        if (executor != null && maxBufferBytes > 0) {
+            return new ParallelDataIterable(
+                    this,
+                    manager,
+                    sampler,
+                    batchifier,
+                    recordPipeline,
+                    targetPipeline,
+                    batchTransforms,
+                    executor,
+                    maxBufferBytes,
+                    maxIteration,
+                    device);
+        }
         return new DataIterable(
                 this,
                 manager,
                 sampler,
                 batchifier,
-                pipeline,
+                recordPipeline,
                 targetPipeline,
+                batchTransforms,
                 executor,
                 prefetchNumber,
                 maxIteration,
@@ -93,8 +143,11 @@ public abstract class RandomAccessDataset implements Dataset, RandomAccess {
         protected Batchifier batchifier = Batchifier.STACK;
         protected Pipeline pipeline;
         protected Pipeline targetPipeline;
+        protected Pipeline batchPipeline;
         protected ExecutorService executor;
         protected int prefetchNumber;
+        protected long maxBufferBytes;
+        protected RecordCache cache;
         protected long maxIteration = Long.MAX_VALUE;
         protected Device device;
 
@@ -186,6 +239,23 @@ public abstract class RandomAccessDataset implements Dataset, RandomAccess {
             return self();
         }
 
+        /**
+         * Sets the {@link Pipeline} of {@link ai.djl.translate.Transform} to be applied on the
+         * data after the records are batchified.
+         *
+         * <p>When the {@link Batchifier} stacks the records, the trailing {@link
+         * ai.djl.translate.BatchTransform}s of the data {@link Pipeline} are also moved to run on
+         * the batch, before this {@code Pipeline}.
+         *
+         * @param batchPipeline the {@link Pipeline} of {@link ai.djl.translate.Transform} to be
+         *     applied on the batched data
+         * @return this {@code BaseBuilder}
+         */
+        public T optBatchPipeline(Pipeline batchPipeline) {
+            this.batchPipeline = batchPipeline;
+            return self();
+        }
+
         /**
          * Sets the {@link ExecutorService} to spawn threads to fetch data.
          *
@@ -196,6 +266,36 @@ public abstract class RandomAccessDataset implements Dataset, RandomAccess {
         public T optExcutor(ExecutorService executor, int prefetchNumber) {
             this.executor = executor;
             this.prefetchNumber = prefetchNumber;
+            this.maxBufferBytes = 0;
+            return self();
+        }
+
+        /**
+         * Sets the {@link ExecutorService} to load records in parallel with a memory budget.
+         *
+         * <p>Each record of a batch is loaded and transformed by a separate task, and batches are
+         * prefetched as long as the loaded batches that have not been consumed yet use less than
+         * {@code maxBufferBytes} of memory.
+         *
+         * @param executor the {@link ExecutorService} to load the records
+         * @param maxBufferBytes the maximum number of bytes of prefetched batches
+         * @return this {@code BaseBuilder}
+         * @see ParallelDataIterable
+         */
+        public T optParallelLoading(ExecutorService executor, long maxBufferBytes) {
+            this.executor = executor;
+            this.maxBufferBytes = maxBufferBytes;
+            return self();
+        }
+
+        /**
+         * Sets the {@link RecordCache} that keeps loaded records for later epochs.
+         *
+         * @param cache the {@link RecordCache}
+         * @return this {@code BaseBuilder}
+         */
+        public T optCache(RecordCache cache) {
+            this.cache = cache;
             return self();
         }
 
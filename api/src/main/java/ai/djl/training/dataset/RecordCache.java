@@ -0,0 +1,267 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.metric.Metrics;
+import ai.djl.ndarray.NDManager;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code RecordCache} keeps the {@link Record}s of a {@link RandomAccessDataset} after they are
+ * loaded, so that later epochs do not need to read and decode them again.
+ *
+ * <p>Records are cached as returned by {@link RandomAccessDataset#get(NDManager, long)}, before the
+ * {@link ai.djl.translate.Pipeline} is applied, so random augmentations still run on every access.
+ * For image datasets, this means the decoded UINT8 pixels are cached instead of the compressed
+ * file.
+ *
+ * <p>The cache holds up to {@code maxBytes} of records on the Java heap and evicts the least
+ * recently used records once the budget is exceeded. If a spill file is configured, evicted records
+ * are moved to a memory-mapped file on local disk instead of being dropped, until the spill budget
+ * is exhausted as well. Records read from the spill file are copied from the mapped file straight
+ * into the native memory of the arrays.
+ *
+ * <p>A {@code RecordCache} is keyed by record index, so it must not be shared between datasets.
+ *
+ * <pre>
+ * ImageFolder dataset =
+ *         new ImageFolder.Builder()
+ *                 .setRepository(repository)
+ *                 .optCache(new RecordCache(2L &lt;&lt; 30, spillFile, 16L &lt;&lt; 30))
+ *                 .setSampling(32, true)
+ *                 .build();
+ * </pre>
+ *
+ * @see RandomAccessDataset.BaseBuilder#optCache(RecordCache)
+ */
+public class RecordCache implements AutoCloseable {
+
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private long maxBytes;
+    private long bytes;
+    private LinkedHashMap<Long, ByteBuffer> memory;
+
+    private Path spillFile;
+    private long maxSpillBytes;
+    private FileChannel spillChannel;
+    private int segmentSize;
+    private List<MappedByteBuffer> segments;
+    private Map<Long, ByteBuffer> spilled;
+    private boolean spillFull;
+
+    private LongAdder hits;
+    private LongAdder misses;
+    private Metrics metrics;
+
+    /**
+     * Creates a new instance of {@code RecordCache} that only keeps records on the Java heap.
+     *
+     * @param maxBytes the maximum number of bytes of records to keep on the heap
+     */
+    public RecordCache(long maxBytes) {
+        this(maxBytes, null, 0);
+    }
+
+    /**
+     * Creates a new instance of {@code RecordCache} that spills evicted records to a file.
+     *
+     * <p>The spill file is created when the first record is spilled and deleted when the cache is
+     * closed.
+     *
+     * @param maxBytes the maximum number of bytes of records to keep on the heap
+     * @param spillFile the file to spill evicted records to, or {@code null} to drop them
+     * @param maxSpillBytes the maximum size of the spill file
+     */
+    public RecordCache(long maxBytes, Path spillFile, long maxSpillBytes) {
+        this.maxBytes = maxBytes;
+        this.spillFile = spillFile;
+        this.maxSpillBytes = maxSpillBytes;
+        memory = new LinkedHashMap<>(16, 0.75f, true);
+        segments = new ArrayList<>();
+        spilled = new HashMap<>();
+        segmentSize = (int) Math.min(SEGMENT_SIZE, Math.max(maxSpillBytes, 1));
+        hits = new LongAdder();
+        misses = new LongAdder();
+    }
+
+    /**
+     * Sets the {@link Metrics} to record cache hits and misses to.
+     *
+     * <p>The time to load each record is recorded in the "RecordCacheHit" and "RecordCacheMiss"
+     * histograms, so the count of each histogram is the number of hits and misses.
+     *
+     * @param metrics the {@link Metrics} to record to
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the record at the given index, from the cache or by loading it from the dataset.
+     *
+     * @param dataset the dataset to load the record from on a miss
+     * @param manager the manager used to create the arrays
+     * @param index the index of the record
+     * @return the record
+     * @throws IOException if the record cannot be loaded
+     */
+    public Record get(RandomAccessDataset dataset, NDManager manager, long index)
+            throws IOException {
+        long begin = System.nanoTime();
+        ByteBuffer buf = lookup(index);
+        if (buf != null) {
+            Record record = RecordCodec.decode(manager, buf);
+            hits.increment();
+            if (metrics != null) {
+                metrics.histogram("RecordCacheHit", "nano").record(System.nanoTime() - begin);
+            }
+            return record;
+        }
+
+        Record record = dataset.get(manager, index);
+        put(index, ByteBuffer.wrap(RecordCodec.encode(record)));
+        misses.increment();
+        if (metrics != null) {
+            metrics.histogram("RecordCacheMiss", "nano").record(System.nanoTime() - begin);
+        }
+        return record;
+    }
+
+    /**
+     * Returns the number of lookups that were served from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to load the record from the dataset.
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of bytes of records held on the Java heap.
+     *
+     * @return the number of bytes held on the heap
+     */
+    public synchronized long getMemoryBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of records held in the spill file.
+     *
+     * @return the number of spilled records
+     */
+    public synchronized int getSpilledRecords() {
+        return spilled.size();
+    }
+
+    /**
+     * Drops all cached records and deletes the spill file.
+     *
+     * @throws IOException if the spill file cannot be deleted
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        memory.clear();
+        bytes = 0;
+        spilled.clear();
+        segments.clear();
+        spillFull = false;
+        if (spillChannel != null) {
+            spillChannel.close();
+            spillChannel = null;
+            Files.deleteIfExists(spillFile);
+        }
+    }
+
+    private synchronized ByteBuffer lookup(long index) {
+        ByteBuffer buf = memory.get(index);
+        if (buf == null) {
+            buf = spilled.get(index);
+        }
+        // each reader needs its own position
+        return buf == null ? null : buf.duplicate();
+    }
+
+    private synchronized void put(long index, ByteBuffer buf) throws IOException {
+        if (memory.containsKey(index) || spilled.containsKey(index)) {
+            // loaded by another thread in the meantime
+            return;
+        }
+        memory.put(index, buf);
+        bytes += buf.capacity();
+
+        Iterator<Map.Entry<Long, ByteBuffer>> it = memory.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<Long, ByteBuffer> eldest = it.next();
+            it.remove();
+            bytes -= eldest.getValue().capacity();
+            spill(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private void spill(long index, ByteBuffer buf) throws IOException {
+        int length = buf.capacity();
+        if (spillFile == null || spillFull || length > segmentSize) {
+            return;
+        }
+        MappedByteBuffer segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.remaining() < length) {
+            if ((long) (segments.size() + 1) * segmentSize > maxSpillBytes) {
+                spillFull = true;
+                return;
+            }
+            if (spillChannel == null) {
+                spillChannel =
+                        FileChannel.open(
+                                spillFile,
+                                StandardOpenOption.CREATE,
+                                StandardOpenOption.TRUNCATE_EXISTING,
+                                StandardOpenOption.READ,
+                                StandardOpenOption.WRITE);
+            }
+            long position = (long) segments.size() * segmentSize;
+            segment = spillChannel.map(FileChannel.MapMode.READ_WRITE, position, segmentSize);
+            segments.add(segment);
+        }
+
+        ByteBuffer slice = segment.slice();
+        slice.limit(length);
+        slice.put(buf.duplicate());
+        slice.flip();
+        segment.position(segment.position() + length);
+        spilled.put(index, slice);
+    }
+}
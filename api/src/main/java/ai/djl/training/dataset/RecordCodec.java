@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/** Serializes {@link Record}s to the binary layout shared by shards and {@link RecordCache}. */
+final class RecordCodec {
+
+    private RecordCodec() {}
+
+    /**
+     * Encodes a {@link Record} into a byte array.
+     *
+     * @param record the record to encode
+     * @return the encoded record
+     */
+    static byte[] encode(Record record) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(bos)) {
+            encodeList(dos, record.getData());
+            encodeList(dos, record.getLabels());
+        } catch (IOException e) {
+            // ByteArrayOutputStream never throws
+            throw new AssertionError(e);
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Decodes a {@link Record} from the given buffer, starting at its position.
+     *
+     * <p>The arrays are created directly from slices of the buffer, so a direct buffer is copied
+     * to the native memory of the arrays without going through the Java heap.
+     *
+     * @param manager the manager to create the arrays
+     * @param buf the buffer to decode
+     * @return the decoded record
+     */
+    static Record decode(NDManager manager, ByteBuffer buf) {
+        buf.order(ByteOrder.BIG_ENDIAN);
+        NDList data = decodeList(manager, buf);
+        NDList labels = decodeList(manager, buf);
+        return new Record(data, labels);
+    }
+
+    private static void encodeList(DataOutputStream dos, NDList list) throws IOException {
+        if (list == null) {
+            dos.writeInt(0);
+            return;
+        }
+        dos.writeInt(list.size());
+        for (NDArray array : list) {
+            Shape shape = array.getShape();
+            dos.writeUTF(array.getDataType().name());
+            dos.writeInt(shape.dimension());
+            for (long dim : shape.getShape()) {
+                dos.writeLong(dim);
+            }
+            ByteBuffer bb = array.toByteBuffer();
+            dos.writeBoolean(bb.order() == ByteOrder.LITTLE_ENDIAN);
+            dos.writeInt(bb.remaining());
+            if (bb.hasArray()) {
+                dos.write(bb.array(), bb.arrayOffset() + bb.position(), bb.remaining());
+            } else {
+                byte[] buf = new byte[bb.remaining()];
+                bb.get(buf);
+                dos.write(buf);
+            }
+        }
+    }
+
+    private static NDList decodeList(NDManager manager, ByteBuffer buf) {
+        int size = buf.getInt();
+        NDList list = new NDList(size);
+        for (int i = 0; i < size; ++i) {
+            byte[] nameBytes = new byte[buf.getShort() & 0xFFFF];
+            buf.get(nameBytes);
+            DataType dataType = DataType.valueOf(new String(nameBytes, StandardCharsets.UTF_8));
+            long[] dims = new long[buf.getInt()];
+            for (int j = 0; j < dims.length; ++j) {
+                dims[j] = buf.getLong();
+            }
+            ByteOrder order = buf.get() != 0 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            int length = buf.getInt();
+
+            ByteBuffer data = buf.slice();
+            data.limit(length);
+            data.order(order);
+            buf.position(buf.position() + length);
+            list.add(manager.create(dataType.asDataType(data), new Shape(dims), dataType));
+        }
+        return list;
+    }
+}
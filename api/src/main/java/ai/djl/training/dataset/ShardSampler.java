@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.util.RandomUtils;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * {@code ShardSampler} is a {@link Sampler.SubSampler} for a {@link ShardedDataset} that shuffles
+ * the order of the shards, and the order of the records within each shard, while reading one shard
+ * at a time.
+ *
+ * <p>Compared to a {@link RandomSampler}, which jumps across all shards for every record, the
+ * reads of an epoch stay within a single file until it is exhausted.
+ */
+public class ShardSampler implements Sampler.SubSampler {
+
+    private Integer seed;
+    private boolean shuffleRecords;
+
+    /** Creates a new instance of {@code ShardSampler} that shuffles shards and records. */
+    public ShardSampler() {
+        shuffleRecords = true;
+    }
+
+    /**
+     * Creates a new instance of {@code ShardSampler}.
+     *
+     * @param seed the value of the seed
+     * @param shuffleRecords whether to shuffle the records within each shard
+     */
+    public ShardSampler(int seed, boolean shuffleRecords) {
+        this.seed = seed;
+        this.shuffleRecords = shuffleRecords;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<Long> sample(RandomAccessDataset dataset) {
+        if (!(dataset instanceof ShardedDataset)) {
+            throw new IllegalArgumentException("ShardSampler requires a ShardedDataset");
+        }
+        Random rnd = (seed != null) ? new Random(seed) : RandomUtils.RANDOM;
+        return new Iterate((ShardedDataset) dataset, rnd);
+    }
+
+    private static void shuffle(long[] arr, Random rnd) {
+        for (int i = arr.length - 1; i > 0; --i) {
+            int j = rnd.nextInt(i + 1);
+            long tmp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = tmp;
+        }
+    }
+
+    private final class Iterate implements Iterator<Long> {
+
+        private ShardedDataset dataset;
+        private Random rnd;
+        private long[] shards;
+        private int shard;
+        private long[] indices;
+        private int current;
+
+        Iterate(ShardedDataset dataset, Random rnd) {
+            this.dataset = dataset;
+            this.rnd = rnd;
+            int numShards = dataset.getNumberOfShards();
+            shards = new long[numShards];
+            for (int i = 0; i < numShards; ++i) {
+                shards[i] = i;
+            }
+            shuffle(shards, rnd);
+            indices = new long[0];
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            while (current >= indices.length) {
+                if (shard >= shards.length) {
+                    return false;
+                }
+                nextShard((int) shards[shard++]);
+            }
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Long next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return indices[current++];
+        }
+
+        private void nextShard(int index) {
+            long start = dataset.getShardStart(index);
+            int size = Math.toIntExact(dataset.getShardStart(index + 1) - start);
+            indices = new long[size];
+            for (int i = 0; i < size; ++i) {
+                indices[i] = start + i;
+            }
+            if (shuffleRecords) {
+                shuffle(indices, rnd);
+            }
+            current = 0;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDManager;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code ShardWriter} converts {@link Record}s into a small number of large shard files that can be
+ * read back with {@link ShardedDataset}.
+ *
+ * <p>Records are appended to a shard file until it reaches the maximum shard size, at which point a
+ * new shard is started. When the writer is closed, an index file with the offset and length of
+ * every record is written next to the shards. Reading a dataset from shards replaces one file open
+ * per record with a positional read or a memory-mapped slice of an already opened file.
+ *
+ * <p>The following writes an existing dataset into 256 MB shards:
+ *
+ * <pre>
+ * try (ShardWriter writer = new ShardWriter(dir, "train", 256L * 1024 * 1024)) {
+ *     writer.write(dataset, manager);
+ * }
+ * </pre>
+ *
+ * @see ShardedDataset
+ */
+public class ShardWriter implements AutoCloseable {
+
+    static final int SHARD_MAGIC = 0x444A4C53; // DJLS
+    static final int INDEX_MAGIC = 0x444A4C49; // DJLI
+    static final int VERSION = 1;
+    static final int SHARD_HEADER_SIZE = 8;
+
+    private Path dir;
+    private String name;
+    private long maxShardBytes;
+
+    private List<String> shardNames;
+    private List<Integer> shardSizes;
+    private List<Long> offsets;
+    private List<Integer> lengths;
+    private FileChannel channel;
+    private long position;
+    private int recordsInShard;
+
+    /**
+     * Creates a new instance of {@code ShardWriter}.
+     *
+     * @param dir the directory to write the shards and the index to
+     * @param name the name of the dataset, used as prefix of all files
+     * @param maxShardBytes the size in bytes after which a new shard is started
+     */
+    public ShardWriter(Path dir, String name, long maxShardBytes) {
+        if (maxShardBytes <= 0) {
+            throw new IllegalArgumentException("maxShardBytes must be positive: " + maxShardBytes);
+        }
+        this.dir = dir;
+        this.name = name;
+        this.maxShardBytes = maxShardBytes;
+        shardNames = new ArrayList<>();
+        shardSizes = new ArrayList<>();
+        offsets = new ArrayList<>();
+        lengths = new ArrayList<>();
+    }
+
+    /**
+     * Writes all records of a {@link RandomAccessDataset} in index order.
+     *
+     * <p>The pipelines of the dataset are not applied, so the shards hold the records as returned
+     * by {@link RandomAccessDataset#get(NDManager, long)}.
+     *
+     * @param dataset the dataset to write
+     * @param manager the manager used to load the records
+     * @throws IOException if the records cannot be loaded or written
+     */
+    public void write(RandomAccessDataset dataset, NDManager manager) throws IOException {
+        long size = dataset.size();
+        for (long i = 0; i < size; ++i) {
+            try (NDManager subManager = manager.newSubManager()) {
+                write(dataset.get(subManager, i));
+            }
+        }
+    }
+
+    /**
+     * Appends a {@link Record} to the current shard.
+     *
+     * @param record the record to write
+     * @throws IOException if the record cannot be written
+     */
+    public void write(Record record) throws IOException {
+        if (channel != null && position >= maxShardBytes) {
+            finishShard();
+        }
+        if (channel == null) {
+            startShard();
+        }
+
+        ByteBuffer buf = ByteBuffer.wrap(RecordCodec.encode(record));
+        int length = buf.remaining();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+
+        offsets.add(position);
+        lengths.add(length);
+        position += length;
+        ++recordsInShard;
+    }
+
+    /**
+     * Returns the number of records written so far.
+     *
+     * @return the number of records written so far
+     */
+    public long getNumberOfRecords() {
+        return offsets.size();
+    }
+
+    /**
+     * Finishes the last shard and writes the index file.
+     *
+     * @throws IOException if the shard or the index cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            finishShard();
+        }
+        Path index = ShardedDataset.getIndexFile(dir, name);
+        try (DataOutputStream dos =
+                new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(index)))) {
+            dos.writeInt(INDEX_MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeInt(shardNames.size());
+            for (int i = 0; i < shardNames.size(); ++i) {
+                dos.writeUTF(shardNames.get(i));
+                dos.writeInt(shardSizes.get(i));
+            }
+            for (int i = 0; i < offsets.size(); ++i) {
+                dos.writeLong(offsets.get(i));
+                dos.writeInt(lengths.get(i));
+            }
+        }
+    }
+
+    private void startShard() throws IOException {
+        String shardName = String.format("%s-%05d.shard", name, shardNames.size());
+        Files.createDirectories(dir);
+        channel =
+                FileChannel.open(
+                        dir.resolve(shardName),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(SHARD_HEADER_SIZE);
+        header.putInt(SHARD_MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        shardNames.add(shardName);
+        position = SHARD_HEADER_SIZE;
+        recordsInShard = 0;
+    }
+
+    private void finishShard() throws IOException {
+        channel.close();
+        channel = null;
+        shardSizes.add(recordsInShard);
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDManager;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * {@code ShardedDataset} is a {@link RandomAccessDataset} that reads records from shard files
+ * written by {@link ShardWriter}.
+ *
+ * <p>All shard files are opened once when the dataset is built. A record is then loaded with a
+ * single positional read of its byte range, or, in memory-mapped mode, by slicing the mapped shard
+ * without any copy on the Java heap. Combined with a {@link ShardSampler}, which visits one shard
+ * at a time, an epoch turns into large sequential reads instead of one file open per record.
+ *
+ * <pre>
+ * ShardedDataset dataset =
+ *         new ShardedDataset.Builder()
+ *                 .setShards(dir, "train")
+ *                 .optMemoryMapped(true)
+ *                 .setSampling(new BatchSampler(new ShardSampler(), 32))
+ *                 .build();
+ * </pre>
+ *
+ * @see ShardWriter
+ */
+public class ShardedDataset extends RandomAccessDataset implements AutoCloseable {
+
+    private String[] shardNames;
+    private long[] shardStarts;
+    private long[] offsets;
+    private int[] lengths;
+    private FileChannel[] channels;
+    private ByteBuffer[] mapped;
+
+    /**
+     * Creates a new instance of {@code ShardedDataset} with the given builder.
+     *
+     * @param builder a builder with the necessary configurations
+     * @throws IOException if the index or the shards cannot be opened
+     */
+    public ShardedDataset(Builder builder) throws IOException {
+        super(builder);
+        readIndex(getIndexFile(builder.dir, builder.name));
+
+        channels = new FileChannel[shardNames.length];
+        mapped = new ByteBuffer[shardNames.length];
+        try {
+            for (int i = 0; i < shardNames.length; ++i) {
+                Path file = builder.dir.resolve(shardNames[i]);
+                channels[i] = FileChannel.open(file, StandardOpenOption.READ);
+                long size = channels[i].size();
+                if (builder.memoryMapped && size <= Integer.MAX_VALUE) {
+                    // shards larger than 2 GB cannot be mapped, they fall back to positional reads
+                    mapped[i] = channels[i].map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Record get(NDManager manager, long index) throws IOException {
+        int i = Math.toIntExact(index);
+        int shard = getShard(index);
+        ByteBuffer buf;
+        if (mapped[shard] != null) {
+            buf = mapped[shard].duplicate();
+            buf.position(Math.toIntExact(offsets[i]));
+            buf = buf.slice();
+            buf.limit(lengths[i]);
+        } else {
+            // the records are written by a DataOutputStream, which is big-endian, while the
+            // buffers of the manager are in the native order
+            buf = manager.allocateDirect(lengths[i]).order(ByteOrder.BIG_ENDIAN);
+            long position = offsets[i];
+            while (buf.hasRemaining()) {
+                int read = channels[shard].read(buf, position + buf.position());
+                if (read < 0) {
+                    throw new EOFException("Truncated shard: " + shardNames[shard]);
+                }
+            }
+            buf.flip();
+        }
+        return RecordCodec.decode(manager, buf);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long size() {
+        return offsets.length;
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return the number of shards
+     */
+    public int getNumberOfShards() {
+        return shardNames.length;
+    }
+
+    /**
+     * Returns the index of the first record in the given shard.
+     *
+     * <p>The records of a shard have contiguous indices, from {@code getShardStart(shard)}
+     * inclusive to {@code getShardStart(shard + 1)} exclusive.
+     *
+     * @param shard the shard, from 0 to {@link #getNumberOfShards()} inclusive
+     * @return the index of the first record in the shard
+     */
+    public long getShardStart(int shard) {
+        return shardStarts[shard];
+    }
+
+    /**
+     * Returns the shard that contains the record at the given index.
+     *
+     * @param index the index of the record
+     * @return the shard that contains the record
+     */
+    public int getShard(long index) {
+        int pos = Arrays.binarySearch(shardStarts, index);
+        if (pos < 0) {
+            return -pos - 2;
+        }
+        // skip empty shards that start at the same index
+        while (pos + 1 < shardNames.length && shardStarts[pos + 1] == index) {
+            ++pos;
+        }
+        return pos;
+    }
+
+    /**
+     * Closes all shard files.
+     *
+     * @throws IOException if a shard cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+        for (FileChannel channel : channels) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    exception = e;
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    static Path getIndexFile(Path dir, String name) {
+        return dir.resolve(name + ".idx");
+    }
+
+    private void readIndex(Path index) throws IOException {
+        try (DataInputStream dis =
+                new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+            if (dis.readInt() != ShardWriter.INDEX_MAGIC) {
+                throw new IOException("Invalid shard index: " + index);
+            }
+            int version = dis.readInt();
+            if (version != ShardWriter.VERSION) {
+                throw new IOException("Unsupported shard index version: " + version);
+            }
+            int numShards = dis.readInt();
+            shardNames = new String[numShards];
+            shardStarts = new long[numShards + 1];
+            for (int i = 0; i < numShards; ++i) {
+                shardNames[i] = dis.readUTF();
+                shardStarts[i + 1] = shardStarts[i] + dis.readInt();
+            }
+            int size = Math.toIntExact(shardStarts[numShards]);
+            offsets = new long[size];
+            lengths = new int[size];
+            for (int i = 0; i < size; ++i) {
+                offsets[i] = dis.readLong();
+                lengths[i] = dis.readInt();
+            }
+        }
+    }
+
+    /** The Builder to construct a {@link ShardedDataset}. */
+    public static final class Builder extends BaseBuilder<Builder> {
+
+        private Path dir;
+        private String name;
+        private boolean memoryMapped;
+
+        /** {@inheritDoc} */
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        /**
+         * Sets the location of the shards.
+         *
+         * @param dir the directory that contains the shards and the index
+         * @param name the name the shards were written with
+         * @return this builder
+         */
+        public Builder setShards(Path dir, String name) {
+            this.dir = dir;
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets whether the shards are memory mapped instead of read with positional reads.
+         *
+         * @param memoryMapped {@code true} to memory map the shards
+         * @return this builder
+         */
+        public Builder optMemoryMapped(boolean memoryMapped) {
+            this.memoryMapped = memoryMapped;
+            return this;
+        }
+
+        /**
+         * Builds the {@link ShardedDataset}.
+         *
+         * @return the {@link ShardedDataset}
+         * @throws IOException if the index or the shards cannot be opened
+         */
+        public ShardedDataset build() throws IOException {
+            if (dir == null || name == null) {
+                throw new IllegalArgumentException("The shards must be set");
+            }
+            return new ShardedDataset(this);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.translate;
+
+/**
+ * A {@link Transform} that can also be applied to a batch of stacked inputs.
+ *
+ * <p>Applying a {@code BatchTransform} to an {@link ai.djl.ndarray.NDArray} with a leading batch
+ * axis gives the same result as applying it to each element of the batch and stacking the
+ * results. Data loading uses this to run the trailing {@code BatchTransform}s of a dataset {@link
+ * Pipeline} once on the whole batch, instead of once per record.
+ *
+ * @see Pipeline#splitBatchTransforms()
+ */
+public interface BatchTransform extends Transform {}
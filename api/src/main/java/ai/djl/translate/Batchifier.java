@@ -49,6 +49,29 @@ public interface Batchifier {
      */
     NDList[] unbatchify(NDList inputs);
 
+    /**
+     * Releases a batch created by this {@code Batchifier} when the batch is closed.
+     *
+     * <p>A {@code Batchifier} that reuses its output arrays takes them back here, so they are not
+     * closed together with the batch. The default implementation does nothing.
+     *
+     * @param batch the {@link NDList} returned by {@link #batchify(NDList[]) batchify}
+     */
+    default void release(NDList batch) {}
+
+    /**
+     * Returns the {@code Batchifier} for the labels of the batches created by this {@code
+     * Batchifier}.
+     *
+     * <p>A dataset batchifies the data of its records with this {@code Batchifier} and the labels
+     * with the returned one. The default implementation returns this {@code Batchifier}.
+     *
+     * @return the {@code Batchifier} for the labels
+     */
+    default Batchifier getLabelBatchifier() {
+        return this;
+    }
+
     /**
      * Splits the given {@link NDList} into the given number of slices.
      *
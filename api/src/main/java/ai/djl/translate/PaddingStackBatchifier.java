@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.translate;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDArrays;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.index.NDIndex;
+import ai.djl.ndarray.types.Shape;
+
+/**
+ * {@code PaddingStackBatchifier} is a {@link Batchifier} for inputs of variable length.
+ *
+ * <p>It stacks the inputs like the {@link StackBatchifier}, but first pads the first axis of every
+ * input to the longest input of the batch, instead of requiring all the inputs to have the same
+ * shape. The other axes must match. Inputs that all have the same shape are stacked as they are.
+ *
+ * <p>By default, it also appends a {@link ai.djl.ndarray.types.DataType#FLOAT32} NDArray of shape
+ * (batch) with the valid length of the first input of each element. Models use it to mask the
+ * padding. Combined with a {@link ai.djl.training.dataset.BucketSampler} that batches inputs of
+ * similar length, the padding is kept small. The labels of a dataset are batchified by {@link
+ * #getLabelBatchifier()}, which pads them without the valid length.
+ */
+public class PaddingStackBatchifier implements Batchifier {
+
+    private float padValue;
+    private boolean includeValidLength;
+    private PaddingStackBatchifier labelBatchifier;
+
+    /**
+     * Creates a {@code PaddingStackBatchifier} using {@link Builder}.
+     *
+     * @param builder the builder with the padding options
+     */
+    public PaddingStackBatchifier(Builder builder) {
+        padValue = builder.padValue;
+        includeValidLength = builder.includeValidLength;
+        if (includeValidLength) {
+            labelBatchifier =
+                    new Builder().optPadValue(padValue).optIncludeValidLength(false).build();
+        } else {
+            labelBatchifier = this;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList batchify(NDList[] inputs) {
+        int batchSize = inputs.length;
+        int numInputKinds = inputs[0].size();
+        if (numInputKinds == 0) {
+            return new NDList();
+        }
+
+        NDList result = new NDList(numInputKinds + 1);
+        for (int i = 0; i < numInputKinds; i++) {
+            NDArray first = inputs[0].get(i);
+            Shape shape = first.getShape();
+            long maxLength = shape.dimension() == 0 ? 0 : shape.get(0);
+            boolean sameShape = true;
+            for (NDList input : inputs) {
+                Shape other = input.get(i).getShape();
+                if (!other.equals(shape)) {
+                    sameShape = false;
+                    if (other.dimension() == 0
+                            || other.dimension() != shape.dimension()
+                            || !other.slice(1).equals(shape.slice(1))) {
+                        throw new IllegalArgumentException(
+                                "Inputs can only differ in the first axis, but got: "
+                                        + shape
+                                        + " and "
+                                        + other);
+                    }
+                    maxLength = Math.max(maxLength, other.get(0));
+                }
+            }
+
+            NDArray batched;
+            if (sameShape) {
+                NDList inputsOfKind = new NDList(batchSize);
+                for (NDList input : inputs) {
+                    inputsOfKind.add(input.get(i));
+                }
+                batched = NDArrays.stack(inputsOfKind);
+            } else {
+                Shape padded = new Shape(batchSize, maxLength).addAll(shape.slice(1));
+                batched =
+                        first.getManager()
+                                .zeros(padded, first.getDataType(), first.getDevice());
+                if (padValue != 0) {
+                    batched.addi(padValue);
+                }
+                // copy each input into the leading part of its row
+                for (int j = 0; j < batchSize; j++) {
+                    NDArray array = inputs[j].get(i);
+                    NDIndex index = new NDIndex(j).addSliceDim(0, array.getShape().get(0));
+                    batched.set(index, array);
+                }
+            }
+            batched.setName(first.getName());
+            result.add(batched);
+        }
+
+        if (includeValidLength) {
+            float[] lengths = new float[batchSize];
+            for (int j = 0; j < batchSize; j++) {
+                Shape shape = inputs[j].head().getShape();
+                lengths[j] = shape.dimension() == 0 ? 1 : shape.get(0);
+            }
+            NDArray validLength = inputs[0].head().getManager().create(lengths);
+            validLength.setName("valid_length");
+            result.add(validLength);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The padding is not removed, since the output of a model does not carry the valid length
+     * of its input.
+     */
+    @Override
+    public NDList[] unbatchify(NDList inputs) {
+        return Batchifier.STACK.unbatchify(inputs);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The returned {@code PaddingStackBatchifier} pads the labels the same way, but does not
+     * append the valid length.
+     */
+    @Override
+    public Batchifier getLabelBatchifier() {
+        return labelBatchifier;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList[] split(NDList list, int numOfSlices, boolean evenSplit) {
+        // the padded arrays and the valid length all have the same shape within a batch
+        return Batchifier.STACK.split(list, numOfSlices, evenSplit);
+    }
+
+    /** The Builder to construct a {@link PaddingStackBatchifier}. */
+    public static final class Builder {
+
+        float padValue;
+        boolean includeValidLength = true;
+
+        /**
+         * Sets the value to pad the inputs with (default is 0).
+         *
+         * @param padValue the value to pad the inputs with
+         * @return this {@code Builder}
+         */
+        public Builder optPadValue(float padValue) {
+            this.padValue = padValue;
+            return this;
+        }
+
+        /**
+         * Sets whether to append the valid length of each element to the batch (default is
+         * {@code true}).
+         *
+         * @param includeValidLength whether to append the valid length NDArray
+         * @return this {@code Builder}
+         */
+        public Builder optIncludeValidLength(boolean includeValidLength) {
+            this.includeValidLength = includeValidLength;
+            return this;
+        }
+
+        /**
+         * Builds the {@link PaddingStackBatchifier}.
+         *
+         * @return a new {@link PaddingStackBatchifier}
+         */
+        public PaddingStackBatchifier build() {
+            return new PaddingStackBatchifier(this);
+        }
+    }
+}
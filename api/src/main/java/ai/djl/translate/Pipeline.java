@@ -16,13 +16,19 @@ import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.util.Pair;
 import ai.djl.util.PairList;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
 
-/** {@code Pipeline} allows applying multiple transforms on an input {@link NDList}. */
+/**
+ * {@code Pipeline} allows applying multiple transforms on an input {@link NDList}.
+ *
+ * <p>The keys of the transforms are resolved to positions in the input the first time an input
+ * with a given signature (the number of arrays and their names) is seen. The resolved plan is
+ * reused for later inputs with the same signature, and is dropped when the pipeline is modified.
+ */
 public class Pipeline {
 
     private PairList<IndexKey, Transform> transforms;
+    private volatile Plan plan;
 
     /** Creates a new instance of {@code Pipeline} that has no {@link Transform} defined yet. */
     public Pipeline() {
@@ -58,6 +64,7 @@ public class Pipeline {
      */
     public Pipeline add(Transform transform) {
         transforms.add(new IndexKey(0), transform);
+        plan = null;
         return this;
     }
 
@@ -72,6 +79,7 @@ public class Pipeline {
      */
     public Pipeline add(int index, Transform transform) {
         transforms.add(new IndexKey(index), transform);
+        plan = null;
         return this;
     }
 
@@ -87,6 +95,7 @@ public class Pipeline {
      */
     public Pipeline add(String name, Transform transform) {
         transforms.add(new IndexKey(name), transform);
+        plan = null;
         return this;
     }
 
@@ -103,6 +112,7 @@ public class Pipeline {
      */
     public Pipeline insert(int position, Transform transform) {
         transforms.add(position, new IndexKey(0), transform);
+        plan = null;
         return this;
     }
 
@@ -118,6 +128,7 @@ public class Pipeline {
      */
     public Pipeline insert(int position, int index, Transform transform) {
         transforms.add(position, new IndexKey(index), transform);
+        plan = null;
         return this;
     }
 
@@ -133,9 +144,45 @@ public class Pipeline {
      */
     public Pipeline insert(int position, String name, Transform transform) {
         transforms.add(position, new IndexKey(name), transform);
+        plan = null;
         return this;
     }
 
+    /**
+     * Appends all the transforms of another {@code Pipeline} to this {@code Pipeline}.
+     *
+     * @param other the {@code Pipeline} whose transforms are added
+     * @return this {@code Pipeline}
+     */
+    public Pipeline addAll(Pipeline other) {
+        transforms.addAll(other.transforms);
+        plan = null;
+        return this;
+    }
+
+    /**
+     * Splits this {@code Pipeline} into the transforms that must be applied on each record, and
+     * the trailing {@link BatchTransform}s that can be applied on the batch after the records are
+     * stacked.
+     *
+     * <p>Only the trailing transforms can be moved, since they run after every other transform of
+     * the pipeline.
+     *
+     * @return a pair of the record {@code Pipeline} and the batch {@code Pipeline}, either of
+     *     which may be empty
+     */
+    public Pair<Pipeline, Pipeline> splitBatchTransforms() {
+        int split = transforms.size();
+        while (split > 0 && transforms.valueAt(split - 1) instanceof BatchTransform) {
+            --split;
+        }
+        Pipeline record = new Pipeline();
+        record.transforms.addAll(transforms.subList(0, split));
+        Pipeline batch = new Pipeline();
+        batch.transforms.addAll(transforms.subList(split));
+        return new Pair<>(record, batch);
+    }
+
     /**
      * Applies the transforms configured in this object on the input {@link NDList}.
      *
@@ -150,29 +197,117 @@ public class Pipeline {
         if (transforms.isEmpty() || input.isEmpty()) {
             return input;
         }
+        return getPlan(input).apply(input);
+    }
 
-        NDArray[] arrays = input.toArray(new NDArray[0]);
+    /**
+     * Applies the transforms configured in this object on a batch of input {@link NDList}s.
+     *
+     * <p>The transforms are resolved once for all inputs that share the same signature, which is
+     * the common case for the records of a batch.
+     *
+     * @param inputs the input {@link NDList}s on which the tranforms are to be applied
+     * @return the output {@link NDList}s after applying the tranforms, in the same order
+     */
+    public NDList[] transform(NDList[] inputs) {
+        NDList[] outputs = new NDList[inputs.length];
+        if (transforms.isEmpty()) {
+            System.arraycopy(inputs, 0, outputs, 0, inputs.length);
+            return outputs;
+        }
+        Plan current = null;
+        for (int i = 0; i < inputs.length; ++i) {
+            NDList input = inputs[i];
+            if (input.isEmpty()) {
+                outputs[i] = input;
+                continue;
+            }
+            if (current == null || !current.matches(input)) {
+                current = getPlan(input);
+            }
+            outputs[i] = current.apply(input);
+        }
+        return outputs;
+    }
+
+    private Plan getPlan(NDList input) {
+        Plan current = plan;
+        if (current == null || !current.matches(input)) {
+            current = new Plan(transforms, input);
+            plan = current;
+        }
+        return current;
+    }
+
+    /** An immutable list of transforms resolved to positions for one input signature. */
+    private static final class Plan {
+
+        private int size;
+        private String[] names;
+        private int[] indices;
+        private Transform[] steps;
 
-        Map<IndexKey, Integer> map = new ConcurrentHashMap<>();
-        // create mapping
-        for (int i = 0; i < input.size(); i++) {
-            String key = input.get(i).getName();
-            if (key != null) {
-                map.put(new IndexKey(key), i);
+        Plan(PairList<IndexKey, Transform> transforms, NDList input) {
+            size = input.size();
+            steps = transforms.values().toArray(new Transform[0]);
+            indices = new int[steps.length];
+            boolean named = false;
+            for (int i = 0; i < steps.length; ++i) {
+                IndexKey key = transforms.keyAt(i);
+                if (key.key == null) {
+                    if (key.index >= size) {
+                        throw new IllegalArgumentException(
+                                "Transform index " + key.index + " is out of input size " + size);
+                    }
+                    indices[i] = key.index;
+                } else {
+                    indices[i] = indexOf(input, key.key);
+                    named = true;
+                }
             }
-            map.put(new IndexKey(i), i);
+            // names are only part of the signature when a transform is keyed by name
+            if (named) {
+                names = new String[size];
+                for (int i = 0; i < size; ++i) {
+                    names[i] = input.get(i).getName();
+                }
+            }
+        }
+
+        boolean matches(NDList input) {
+            if (input.size() != size) {
+                return false;
+            }
+            if (names != null) {
+                for (int i = 0; i < size; ++i) {
+                    if (!Objects.equals(names[i], input.get(i).getName())) {
+                        return false;
+                    }
+                }
+            }
+            return true;
         }
-        // apply transform
-        for (Pair<IndexKey, Transform> transform : transforms) {
-            IndexKey key = transform.getKey();
-            int index = map.get(key);
-            NDArray array = arrays[index];
-
-            arrays[index] = transform.getValue().transform(array);
-            arrays[index].setName(array.getName());
+
+        NDList apply(NDList input) {
+            NDArray[] arrays = input.toArray(new NDArray[0]);
+            for (int i = 0; i < steps.length; ++i) {
+                int index = indices[i];
+                NDArray array = arrays[index];
+                arrays[index] = steps[i].transform(array);
+                arrays[index].setName(array.getName());
+            }
+            return new NDList(arrays);
         }
 
-        return new NDList(arrays);
+        private static int indexOf(NDList input, String name) {
+            // the last array with the name wins, as when the names were put in a map
+            for (int i = input.size() - 1; i >= 0; --i) {
+                if (name.equals(input.get(i).getName())) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("No NDArray named " + name + " in the input");
+        }
     }
 
     private static final class IndexKey {
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.translate;
+
+import ai.djl.Device;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.index.NDIndex;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code ReusableStackBatchifier} is a {@link StackBatchifier} that copies the inputs into
+ * preallocated output arrays instead of creating new ones for every batch.
+ *
+ * <p>The output arrays are kept in a ring for every input position, batch shape, data type and
+ * device, and are reused in turn. Labels are batchified by {@link #getLabelBatchifier()}, which
+ * has its own rings, so data and labels of the same shape never share an output array. The arrays
+ * belong to this batchifier: {@link #release(NDList)} takes them back when a batch is closed, and
+ * {@link #close()} frees them. A slot is only reused once its array is back, so a batch returned
+ * by {@link #batchify(NDList[])} stays valid while it is in use. If the array of a slot is still
+ * attached to another {@link NDManager}, such as the one of a live batch, or has been closed by
+ * its user, the slot gets a new array and the old one is left to its current owner. The {@code
+ * ringSize} should therefore be at least the number of batches that are loaded ahead and in use
+ * at the same time, or arrays are allocated anyway.
+ *
+ * <p>For fixed-shape data, such as images of the same size, this removes the allocation of a new
+ * array for every batch on the data loading path.
+ */
+public class ReusableStackBatchifier extends StackBatchifier implements AutoCloseable {
+
+    private NDManager manager;
+    private int ringSize;
+    private Map<List<Object>, Ring> rings;
+    private Map<String, NDArray> buffers;
+    private Batchifier labelBatchifier;
+
+    /**
+     * Creates a {@code ReusableStackBatchifier}.
+     *
+     * @param manager the {@link NDManager} to create the output arrays with
+     * @param ringSize the number of output arrays to reuse for each batch shape
+     */
+    public ReusableStackBatchifier(NDManager manager, int ringSize) {
+        if (ringSize <= 0) {
+            throw new IllegalArgumentException("ringSize must be positive");
+        }
+        this.manager = manager.newSubManager();
+        this.ringSize = ringSize;
+        rings = new HashMap<>();
+        buffers = new ConcurrentHashMap<>();
+        labelBatchifier = new LabelBatchifier();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList batchify(NDList[] inputs) {
+        return batchify(inputs, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The returned {@code Batchifier} uses separate output arrays for the labels.
+     */
+    @Override
+    public Batchifier getLabelBatchifier() {
+        return labelBatchifier;
+    }
+
+    private NDList batchify(NDList[] inputs, boolean label) {
+        int batchSize = inputs.length;
+        int numInputKinds = inputs[0].size();
+        if (numInputKinds == 0) {
+            return new NDList();
+        }
+
+        NDList result = new NDList(numInputKinds);
+        for (int i = 0; i < numInputKinds; i++) {
+            NDArray first = inputs[0].get(i);
+            Shape shape = new Shape(batchSize).addAll(first.getShape());
+            List<Object> key =
+                    Arrays.asList(label, i, shape, first.getDataType(), first.getDevice());
+            NDArray buffer = nextBuffer(key, shape, first.getDataType(), first.getDevice());
+            // copy each input into its slice of the output in place
+            for (int j = 0; j < batchSize; j++) {
+                buffer.set(new NDIndex(j), inputs[j].get(i));
+            }
+            buffer.setName(first.getName());
+            result.add(buffer);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Attaches the reused output arrays of the batch back to this batchifier, so they are not
+     * closed with the batch.
+     */
+    @Override
+    public void release(NDList batch) {
+        for (NDArray array : batch) {
+            if (buffers.get(array.getUid()) == array && !array.isReleased()) {
+                array.attach(manager);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of output arrays allocated by this batchifier.
+     *
+     * @return the number of output arrays
+     */
+    public int getNumberOfBuffers() {
+        return buffers.size();
+    }
+
+    /** Frees all the output arrays of this batchifier. */
+    @Override
+    public synchronized void close() {
+        rings.clear();
+        buffers.clear();
+        manager.close();
+    }
+
+    private synchronized NDArray nextBuffer(
+            List<Object> key, Shape shape, DataType dataType, Device device) {
+        Ring ring = rings.computeIfAbsent(key, k -> new Ring());
+        int slot = ring.next;
+        ring.next = (slot + 1) % ringSize;
+        NDArray buffer = ring.arrays[slot];
+        if (buffer != null && (buffer.isReleased() || buffer.getManager() != manager)) {
+            // still attached to a live batch, or closed by it instead of being handed back
+            buffers.remove(buffer.getUid());
+            buffer = null;
+        }
+        if (buffer == null) {
+            buffer = manager.create(shape, dataType, device);
+            ring.arrays[slot] = buffer;
+            buffers.put(buffer.getUid(), buffer);
+        }
+        return buffer;
+    }
+
+    /** The view of this batchifier that batchifies labels into their own output arrays. */
+    private final class LabelBatchifier extends StackBatchifier {
+
+        /** {@inheritDoc} */
+        @Override
+        public NDList batchify(NDList[] inputs) {
+            return ReusableStackBatchifier.this.batchify(inputs, true);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void release(NDList batch) {
+            ReusableStackBatchifier.this.release(batch);
+        }
+    }
+
+    /** The output arrays of one input position, batch shape, data type and device. */
+    private final class Ring {
+
+        NDArray[] arrays = new NDArray[ringSize];
+        int next;
+    }
+}
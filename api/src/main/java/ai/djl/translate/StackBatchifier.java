@@ -44,6 +44,8 @@ public class StackBatchifier implements Batchifier {
                 inputsOfKind.add(input.get(i));
             }
             NDArray stacked = NDArrays.stack(new NDList(inputsOfKind));
+            // keep the names, so transforms keyed by name also apply to the batch
+            stacked.setName(inputs[0].get(i).getName());
             result.add(stacked);
         }
 
@@ -68,9 +70,9 @@ public class StackBatchifier implements Batchifier {
         }
 
         for (NDArray input : inputs) {
-            NDList splitList = input.split(batchSize);
             for (int i = 0; i < batchSize; i++) {
-                NDArray array = splitList.get(i).squeeze(0);
+                // a single index removes the batch axis, without a separate split and squeeze
+                NDArray array = input.get(i);
                 array.setName(input.getName());
                 dataList[i].add(array);
             }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.util;
+
+import ai.djl.Model;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * {@code ArtifactCache} memoizes the artifacts loaded by {@link Model#getArtifact(String,
+ * Function)}.
+ *
+ * <p>Artifacts are keyed by name and by the class of the loading function, so the same file can be
+ * parsed into different types by different callers. A loaded artifact is read once per model and
+ * returned from memory afterwards, without any locking on the lookup path. Since every lambda
+ * expression and method reference has its own class, a lambda that is created again for every
+ * call, even one capturing variables, still maps to a single entry. The values it captures must
+ * therefore not change the result, or the artifact must be invalidated when they do.
+ *
+ * <p>Each model owns its own cache, and clears it with {@link #clear()} when the model is closed.
+ */
+public class ArtifactCache {
+
+    private Model model;
+    private Map<Key, Object> artifacts;
+
+    /**
+     * Constructs an {@code ArtifactCache} that loads artifacts from the given model.
+     *
+     * @param model the model to read the artifacts from
+     */
+    public ArtifactCache(Model model) {
+        this.model = model;
+        artifacts = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the artifact with the given name, loading it with the function if it is not cached.
+     *
+     * @param name the name of the artifact
+     * @param function the function to load the artifact
+     * @param <T> the type of the returned artifact object
+     * @return the cached or loaded artifact, or {@code null} if the function returns {@code null}
+     * @throws IOException when IO operation fails in loading the artifact
+     * @throws ClassCastException if the cached artifact cannot be cast to the target class
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String name, Function<InputStream, T> function) throws IOException {
+        Key key = new Key(name, function.getClass());
+        // ConcurrentHashMap.computeIfAbsent locks the bin even when the value exists
+        Object artifact = artifacts.get(key);
+        if (artifact != null) {
+            return (T) artifact;
+        }
+        try {
+            return (T)
+                    artifacts.computeIfAbsent(
+                            key,
+                            k -> {
+                                try (InputStream is = model.getArtifactAsStream(name)) {
+                                    return function.apply(is);
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Removes all cached artifacts with the given name, so they are loaded again on next access.
+     *
+     * @param name the name of the artifact
+     */
+    public void invalidate(String name) {
+        artifacts.keySet().removeIf(k -> k.name.equals(name));
+    }
+
+    /** Removes all cached artifacts. */
+    public void clear() {
+        artifacts.clear();
+    }
+
+    /**
+     * Returns the number of cached artifacts.
+     *
+     * @return the number of cached artifacts
+     */
+    public int size() {
+        return artifacts.size();
+    }
+
+    private static final class Key {
+
+        String name;
+        Class<?> type;
+
+        Key(String name, Class<?> type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return type == other.type && name.equals(other.name);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return name.hashCode() * 31 + type.hashCode();
+        }
+    }
+}
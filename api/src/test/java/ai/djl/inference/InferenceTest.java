@@ -25,6 +25,7 @@ import ai.djl.test.mock.EchoTranslator;
 import ai.djl.test.mock.MockImageTranslator;
 import ai.djl.test.mock.MockModel;
 import ai.djl.test.mock.MockNDArray;
+import ai.djl.translate.Batchifier;
 import ai.djl.translate.TranslateException;
 import ai.djl.translate.Translator;
 import ai.djl.translate.TranslatorContext;
@@ -33,7 +34,16 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -118,6 +128,270 @@ public class InferenceTest {
         Assert.assertEquals(result, "input");
     }
 
+    @Test
+    public void testPipelinedPredictor() {
+        Translator<String, String> translator =
+                new Translator<String, String>() {
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public NDList processInput(TranslatorContext ctx, String input) {
+                        return new NDList(
+                                new MockNDArray(
+                                        null,
+                                        null,
+                                        new Shape(3, 24, 24),
+                                        DataType.FLOAT32,
+                                        SparseFormat.DENSE));
+                    }
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public String processOutput(TranslatorContext ctx, NDList list) {
+                        return list.head().getShape().toString();
+                    }
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public Batchifier getBatchifier() {
+                        return null;
+                    }
+                };
+
+        Model model = new MockModel();
+        Metrics metrics = new Metrics();
+        try (BasePredictor<String, String> predictor =
+                new BasePredictor<>(model, translator, false)) {
+            predictor.setMetrics(metrics);
+            predictor.setPipelineQueueDepth(1);
+            List<CompletableFuture<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; ++i) {
+                futures.add(predictor.batchPredictAsync(Arrays.asList("a", "b")));
+            }
+            for (CompletableFuture<List<String>> future : futures) {
+                Assert.assertEquals(future.join(), Arrays.asList("(3, 24, 24)", "(3, 24, 24)"));
+            }
+        }
+        Assert.assertEquals(metrics.getMetric("Preprocess").size(), 4);
+        Assert.assertEquals(metrics.getMetric("Inference").size(), 4);
+        Assert.assertEquals(metrics.getMetric("Postprocess").size(), 4);
+        Assert.assertEquals(metrics.getMetric("InferenceQueue").size(), 4);
+    }
+
+    @Test
+    public void testBatchPredictor() throws TranslateException {
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        Predictor<String, String> echo =
+                new Predictor<String, String>() {
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public String predict(String input) {
+                        return input;
+                    }
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public List<String> batchPredict(List<String> inputs) {
+                        batchSizes.add(inputs.size());
+                        return new ArrayList<>(inputs);
+                    }
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public void setMetrics(Metrics metrics) {}
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public void close() {}
+                };
+
+        Metrics metrics = new Metrics();
+        try (BatchPredictor<String, String> predictor =
+                new BatchPredictor<>(echo, 4, 1, TimeUnit.SECONDS)) {
+            predictor.setMetrics(metrics);
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                futures.add(predictor.submit("input" + i));
+            }
+            for (int i = 0; i < 8; ++i) {
+                Assert.assertEquals(futures.get(i).join(), "input" + i);
+            }
+            Assert.assertEquals(predictor.predict("single"), "single");
+        }
+        Assert.assertEquals(batchSizes, Arrays.asList(4, 4, 1));
+        Assert.assertEquals(metrics.getMetric("BatchSize").size(), 3);
+        Assert.assertTrue(metrics.hasMetric("QueueDepth"));
+    }
+
+    @Test
+    public void testBatchPredictorError() throws TranslateException {
+        Predictor<String, String> failing =
+                new Predictor<String, String>() {
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public String predict(String input) {
+                        return input;
+                    }
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public List<String> batchPredict(List<String> inputs) {
+                        if (inputs.contains("error")) {
+                            throw new AssertionError("engine failure");
+                        }
+                        return new ArrayList<>(inputs);
+                    }
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public void setMetrics(Metrics metrics) {}
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public void close() {}
+                };
+
+        BatchPredictor<String, String> predictor =
+                new BatchPredictor<>(failing, 1, 0, TimeUnit.SECONDS);
+        try {
+            CompletableFuture<String> future = predictor.submit("error");
+            Assert.assertThrows(CompletionException.class, future::join);
+            // the dispatcher survives the error
+            Assert.assertEquals(predictor.predict("next"), "next");
+        } finally {
+            predictor.close();
+        }
+        Assert.assertThrows(CompletionException.class, () -> predictor.submit("late").join());
+    }
+
+    @Test
+    public void testBatchPredictorInterrupted() throws TranslateException {
+        AtomicInteger closes = new AtomicInteger();
+        Predictor<String, String> interrupting =
+                new Predictor<String, String>() {
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public String predict(String input) {
+                        return input;
+                    }
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public List<String> batchPredict(List<String> inputs) {
+                        // interrupts the dispatcher thread running the batch
+                        Thread.currentThread().interrupt();
+                        return new ArrayList<>(inputs);
+                    }
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public void setMetrics(Metrics metrics) {}
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public void close() {
+                        closes.incrementAndGet();
+                    }
+                };
+
+        BatchPredictor<String, String> predictor =
+                new BatchPredictor<>(interrupting, 1, 0, TimeUnit.SECONDS);
+        try {
+            Assert.assertEquals(predictor.predict("first"), "first");
+            // the requests after the interruption fail instead of waiting forever
+            CompletableFuture<String> late = predictor.submit("late");
+            Assert.assertThrows(ExecutionException.class, () -> late.get(10, TimeUnit.SECONDS));
+            Assert.assertThrows(IllegalStateException.class, () -> predictor.predict("closed"));
+        } finally {
+            predictor.close();
+            predictor.close();
+        }
+        Assert.assertEquals(closes.get(), 1);
+    }
+
+    @Test
+    public void testPredictorPool() throws InterruptedException, TranslateException {
+        EchoTranslator<String> translator = new EchoTranslator<>();
+        Model model = new MockModel();
+        try (PredictorPool<String, String> pool = new PredictorPool<>(model, translator, 2)) {
+            Predictor<String, String> p1 = pool.lease();
+            Predictor<String, String> p2 = pool.lease();
+            Assert.assertEquals(pool.getCreated(), 2);
+            Assert.assertNull(pool.lease(10, TimeUnit.MILLISECONDS));
+
+            // a waiter is woken up as soon as a predictor is returned
+            CompletableFuture<Predictor<String, String>> waiter =
+                    CompletableFuture.supplyAsync(
+                            () -> {
+                                try {
+                                    return pool.lease(5, TimeUnit.SECONDS);
+                                } catch (InterruptedException e) {
+                                    return null;
+                                }
+                            });
+            p1.close();
+            Predictor<String, String> woken = waiter.join();
+            Assert.assertNotNull(woken);
+            woken.close();
+
+            p1.close();
+            Assert.assertEquals(pool.getIdle(), 1);
+            try (Predictor<String, String> p3 = pool.lease(10, TimeUnit.MILLISECONDS)) {
+                Assert.assertNotNull(p3);
+                Assert.assertEquals(pool.getIdle(), 0);
+            }
+            p2.close();
+            Assert.assertEquals(pool.getIdle(), 2);
+            Assert.assertEquals(pool.getCreated(), 2);
+            Assert.assertThrows(IllegalStateException.class, () -> p2.predict("input"));
+        }
+    }
+
+    @Test
+    public void testPredictorPoolFailures() throws Exception {
+        EchoTranslator<String> translator = new EchoTranslator<>();
+        AtomicBoolean fail = new AtomicBoolean(true);
+        Model model =
+                new MockModel() {
+
+                    /** {@inheritDoc} */
+                    @Override
+                    public <I, O> Predictor<I, O> newPredictor(
+                            Translator<I, O> translator, boolean copy) {
+                        if (fail.getAndSet(false)) {
+                            throw new IllegalStateException("creation failed");
+                        }
+                        return super.newPredictor(translator, copy);
+                    }
+                };
+        PredictorPool<String, String> pool = new PredictorPool<>(model, translator, 1);
+        Assert.assertThrows(IllegalStateException.class, pool::lease);
+        // the failed creation gives its slot back
+        Predictor<String, String> leased = pool.lease(1, TimeUnit.SECONDS);
+        Assert.assertNotNull(leased);
+        Assert.assertEquals(pool.getCreated(), 1);
+
+        // a waiter is woken up by close
+        CompletableFuture<Throwable> waiter =
+                CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                pool.lease().close();
+                                return null;
+                            } catch (IllegalStateException | InterruptedException e) {
+                                return e;
+                            }
+                        });
+        Thread.sleep(50);
+        pool.close();
+        Assert.assertTrue(waiter.get(5, TimeUnit.SECONDS) instanceof IllegalStateException);
+        leased.close();
+        Assert.assertEquals(pool.getIdle(), 0);
+    }
+
     @Test(expectedExceptions = IOException.class)
     public void loadModelException() throws IOException, ModelException {
         Path modelDir = Paths.get("build/non-exist-model");
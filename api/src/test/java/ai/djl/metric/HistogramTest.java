@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void testHistogram() {
+        Histogram histogram = new Histogram("latency");
+        for (long i = 1; i <= 1000; ++i) {
+            histogram.record(i);
+        }
+        Assert.assertEquals(histogram.getCount(), 1000L);
+        Assert.assertEquals(histogram.getMin(), 1L);
+        Assert.assertEquals(histogram.getMax(), 1000L);
+        Assert.assertEquals(histogram.mean(), 500.5d);
+        Assert.assertEquals(histogram.percentile(50), 500d, 500 * 0.04);
+        Assert.assertEquals(histogram.percentile(99), 990d, 990 * 0.04);
+        Assert.assertEquals(histogram.percentile(100), 1000L);
+
+        Histogram snapshot = histogram.getAndReset();
+        Assert.assertEquals(snapshot.getCount(), 1000L);
+        Assert.assertEquals(snapshot.getMax(), 1000L);
+        Assert.assertEquals(snapshot.percentile(50), 500d, 500 * 0.04);
+        Assert.assertEquals(histogram.getCount(), 0L);
+        Assert.assertEquals(histogram.getMax(), 0L);
+
+        histogram.record(5);
+        histogram.reset();
+        Assert.assertEquals(histogram.getCount(), 0L);
+        Assert.assertEquals(histogram.percentile(50), 0L);
+    }
+
+    @Test
+    public void testBuckets() {
+        Histogram histogram = new Histogram("buckets", "nano", 3);
+        long[] values = {0, 7, 8, 15, 16, 17, 1000, 123456789L, Long.MAX_VALUE};
+        for (long value : values) {
+            histogram.record(value);
+        }
+        long total = 0;
+        for (int i = 0; i < histogram.getNumberOfBuckets(); ++i) {
+            long count = histogram.getBucketCount(i);
+            if (count > 0) {
+                long lower = histogram.getBucketLowerBound(i);
+                long upper = histogram.getBucketUpperBound(i);
+                Assert.assertTrue(lower <= upper);
+                for (long value : values) {
+                    if (value >= lower && value <= upper) {
+                        count--;
+                    }
+                }
+                Assert.assertEquals(count, 0L);
+            }
+            total += histogram.getBucketCount(i);
+        }
+        Assert.assertEquals(total, values.length);
+    }
+
+    @Test
+    public void testMetricsHistogram() {
+        Metrics metrics = new Metrics();
+        metrics.recordValue("h1", 3L);
+        metrics.recordValue("h1", 5L);
+        Assert.assertTrue(metrics.hasHistogram("h1"));
+        Assert.assertFalse(metrics.hasMetric("h1"));
+        Assert.assertEquals(metrics.histogram("h1").getCount(), 2L);
+        Assert.assertEquals(metrics.histogram("h1").mean(), 4d);
+        Assert.assertEquals(metrics.histogram("h2", "nano").getUnit(), "nano");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeValue() {
+        new Histogram("h").record(-1);
+    }
+}
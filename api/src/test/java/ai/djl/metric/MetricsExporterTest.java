@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class MetricsExporterTest {
+
+    @Test
+    public void testExporters() throws IOException {
+        Path dir = Paths.get("build/metrics");
+        Path prometheus = dir.resolve("djl.prom");
+        Path json = dir.resolve("metrics.jsonl");
+        Path csv = dir.resolve("metrics.csv");
+        Files.createDirectories(dir);
+        Files.deleteIfExists(json);
+        Files.deleteIfExists(csv);
+
+        Metrics metrics = new Metrics();
+        metrics.addMetric("forward", 2L, "nano");
+        metrics.addMetric("forward", 4L, "nano");
+        metrics.recordValue("Inference", 10L);
+
+        try (MetricsReporter reporter =
+                new MetricsReporter(
+                        metrics,
+                        new PrometheusExporter(prometheus),
+                        new JsonLinesExporter(json),
+                        new CsvExporter(csv))) {
+            reporter.setResetAfterReport(true);
+            reporter.onEpoch();
+            Assert.assertFalse(metrics.hasMetric("forward"));
+            Assert.assertEquals(metrics.histogram("Inference").getCount(), 0L);
+
+            String text = new String(Files.readAllBytes(prometheus), StandardCharsets.UTF_8);
+            Assert.assertTrue(text.contains("# TYPE djl_forward summary"));
+            Assert.assertTrue(text.contains("djl_forward_sum{unit=\"nano\"} 6"));
+            Assert.assertTrue(text.contains("djl_Inference_count{unit=\"count\"} 1"));
+
+            // counters keep growing across resets, the quantiles cover the last interval
+            metrics.addMetric("forward", 8L, "nano");
+            reporter.report();
+            text = new String(Files.readAllBytes(prometheus), StandardCharsets.UTF_8);
+            Assert.assertTrue(text.contains("djl_forward{unit=\"nano\",quantile=\"0.5\"} 8"));
+            Assert.assertTrue(text.contains("djl_forward_sum{unit=\"nano\"} 14"));
+            Assert.assertTrue(text.contains("djl_forward_count{unit=\"nano\"} 3"));
+            Assert.assertTrue(text.contains("djl_Inference{unit=\"count\",quantile=\"0.5\"} NaN"));
+            Assert.assertTrue(text.contains("djl_Inference_count{unit=\"count\"} 1"));
+        }
+
+        // the final report on close has nothing left to export
+        List<String> lines = Files.readAllLines(json, StandardCharsets.UTF_8);
+        Assert.assertEquals(lines.size(), 3);
+        Assert.assertTrue(lines.get(0).contains("{\"name\":\"forward\",\"unit\":\"nano\""));
+        Assert.assertTrue(lines.get(2).endsWith("\"metrics\":[]}"));
+
+        lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        Assert.assertEquals(lines.size(), 4);
+        Assert.assertEquals(lines.get(0), "timestamp,name,unit,count,sum,mean,min,max,p50,p90,p99");
+        Assert.assertTrue(lines.get(1).contains(",forward,nano,2,6.0,3.0,2.0,4.0,4.0,4.0,4.0"));
+    }
+
+    @Test
+    public void testPrometheusNames() throws IOException {
+        Metrics metrics = new Metrics();
+        metrics.addMetric("latency", 1L, "nano");
+        metrics.recordValue("latency", 2L);
+
+        StringWriter writer = new StringWriter();
+        PrometheusExporter.format(writer, metrics.getSummaries());
+        String text = writer.toString();
+        Assert.assertEquals(text.split("# TYPE djl_latency summary", -1).length, 2);
+        Assert.assertTrue(text.contains("# TYPE djl_latency_2 summary"));
+        Assert.assertTrue(text.contains("djl_latency_2_sum{unit=\"count\"} 2"));
+    }
+
+    @Test
+    public void testStablePrometheusNames() throws IOException {
+        Path file = Paths.get("build/metrics/names.prom");
+        PrometheusExporter exporter = new PrometheusExporter(file);
+        Metrics metrics = new Metrics();
+        metrics.recordValue("latency", 2L);
+        exporter.exportInterval(0, metrics.getSummaries(true));
+
+        // the histogram keeps its name when a metric list with the same name shows up
+        metrics.addMetric("latency", 1L, "nano");
+        metrics.recordValue("latency", 3L);
+        exporter.exportInterval(1, metrics.getSummaries(true));
+        String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        Assert.assertTrue(text.contains("djl_latency_sum{unit=\"count\"} 5"));
+        Assert.assertTrue(text.contains("djl_latency_2_sum{unit=\"nano\"} 1"));
+    }
+
+    @Test
+    public void testSummariesReset() {
+        Metrics metrics = new Metrics();
+        metrics.addMetric("forward", 1L);
+        metrics.recordValue("Inference", 10L);
+
+        List<MetricSummary> summaries = metrics.getSummaries(true);
+        Assert.assertEquals(summaries.size(), 2);
+        Assert.assertEquals(summaries.get(1).getSum(), 10.0);
+        Assert.assertFalse(metrics.hasMetric("forward"));
+        Assert.assertTrue(metrics.hasHistogram("Inference"));
+        Assert.assertTrue(metrics.getSummaries(true).isEmpty());
+    }
+}
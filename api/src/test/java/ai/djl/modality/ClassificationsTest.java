@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality;
+
+import ai.djl.modality.Classifications.Classification;
+import ai.djl.ndarray.NDManager;
+import ai.djl.test.mock.MockNDManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ClassificationsTest {
+
+    @Test
+    public void testTopK() {
+        Random random = new Random(42);
+        int size = 1000;
+        List<String> classNames = new ArrayList<>(size);
+        float[] probabilities = new float[size];
+        for (int i = 0; i < size; ++i) {
+            classNames.add("class" + i);
+            // include duplicates to check that ties keep their original order
+            probabilities[i] = random.nextInt(100) / 100f;
+        }
+        Classifications classifications = new Classifications(classNames, probabilities);
+
+        for (int k : new int[] {0, 1, 5, 100, 2000}) {
+            List<String> expected =
+                    IntStream.range(0, size)
+                            .boxed()
+                            .sorted(
+                                    Comparator.<Integer>comparingDouble(i -> -probabilities[i])
+                                            .thenComparingInt(i -> i))
+                            .limit(k)
+                            .map(classNames::get)
+                            .collect(Collectors.toList());
+            List<String> actual =
+                    classifications
+                            .topK(k)
+                            .stream()
+                            .map(Classification::getClassName)
+                            .collect(Collectors.toList());
+            Assert.assertEquals(actual, expected);
+        }
+        String best = "class" + indexOfMax(probabilities);
+        Assert.assertEquals(classifications.best().getClassName(), best);
+    }
+
+    @Test
+    public void testNDArray() {
+        NDManager manager = new MockNDManager();
+        List<String> classNames = Arrays.asList("cat", "dog", "bird");
+        Classifications classifications =
+                new Classifications(classNames, manager.create(new float[] {0.2f, 0.7f, 0.1f}));
+
+        Classification best = classifications.best();
+        Assert.assertEquals(best.getClassName(), "dog");
+        Assert.assertEquals(best.getProbability(), 0.7f, 1e-6);
+        Assert.assertEquals(classifications.get("bird").getProbability(), 0.1f, 1e-6);
+        Assert.assertEquals(classifications.items().size(), 3);
+
+        List<Classification> top = classifications.topK(2);
+        Assert.assertEquals(top.get(0).getClassName(), "dog");
+        Assert.assertEquals(top.get(1).getClassName(), "cat");
+
+        // the list constructor behaves the same
+        Classifications boxed = new Classifications(classNames, Arrays.asList(0.2, 0.7, 0.1));
+        Assert.assertEquals(boxed.best().getClassName(), "dog");
+        Assert.assertEquals(boxed.topK(1).get(0).getClassName(), "dog");
+    }
+
+    @Test
+    public void testFloat64() {
+        NDManager manager = new MockNDManager();
+        List<String> classNames = Arrays.asList("cat", "dog");
+        double probability = 0.123456789012345;
+        Classifications classifications =
+                new Classifications(
+                        classNames, manager.create(new double[] {probability, 1 - probability}));
+        Assert.assertEquals(classifications.get("cat").getProbability(), probability);
+        Assert.assertEquals(classifications.best().getClassName(), "dog");
+    }
+
+    @Test
+    public void testEmpty() {
+        Classifications classifications =
+                new Classifications(Collections.emptyList(), new float[0]);
+        Assert.assertTrue(classifications.topK(5).isEmpty());
+        Assert.assertThrows(NoSuchElementException.class, classifications::best);
+    }
+
+    private static int indexOfMax(float[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; ++i) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class NonMaxSuppressionTest {
+
+    // box 0 and 1 overlap heavily, box 2 overlaps box 0 a little, box 3 is apart
+    private static final float[] BOXES = {
+        0, 0, 10, 10, 1, 1, 11, 11, 8, 8, 18, 18, 50, 50, 60, 60
+    };
+
+    @Test
+    public void testTopK() {
+        Random random = new Random(42);
+        for (int size : new int[] {0, 1, 10, 100, 1000}) {
+            float[] scores = new float[size];
+            for (int i = 0; i < size; ++i) {
+                // include duplicates to exercise the partition
+                scores[i] = random.nextInt(size / 2 + 1) / (float) size;
+            }
+            for (int k : new int[] {1, 5, 50, 2000}) {
+                int[] actual = NonMaxSuppression.topK(scores, k, 0.1f);
+                Integer[] expected =
+                        IntStream.range(0, size)
+                                .filter(i -> scores[i] > 0.1f)
+                                .boxed()
+                                .sorted(
+                                        Comparator.<Integer>comparingDouble(i -> -scores[i])
+                                                .thenComparingInt(i -> i))
+                                .limit(k)
+                                .toArray(Integer[]::new);
+                Assert.assertEquals(actual.length, expected.length);
+                for (int i = 0; i < actual.length; ++i) {
+                    Assert.assertEquals(actual[i], expected[i].intValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIou() {
+        Assert.assertEquals(NonMaxSuppression.iou(BOXES, 0, 0), 1f, 1e-6);
+        Assert.assertEquals(NonMaxSuppression.iou(BOXES, 0, 1), 81f / 119, 1e-6);
+        Assert.assertEquals(NonMaxSuppression.iou(BOXES, 0, 3), 0f, 1e-6);
+    }
+
+    @Test
+    public void testClassAware() {
+        NonMaxSuppression nms = new NonMaxSuppression.Builder().optNmsThreshold(0.5f).build();
+        float[] scores = {0.9f, 0.8f, 0.7f, 0.6f};
+        int[] kept = nms.suppress(BOXES, scores, new int[] {0, 1, 0, -1});
+        // box 1 has another class, box 3 is background
+        Assert.assertEquals(Arrays.toString(kept), "[0, 1, 2]");
+
+        kept = nms.suppress(BOXES, scores, new int[] {0, 0, 0, 0});
+        Assert.assertEquals(Arrays.toString(kept), "[0, 2, 3]");
+    }
+
+    @Test
+    public void testForceSuppress() {
+        NonMaxSuppression nms =
+                new NonMaxSuppression.Builder()
+                        .optForceSuppress(true)
+                        .optThreshold(0.65f)
+                        .optMaxDetections(5)
+                        .build();
+        float[] scores = {0.8f, 0.9f, 0.7f, 0.6f};
+        int[] kept = nms.suppress(BOXES, scores, new int[] {0, 1, 2, 3});
+        Assert.assertEquals(Arrays.toString(kept), "[1, 2]");
+
+        nms = new NonMaxSuppression.Builder().optTopK(2).build();
+        kept = nms.suppress(BOXES, scores, null);
+        Assert.assertEquals(Arrays.toString(kept), "[1]");
+    }
+
+    @Test
+    public void testSoftNms() {
+        NonMaxSuppression nms =
+                new NonMaxSuppression.Builder().optSoftNms(0.5f).optThreshold(0.3f).build();
+        float[] scores = {0.9f, 0.8f, 0.7f, 0.6f};
+        int[] kept = nms.suppress(BOXES, scores, null);
+        // the overlapping box is decayed but not removed, and the order follows decayed scores
+        Assert.assertEquals(Arrays.toString(kept), "[0, 2, 3, 1]");
+        // box 1 is decayed by box 0 and by box 2
+        float iou1 = NonMaxSuppression.iou(BOXES, 0, 1);
+        float iou2 = NonMaxSuppression.iou(BOXES, 2, 1);
+        double decay = Math.exp(-iou1 * iou1 / 0.5f) * Math.exp(-iou2 * iou2 / 0.5f);
+        Assert.assertEquals(scores[1], 0.8f * decay, 1e-6);
+        Assert.assertEquals(scores[3], 0.6f, 1e-6);
+
+        scores = new float[] {0.9f, 0.4f, 0.7f, 0.6f};
+        kept = nms.suppress(BOXES, scores, null);
+        // decayed below the threshold
+        Assert.assertEquals(Arrays.toString(kept), "[0, 2, 3]");
+    }
+}
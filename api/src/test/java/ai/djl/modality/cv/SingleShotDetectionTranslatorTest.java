@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv;
+
+import ai.djl.Model;
+import ai.djl.metric.Metrics;
+import ai.djl.modality.cv.DetectedObjects.DetectedObject;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.test.mock.MockNDManager;
+import ai.djl.translate.TranslatorContext;
+import java.io.IOException;
+import java.util.Arrays;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class SingleShotDetectionTranslatorTest {
+
+    @Test
+    public void testProcessOutput() throws IOException {
+        SingleShotDetectionTranslator translator =
+                new SingleShotDetectionTranslator.Builder()
+                        .setClasses(Arrays.asList("cat", "dog"))
+                        .optThreshold(0.5f)
+                        .optRescaleSize(100, 200)
+                        .build();
+
+        NDManager manager = new MockNDManager();
+        NDList list =
+                new NDList(
+                        manager.create(new float[] {1, -1, 0, 0}),
+                        manager.create(new float[] {0.9f, 0.9f, 0.2f, 0.6f}),
+                        manager.create(
+                                new float[] {
+                                    10, 20, 60, 120, 0, 0, 1, 1, 0, 0, 1, 1, 50, 100, 100, 200
+                                },
+                                new Shape(4, 4)));
+
+        DetectedObjects result = translator.processOutput(new Context(), list);
+        Assert.assertEquals(result.getNumberOfObjects(), 2);
+
+        DetectedObject dog = result.item(0);
+        Assert.assertEquals(dog.getClassName(), "dog");
+        Assert.assertEquals(dog.getProbability(), 0.9f, 1e-6);
+        Rectangle bounds = dog.getBoundingBox().getBounds();
+        Assert.assertEquals(bounds.getX(), 0.1, 1e-6);
+        Assert.assertEquals(bounds.getY(), 0.1, 1e-6);
+        Assert.assertEquals(bounds.getWidth(), 0.5, 1e-6);
+        Assert.assertEquals(bounds.getHeight(), 0.5, 1e-6);
+
+        DetectedObject cat = result.item(1);
+        Assert.assertEquals(cat.getClassName(), "cat");
+        Assert.assertEquals(cat.getBoundingBox().getBounds().getX(), 0.5, 1e-6);
+        Assert.assertEquals(result.best().getClassName(), "dog");
+    }
+
+    @Test
+    public void testProcessOutputWithNms() throws IOException {
+        SingleShotDetectionTranslator translator =
+                new SingleShotDetectionTranslator.Builder()
+                        .setClasses(Arrays.asList("cat", "dog"))
+                        .optNms(new NonMaxSuppression.Builder().optForceSuppress(true).build())
+                        .build();
+
+        NDManager manager = new MockNDManager();
+        NDList list =
+                new NDList(
+                        manager.create(new float[] {0, 1, -1}),
+                        manager.create(new float[] {0.6f, 0.9f, 0.9f}),
+                        manager.create(
+                                new float[] {0, 0, 0.5f, 0.5f, 0, 0, 0.5f, 0.6f, 0, 0, 1, 1},
+                                new Shape(3, 4)));
+
+        DetectedObjects result = translator.processOutput(new Context(), list);
+        // the cat overlaps the better dog, and the background box is ignored
+        Assert.assertEquals(result.getNumberOfObjects(), 1);
+        Assert.assertEquals(result.item(0).getClassName(), "dog");
+    }
+
+    private static final class Context implements TranslatorContext {
+
+        /** {@inheritDoc} */
+        @Override
+        public Model getModel() {
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public NDManager getNDManager() {
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Metrics getMetrics() {
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Object getAttachment(String key) {
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void setAttachment(String key, Object value) {}
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv.transform;
+
+import ai.djl.modality.cv.util.BufferedImageUtils;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.test.mock.MockNDManager;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ImagePreprocessTest {
+
+    private static final float[] MEAN = {0.485f, 0.456f, 0.406f};
+    private static final float[] STD = {0.229f, 0.224f, 0.225f};
+
+    @Test
+    public void testCropAndNormalize() {
+        NDManager manager = new MockNDManager();
+        BufferedImage image = new BufferedImage(6, 4, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 4; ++y) {
+            for (int x = 0; x < 6; ++x) {
+                image.setRGB(x, y, (x * 40) << 16 | (y * 60) << 8 | (x + y) * 10);
+            }
+        }
+        NDArray array = BufferedImageUtils.toNDArray(manager, image);
+
+        ImagePreprocess transform =
+                new ImagePreprocess.Builder().optCenterCrop().optNormalize(MEAN, STD).build();
+        for (NDArray result :
+                new NDArray[] {transform.transform(array), transform.transform(manager, image)}) {
+            // the center 4x4 square starts at x = 1
+            Assert.assertEquals(result.getShape(), new Shape(3, 4, 4));
+            float[] values = result.toFloatArray();
+            for (int y = 0; y < 4; ++y) {
+                for (int x = 0; x < 4; ++x) {
+                    int[] rgb = {(x + 1) * 40, y * 60, (x + 1 + y) * 10};
+                    for (int c = 0; c < 3; ++c) {
+                        float expected = (rgb[c] / 255f - MEAN[c]) / STD[c];
+                        Assert.assertEquals(values[c * 16 + y * 4 + x], expected, 1e-5);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testResize() {
+        NDManager manager = new MockNDManager();
+        // a horizontal gradient keeps its values at the pixel centers when downsampled by 2
+        byte[] pixels = new byte[2 * 8];
+        for (int y = 0; y < 2; ++y) {
+            for (int x = 0; x < 8; ++x) {
+                pixels[y * 8 + x] = (byte) (x * 30);
+            }
+        }
+        NDArray array = manager.create(new Shape(2, 8, 1), DataType.UINT8);
+        array.set(ByteBuffer.wrap(pixels));
+
+        NDArray result = new ImagePreprocess.Builder().optResize(4, 1).build().transform(array);
+        Assert.assertEquals(result.getShape(), new Shape(1, 1, 4));
+        float[] values = result.toFloatArray();
+        for (int x = 0; x < 4; ++x) {
+            Assert.assertEquals(values[x] * 255, x * 60 + 15, 1e-3);
+        }
+
+        // crop then upsample a constant region
+        ImagePreprocess transform =
+                new ImagePreprocess.Builder().optCrop(2, 0, 1, 2).optResize(3).build();
+        result = transform.transform(array);
+        Assert.assertEquals(result.getShape(), new Shape(1, 3, 3));
+        for (float value : result.toFloatArray()) {
+            Assert.assertEquals(value * 255, 60, 1e-3);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidType() {
+        NDManager manager = new MockNDManager();
+        new ImagePreprocess.Builder().build().transform(manager.create(new float[] {1f}));
+    }
+}
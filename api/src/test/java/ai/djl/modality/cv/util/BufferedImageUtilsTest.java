@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv.util;
+
+import ai.djl.modality.cv.util.NDImageUtils.Flag;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.test.mock.MockNDManager;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BufferedImageUtilsTest {
+
+    private static final int WIDTH = 7;
+    private static final int HEIGHT = 5;
+
+    @Test
+    public void testToNDArray() {
+        NDManager manager = new MockNDManager();
+        int[] types = {
+            BufferedImage.TYPE_3BYTE_BGR,
+            BufferedImage.TYPE_INT_RGB,
+            BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_BYTE_GRAY,
+            BufferedImage.TYPE_4BYTE_ABGR
+        };
+        for (int type : types) {
+            BufferedImage image = randomImage(type, WIDTH, HEIGHT);
+            // a sub-image shares the buffer of its parent and takes the generic path
+            BufferedImage parent = randomImage(type, WIDTH + 2, HEIGHT + 1);
+            BufferedImage sub = parent.getSubimage(1, 1, WIDTH, HEIGHT);
+            for (BufferedImage img : new BufferedImage[] {image, sub}) {
+                for (Flag flag : new Flag[] {Flag.COLOR, Flag.GRAYSCALE}) {
+                    for (boolean channelFirst : new boolean[] {false, true}) {
+                        NDArray array =
+                                BufferedImageUtils.toNDArray(manager, img, flag, channelFirst);
+                        int channel = flag == Flag.GRAYSCALE ? 1 : 3;
+                        Shape expected =
+                                channelFirst
+                                        ? new Shape(channel, HEIGHT, WIDTH)
+                                        : new Shape(HEIGHT, WIDTH, channel);
+                        Assert.assertEquals(array.getShape(), expected);
+                        assertPixels(img, array.toByteBuffer(), channel, channelFirst);
+                    }
+                }
+            }
+        }
+    }
+
+    private static BufferedImage randomImage(int type, int width, int height) {
+        Random random = new Random(type);
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                image.setRGB(x, y, random.nextInt() | 0xFF000000);
+            }
+        }
+        return image;
+    }
+
+    private static void assertPixels(
+            BufferedImage image, ByteBuffer bb, int channel, boolean channelFirst) {
+        int pixels = WIDTH * HEIGHT;
+        for (int y = 0; y < HEIGHT; ++y) {
+            for (int x = 0; x < WIDTH; ++x) {
+                int rgb = image.getRGB(x, y);
+                int[] expected = {(rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF};
+                if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+                    // gray images are converted from the raw samples, not through getRGB
+                    int gray = image.getRaster().getSample(x, y, 0);
+                    expected = new int[] {gray, gray, gray};
+                }
+                if (channel == 1) {
+                    expected = new int[] {(expected[0] + expected[1] + expected[2]) / 3};
+                }
+                int pixel = y * WIDTH + x;
+                for (int c = 0; c < channel; ++c) {
+                    int index = channelFirst ? c * pixels + pixel : pixel * channel + c;
+                    Assert.assertEquals(bb.get(index) & 0xFF, expected[c]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.test.mock;
+
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.training.dataset.RandomAccessDataset;
+import ai.djl.training.dataset.Record;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+public class MockDataset extends RandomAccessDataset {
+
+    private long size;
+    private BiFunction<NDManager, Long, Record> records;
+    private AtomicInteger loads = new AtomicInteger();
+
+    public MockDataset(Builder builder) {
+        super(builder);
+        size = builder.size;
+        records = builder.records;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Record get(NDManager manager, long index) {
+        loads.incrementAndGet();
+        return records.apply(manager, index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long size() {
+        return size;
+    }
+
+    public int getLoads() {
+        return loads.get();
+    }
+
+    // the default record holds the values index * 20 to index * 20 + 19, labeled with the index
+    static Record defaultRecord(NDManager manager, long index) {
+        float[] values = new float[20];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = index * 20f + i;
+        }
+        NDList data = new NDList(manager.create(values, new Shape(2, 10)));
+        NDList labels = new NDList(manager.create(new int[] {(int) index}));
+        return new Record(data, labels);
+    }
+
+    public static final class Builder extends BaseBuilder<Builder> {
+
+        long size = 10;
+        BiFunction<NDManager, Long, Record> records = MockDataset::defaultRecord;
+
+        /** {@inheritDoc} */
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        public Builder optSize(long size) {
+            this.size = size;
+            return this;
+        }
+
+        public Builder optRecords(BiFunction<NDManager, Long, Record> records) {
+            this.records = records;
+            return this;
+        }
+
+        public MockDataset build() {
+            return new MockDataset(this);
+        }
+    }
+}
@@ -95,6 +95,13 @@ public class MockModel implements Model {
         return new BasePredictor<>(this, translator, !first.getAndSet(false));
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public <I, O> Predictor<I, O> newPredictor(Translator<I, O> translator, boolean copy) {
+        first.set(false);
+        return new BasePredictor<>(this, translator, copy);
+    }
+
     /** {@inheritDoc} */
     @Override
     public PairList<String, Shape> describeInput() {
@@ -137,6 +144,12 @@ public class MockModel implements Model {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void invalidateArtifact(String name) {
+        artifacts.remove(name);
+    }
+
     /** {@inheritDoc} */
     @Override
     public URL getArtifact(String name) {
@@ -42,6 +42,7 @@ public class MockNDArray implements NDArray {
     private Shape shape;
     private NDManager manager;
     private ByteBuffer data;
+    private boolean released;
 
     public MockNDArray() {}
 
@@ -65,6 +66,12 @@ public class MockNDArray implements NDArray {
         return manager;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void attach(NDManager manager) {
+        this.manager = manager;
+    }
+
     /** {@inheritDoc} */
     @Override
     public String getName() {
@@ -183,7 +190,17 @@ public class MockNDArray implements NDArray {
 
     /** {@inheritDoc} */
     @Override
-    public void set(NDIndex index, NDArray value) {}
+    public void set(NDIndex index, NDArray value) {
+        // only a single leading index is supported
+        int idx = (int) ((NDIndexFixed) index.get(0)).getIndex();
+        int size = (int) shape.slice(1).size() * dataType.getNumOfBytes();
+        if (data == null) {
+            data = ByteBuffer.allocate(size * (int) shape.get(0));
+        }
+        ByteBuffer target = data.duplicate();
+        target.position(idx * size);
+        target.put(value.toByteBuffer());
+    }
 
     /** {@inheritDoc} */
     @Override
@@ -200,11 +217,14 @@ public class MockNDArray implements NDArray {
         int idx = (int) ie.getIndex();
 
         Shape subShape = shape.slice(1);
+        MockNDArray array = new MockNDArray(manager, device, subShape, dataType, sparseFormat);
+        if (data == null) {
+            return array;
+        }
         int size = (int) subShape.size() * dataType.getNumOfBytes();
         int start = idx * size;
         data.position(start);
         Buffer buf = data.slice().limit(size);
-        MockNDArray array = new MockNDArray(manager, device, subShape, dataType, sparseFormat);
         array.set(buf);
         return array;
     }
@@ -1044,5 +1064,13 @@ public class MockNDArray implements NDArray {
 
     /** {@inheritDoc} */
     @Override
-    public void close() {}
+    public boolean isReleased() {
+        return released;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        released = true;
+    }
 }
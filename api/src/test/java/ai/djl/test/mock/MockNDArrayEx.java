@@ -397,7 +397,8 @@ public class MockNDArrayEx implements NDArrayEx {
     @Override
     public NDArray stack(NDList arrays, int axis) {
         Shape newShape = new Shape(arrays.size() + 1).addAll(array.getShape());
-        return new MockNDArray(null, null, newShape, null, null);
+        return new MockNDArray(
+                array.getManager(), null, newShape, array.getDataType(), null);
     }
 
     /** {@inheritDoc} */
@@ -21,13 +21,14 @@ import ai.djl.ndarray.types.Shape;
 import ai.djl.util.PairList;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 public class MockNDManager implements NDManager {
 
     /** {@inheritDoc} */
     @Override
     public ByteBuffer allocateDirect(int capacity) {
-        return ByteBuffer.allocateDirect(capacity);
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
     }
 
     /** {@inheritDoc} */
@@ -53,7 +54,7 @@ public class MockNDManager implements NDManager {
     /** {@inheritDoc} */
     @Override
     public NDArray zeros(Shape shape, DataType dataType, Device device) {
-        return null;
+        return create(shape, dataType, device);
     }
 
     /** {@inheritDoc} */
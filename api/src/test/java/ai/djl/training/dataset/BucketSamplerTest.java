@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.test.mock.MockDataset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BucketSamplerTest {
+
+    @Test
+    public void testSample() {
+        // lengths cycle through 0 to 9
+        LongUnaryOperator length = i -> (i * 7) % 10;
+        RandomAccessDataset dataset =
+                new MockDataset.Builder().setSampling(1, false).optSize(100).build();
+
+        BucketSampler sampler = new BucketSampler(length, 10, false, 5, null);
+        Iterator<List<Long>> it = sampler.sample(dataset);
+        List<Long> all = new ArrayList<>();
+        while (it.hasNext()) {
+            List<Long> batch = it.next();
+            Assert.assertEquals(batch.size(), 10);
+            // each window of 50 records holds 5 records of each length
+            long min = batch.stream().mapToLong(length::applyAsLong).min().getAsLong();
+            long max = batch.stream().mapToLong(length::applyAsLong).max().getAsLong();
+            Assert.assertEquals(max - min, 1L);
+            all.addAll(batch);
+        }
+        Assert.assertEquals(all.size(), 100);
+        Assert.assertEquals(all.stream().distinct().count(), 100L);
+
+        // random sampling covers all the records, in the same order for the same seed
+        List<Long> first = sampleAll(new BucketSampler(length, 10, true, 5, 42), dataset);
+        List<Long> second = sampleAll(new BucketSampler(length, 10, true, 5, 42), dataset);
+        Assert.assertEquals(first.stream().distinct().count(), 100L);
+        Assert.assertEquals(first, second);
+    }
+
+    private static List<Long> sampleAll(Sampler sampler, RandomAccessDataset dataset) {
+        List<Long> all = new ArrayList<>();
+        sampler.sample(dataset).forEachRemaining(all::addAll);
+        return all;
+    }
+}
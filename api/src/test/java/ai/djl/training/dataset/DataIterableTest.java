@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.test.mock.MockDataset;
+import ai.djl.test.mock.MockNDManager;
+import ai.djl.translate.BatchTransform;
+import ai.djl.translate.PaddingStackBatchifier;
+import ai.djl.translate.Pipeline;
+import ai.djl.translate.Transform;
+import ai.djl.util.Pair;
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DataIterableTest {
+
+    @Test
+    public void testBatchTransforms() {
+        CountingTransform record = new CountingTransform();
+        CountingBatchTransform normalize = new CountingBatchTransform();
+        CountingBatchTransform extra = new CountingBatchTransform();
+        Pipeline pipeline = new Pipeline(record, normalize);
+        MockDataset dataset =
+                new MockDataset.Builder()
+                        .optRecords(DataIterableTest::record)
+                        .setSampling(2, false)
+                        .optPipeline(pipeline)
+                        .optBatchPipeline(new Pipeline(extra))
+                        .build();
+
+        NDManager manager = new MockNDManager();
+        int count = 0;
+        for (Batch batch : dataset.getData(manager)) {
+            batch.close();
+            ++count;
+        }
+        Assert.assertEquals(count, 5);
+        // the transform that is not batch-safe still runs on each record
+        Assert.assertEquals(record.shapes.size(), 10);
+        Assert.assertEquals(record.shapes.get(0), new Shape(4));
+        // the trailing batch-safe transform moves after stacking, before the batch pipeline
+        Assert.assertEquals(normalize.shapes.size(), 5);
+        Assert.assertEquals(normalize.shapes.get(0).dimension(), 2);
+        Assert.assertEquals(extra.shapes.size(), 5);
+    }
+
+    @Test
+    public void testPaddingBatchifier() {
+        MockDataset dataset =
+                new MockDataset.Builder()
+                        .optRecords(
+                                (manager, index) -> {
+                                    float[] values = new float[(int) (index % 3) + 1];
+                                    NDList data = new NDList(manager.create(values));
+                                    NDList labels = new NDList(manager.create(values));
+                                    return new Record(data, labels);
+                                })
+                        .setSampling(3, false)
+                        .optBatchier(new PaddingStackBatchifier.Builder().build())
+                        .build();
+
+        NDManager manager = new MockNDManager();
+        for (Batch batch : dataset.getData(manager)) {
+            // only the data carries the valid length
+            Assert.assertEquals(batch.getData().size(), 2);
+            Assert.assertEquals(batch.getData().get(1).getName(), "valid_length");
+            Assert.assertEquals(batch.getLabels().size(), 1);
+            batch.close();
+        }
+    }
+
+    @Test
+    public void testSplitBatchTransforms() {
+        CountingBatchTransform first = new CountingBatchTransform();
+        CountingTransform second = new CountingTransform();
+        CountingBatchTransform third = new CountingBatchTransform();
+        Pair<Pipeline, Pipeline> split =
+                new Pipeline(first, second, third).splitBatchTransforms();
+
+        NDManager manager = new MockNDManager();
+        NDList input = new NDList(manager.create(new Shape(4), DataType.FLOAT32));
+        split.getKey().transform(input);
+        // a batch-safe transform before a record transform is not moved
+        Assert.assertEquals(first.shapes.size(), 1);
+        Assert.assertEquals(second.shapes.size(), 1);
+        Assert.assertEquals(third.shapes.size(), 0);
+        split.getValue().transform(input);
+        Assert.assertEquals(third.shapes.size(), 1);
+    }
+
+    private static Record record(NDManager manager, long index) {
+        NDList data = new NDList(manager.create(new Shape(4), DataType.FLOAT32));
+        NDList labels = new NDList(manager.create(new Shape(1), DataType.FLOAT32));
+        return new Record(data, labels);
+    }
+
+    private static class CountingTransform implements Transform {
+
+        List<Shape> shapes = new ArrayList<>();
+
+        /** {@inheritDoc} */
+        @Override
+        public NDArray transform(NDArray array) {
+            shapes.add(array.getShape());
+            return array;
+        }
+    }
+
+    private static final class CountingBatchTransform extends CountingTransform
+            implements BatchTransform {}
+}
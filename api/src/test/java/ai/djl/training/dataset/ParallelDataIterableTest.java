@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.test.mock.MockDataset;
+import ai.djl.test.mock.MockNDManager;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ParallelDataIterableTest {
+
+    @Test
+    public void testParallelLoading() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // the mock stacks 2 records into 3 rows, so each batch takes 1212 to 1308 bytes
+            MockDataset dataset =
+                    new MockDataset.Builder()
+                            .optRecords(ParallelDataIterableTest::record)
+                            .setSampling(2, false)
+                            .optParallelLoading(executor, 2500)
+                            .build();
+            NDManager manager = new MockNDManager();
+            Iterable<Batch> iterable = dataset.getData(manager);
+            Assert.assertTrue(iterable instanceof ParallelDataIterable);
+
+            ParallelDataIterable loader = (ParallelDataIterable) iterable;
+            int count = 0;
+            for (Batch batch : loader) {
+                // batches come back in sampling order
+                Assert.assertEquals(batch.getLabels().head().getShape().get(1), count * 2L + 1);
+                // the budget is enforced with estimated batch sizes
+                Assert.assertTrue(loader.getBufferedBytes() <= 2500 + 200);
+                batch.close();
+                ++count;
+            }
+            Assert.assertEquals(count, 5);
+            Assert.assertEquals(loader.getBufferedBytes(), 0L);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testLoadingError() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            MockDataset dataset =
+                    new MockDataset.Builder()
+                            .optRecords(
+                                    (manager, index) -> {
+                                        if (index == 4) {
+                                            // an Error must fail the batch, not hang it
+                                            throw new AssertionError("decoding failed");
+                                        }
+                                        return record(manager, index);
+                                    })
+                            .setSampling(2, false)
+                            .optParallelLoading(executor, Long.MAX_VALUE)
+                            .build();
+            ParallelDataIterable loader =
+                    (ParallelDataIterable) dataset.getData(new MockNDManager());
+            Assert.assertTrue(loader.hasNext());
+            loader.next().close();
+            Assert.assertTrue(loader.hasNext());
+            loader.next().close();
+            Assert.assertTrue(loader.hasNext());
+            Assert.assertThrows(IllegalStateException.class, loader::next);
+            // the batches loaded ahead are released with the iterator
+            Assert.assertFalse(loader.hasNext());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectedSubmit() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        MockDataset dataset =
+                new MockDataset.Builder()
+                        .optRecords(ParallelDataIterableTest::record)
+                        .setSampling(2, false)
+                        .optParallelLoading(executor, Long.MAX_VALUE)
+                        .build();
+        ParallelDataIterable loader = (ParallelDataIterable) dataset.getData(new MockNDManager());
+        Assert.assertTrue(loader.hasNext());
+        // the rejected batch fails instead of blocking forever
+        Assert.assertThrows(IllegalStateException.class, loader::next);
+        Assert.assertFalse(loader.hasNext());
+    }
+
+    private static Record record(NDManager manager, long index) {
+        NDList data = new NDList(manager.create(new Shape(100), DataType.FLOAT32));
+        NDList labels = new NDList(manager.create(new Shape(index + 1), DataType.FLOAT32));
+        return new Record(data, labels);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.metric.Metrics;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.test.mock.MockDataset;
+import ai.djl.test.mock.MockNDManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class RecordCacheTest {
+
+    @Test
+    public void testRecordCache() throws IOException {
+        Path spillFile = Paths.get("build/cache/records.spill");
+        Files.createDirectories(spillFile.getParent());
+        NDManager manager = new MockNDManager();
+        Metrics metrics = new Metrics();
+
+        // each record takes a little over 100 bytes, so only a few fit on the heap
+        try (RecordCache cache = new RecordCache(400, spillFile, 1024 * 1024)) {
+            cache.setMetrics(metrics);
+            MockDataset dataset =
+                    new MockDataset.Builder().setSampling(1, false).optCache(cache).build();
+
+            for (int epoch = 0; epoch < 3; ++epoch) {
+                for (long i = 0; i < dataset.size(); ++i) {
+                    Record record = fetch(dataset, manager, i);
+                    NDArray data = record.getData().head();
+                    Assert.assertEquals(data.getShape(), new Shape(2, 10));
+                    Assert.assertEquals(data.toFloatArray()[19], i * 20f + 19);
+                    NDArray label = record.getLabels().head();
+                    Assert.assertEquals(label.toIntArray(), new int[] {(int) i});
+                }
+            }
+
+            // only the first epoch loads from the dataset
+            Assert.assertEquals(dataset.getLoads(), 10);
+            Assert.assertEquals(cache.getMisses(), 10L);
+            Assert.assertEquals(cache.getHits(), 20L);
+            Assert.assertTrue(cache.getMemoryBytes() <= 400);
+            Assert.assertTrue(cache.getSpilledRecords() > 0);
+            Assert.assertEquals(metrics.histogram("RecordCacheMiss").getCount(), 10L);
+            Assert.assertEquals(metrics.histogram("RecordCacheHit").getCount(), 20L);
+            Assert.assertTrue(Files.exists(spillFile));
+        }
+        Assert.assertFalse(Files.exists(spillFile));
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        NDManager manager = new MockNDManager();
+        try (RecordCache cache = new RecordCache(400)) {
+            MockDataset dataset =
+                    new MockDataset.Builder().setSampling(1, false).optCache(cache).build();
+            for (int epoch = 0; epoch < 2; ++epoch) {
+                for (long i = 0; i < dataset.size(); ++i) {
+                    fetch(dataset, manager, i);
+                }
+            }
+            // a sequential scan larger than the cache always evicts the next record
+            Assert.assertEquals(cache.getHits(), 0L);
+            Assert.assertEquals(dataset.getLoads(), 20);
+            Assert.assertEquals(cache.getSpilledRecords(), 0);
+        }
+    }
+
+    // fetch is package-private in RandomAccessDataset, so it is not a member of MockDataset
+    private static Record fetch(RandomAccessDataset dataset, NDManager manager, long index)
+            throws IOException {
+        return dataset.fetch(manager, index);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.test.mock.MockDataset;
+import ai.djl.test.mock.MockNDManager;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ShardedDatasetTest {
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Path dir = Paths.get("build/shards");
+        NDManager manager = new MockNDManager();
+        MockDataset source = new MockDataset.Builder().setSampling(1, false).build();
+        try (ShardWriter writer = new ShardWriter(dir, "mock", 500)) {
+            writer.write(source, manager);
+            Assert.assertEquals(writer.getNumberOfRecords(), 10L);
+        }
+
+        for (boolean memoryMapped : new boolean[] {false, true}) {
+            try (ShardedDataset dataset =
+                    new ShardedDataset.Builder()
+                            .setShards(dir, "mock")
+                            .optMemoryMapped(memoryMapped)
+                            .setSampling(1, false)
+                            .build()) {
+                Assert.assertEquals(dataset.size(), 10L);
+                Assert.assertTrue(dataset.getNumberOfShards() > 1);
+
+                for (long i = 0; i < dataset.size(); ++i) {
+                    Record record = dataset.get(manager, i);
+                    NDArray data = record.getData().head();
+                    Assert.assertEquals(data.getShape(), new Shape(2, 10));
+                    Assert.assertEquals(data.toFloatArray()[19], i * 20f + 19);
+                    NDArray label = record.getLabels().head();
+                    Assert.assertEquals(label.toIntArray(), new int[] {(int) i});
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testShardSampler() throws IOException {
+        Path dir = Paths.get("build/shards");
+        NDManager manager = new MockNDManager();
+        MockDataset source = new MockDataset.Builder().setSampling(1, false).build();
+        try (ShardWriter writer = new ShardWriter(dir, "sampler", 500)) {
+            writer.write(source, manager);
+        }
+
+        try (ShardedDataset dataset =
+                new ShardedDataset.Builder()
+                        .setShards(dir, "sampler")
+                        .setSampling(1, false)
+                        .build()) {
+            Iterator<Long> it = new ShardSampler(1, true).sample(dataset);
+            Set<Long> seen = new HashSet<>();
+            int previousShard = -1;
+            Set<Integer> finishedShards = new HashSet<>();
+            while (it.hasNext()) {
+                long index = it.next();
+                Assert.assertTrue(seen.add(index));
+                int shard = dataset.getShard(index);
+                if (shard != previousShard) {
+                    // every shard is read in one go
+                    Assert.assertTrue(finishedShards.add(shard));
+                    previousShard = shard;
+                }
+            }
+            Assert.assertEquals(seen.size(), 10);
+            Assert.assertEquals(finishedShards.size(), dataset.getNumberOfShards());
+        }
+    }
+}
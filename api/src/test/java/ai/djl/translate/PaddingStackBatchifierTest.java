@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.translate;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.test.mock.MockNDManager;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PaddingStackBatchifierTest {
+
+    @Test
+    public void testBatchify() {
+        NDManager manager = new MockNDManager();
+        NDList[] inputs = {
+            new NDList(manager.create(new float[] {1, 2}), manager.create(new float[] {5})),
+            new NDList(manager.create(new float[] {3, 4, 5, 6}), manager.create(new float[] {6}))
+        };
+        inputs[0].head().setName("tokens");
+
+        PaddingStackBatchifier batchifier = new PaddingStackBatchifier.Builder().build();
+        NDList batch = batchifier.batchify(inputs);
+        Assert.assertEquals(batch.size(), 3);
+
+        NDArray tokens = batch.head();
+        Assert.assertEquals(tokens.getName(), "tokens");
+        Assert.assertEquals(tokens.getShape(), new Shape(2, 4));
+        Assert.assertEquals(tokens.toFloatArray(), new float[] {1, 2, 0, 0, 3, 4, 5, 6});
+        // inputs with the same shape are stacked without padding
+        Assert.assertEquals(batch.get(1).getShape(), new Shape(2, 1));
+
+        NDArray validLength = batch.get(2);
+        Assert.assertEquals(validLength.getName(), "valid_length");
+        Assert.assertEquals(validLength.toFloatArray(), new float[] {2, 4});
+
+        batchifier = new PaddingStackBatchifier.Builder().optIncludeValidLength(false).build();
+        Assert.assertEquals(batchifier.batchify(inputs).size(), 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMismatchedShape() {
+        NDManager manager = new MockNDManager();
+        NDList[] inputs = {
+            new NDList(manager.create(new float[] {1, 2}, new Shape(1, 2))),
+            new NDList(manager.create(new float[] {1, 2, 3}, new Shape(1, 3)))
+        };
+        new PaddingStackBatchifier.Builder().build().batchify(inputs);
+    }
+}
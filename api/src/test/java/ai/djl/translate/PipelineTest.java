@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.translate;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.test.mock.MockNDManager;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PipelineTest {
+
+    @Test
+    public void testTransform() {
+        NDManager manager = new MockNDManager();
+        Pipeline pipeline = new Pipeline(new AddTransform(1)).add("label", new AddTransform(10));
+
+        NDList input = newInput(manager, "data", "label");
+        NDList output = pipeline.transform(input);
+        Assert.assertEquals(output.get(0).toFloatArray()[0], 1f);
+        Assert.assertEquals(output.get(1).toFloatArray()[0], 20f);
+        Assert.assertEquals(output.get(1).getName(), "label");
+
+        // another signature resolves the name to another position
+        output = pipeline.transform(newInput(manager, "label", "data"));
+        Assert.assertEquals(output.get(0).toFloatArray()[0], 21f);
+        Assert.assertEquals(output.get(1).toFloatArray()[0], 0f);
+
+        // modifying the pipeline drops the resolved plan
+        pipeline.add(1, new AddTransform(100));
+        output = pipeline.transform(input);
+        Assert.assertEquals(output.get(1).toFloatArray()[0], 120f);
+    }
+
+    @Test
+    public void testBatch() {
+        NDManager manager = new MockNDManager();
+        Pipeline pipeline = new Pipeline().add("label", new AddTransform(2));
+        NDList[] inputs = {
+            newInput(manager, "data", "label"),
+            newInput(manager, "data", "label"),
+            newInput(manager, "label", "data")
+        };
+        NDList[] outputs = pipeline.transform(inputs);
+        Assert.assertEquals(outputs.length, 3);
+        Assert.assertEquals(outputs[0].get(1).toFloatArray()[0], 12f);
+        Assert.assertEquals(outputs[1].get(1).toFloatArray()[0], 12f);
+        Assert.assertEquals(outputs[2].get(0).toFloatArray()[0], 12f);
+        // the inputs are not modified
+        Assert.assertEquals(inputs[0].get(1).toFloatArray()[0], 10f);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMissingName() {
+        NDManager manager = new MockNDManager();
+        new Pipeline().add("other", new AddTransform(1)).transform(newInput(manager, "data"));
+    }
+
+    private static NDList newInput(NDManager manager, String... names) {
+        NDList list = new NDList(names.length);
+        for (String name : names) {
+            NDArray array = manager.create(new float[] {"label".equals(name) ? 10f : 0f});
+            array.setName(name);
+            list.add(array);
+        }
+        return list;
+    }
+
+    private static final class AddTransform implements Transform {
+
+        private float value;
+
+        AddTransform(float value) {
+            this.value = value;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public NDArray transform(NDArray array) {
+            return array.getManager().create(new float[] {array.toFloatArray()[0] + value});
+        }
+    }
+}
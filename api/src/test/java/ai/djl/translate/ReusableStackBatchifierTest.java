@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.translate;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.test.mock.MockNDManager;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ReusableStackBatchifierTest {
+
+    @Test
+    public void testBatchify() {
+        NDManager manager = new MockNDManager();
+        try (ReusableStackBatchifier batchifier = new ReusableStackBatchifier(manager, 2)) {
+            NDList first = batchifier.batchify(newRecords(manager, 3, 0));
+            NDArray data = first.head();
+            Assert.assertEquals(data.getShape(), new Shape(3, 2));
+            Assert.assertEquals(data.getName(), "data");
+            Assert.assertEquals(data.toFloatArray(), new float[] {0, 1, 10, 11, 20, 21});
+
+            NDList second = batchifier.batchify(newRecords(manager, 3, 100));
+            Assert.assertNotSame(second.head(), data);
+
+            // the ring wraps around and reuses the first output array
+            NDList third = batchifier.batchify(newRecords(manager, 3, 200));
+            Assert.assertSame(third.head(), data);
+            Assert.assertEquals(data.toFloatArray()[0], 200f);
+            Assert.assertEquals(batchifier.getNumberOfBuffers(), 2);
+
+            // another batch size gets its own ring
+            NDList last = batchifier.batchify(newRecords(manager, 1, 0));
+            Assert.assertEquals(last.head().getShape(), new Shape(1, 2));
+            Assert.assertEquals(batchifier.getNumberOfBuffers(), 3);
+
+            NDList[] unbatched = batchifier.unbatchify(third);
+            Assert.assertEquals(unbatched.length, 3);
+            Assert.assertEquals(unbatched[1].head().getShape(), new Shape(2));
+            Assert.assertEquals(unbatched[1].head().toFloatArray(), new float[] {210, 211});
+            Assert.assertEquals(unbatched[1].head().getName(), "data");
+        }
+    }
+
+    @Test
+    public void testLabelsAndClosedBuffers() {
+        NDManager manager = new MockNDManager();
+        try (ReusableStackBatchifier batchifier = new ReusableStackBatchifier(manager, 1)) {
+            Batchifier labelBatchifier = batchifier.getLabelBatchifier();
+            NDArray data = batchifier.batchify(newRecords(manager, 2, 0)).head();
+            NDArray labels = labelBatchifier.batchify(newRecords(manager, 2, 100)).head();
+            Assert.assertNotSame(labels, data);
+            Assert.assertEquals(data.toFloatArray(), new float[] {0, 1, 10, 11});
+            Assert.assertSame(labelBatchifier.batchify(newRecords(manager, 2, 0)).head(), labels);
+            Assert.assertEquals(batchifier.getNumberOfBuffers(), 2);
+
+            // a closed output array is replaced instead of being reused
+            data.close();
+            NDArray next = batchifier.batchify(newRecords(manager, 2, 0)).head();
+            Assert.assertNotSame(next, data);
+            Assert.assertFalse(next.isReleased());
+            Assert.assertEquals(batchifier.getNumberOfBuffers(), 2);
+        }
+    }
+
+    @Test
+    public void testBuffersInUse() {
+        NDManager manager = new MockNDManager();
+        try (ReusableStackBatchifier batchifier = new ReusableStackBatchifier(manager, 1)) {
+            NDList batch = batchifier.batchify(newRecords(manager, 2, 0));
+            NDArray data = batch.head();
+
+            // a live batch keeps its output array, the slot gets a new one
+            data.attach(new MockNDManager());
+            NDArray next = batchifier.batchify(newRecords(manager, 2, 100)).head();
+            Assert.assertNotSame(next, data);
+            Assert.assertEquals(data.toFloatArray(), new float[] {0, 1, 10, 11});
+            Assert.assertEquals(batchifier.getNumberOfBuffers(), 1);
+
+            // the old array is no longer taken back
+            batchifier.release(batch);
+            Assert.assertNotSame(data.getManager(), manager);
+
+            // an array handed back is reused
+            Assert.assertSame(batchifier.batchify(newRecords(manager, 2, 0)).head(), next);
+        }
+    }
+
+    private static NDList[] newRecords(NDManager manager, int size, int offset) {
+        NDList[] records = new NDList[size];
+        for (int i = 0; i < size; ++i) {
+            float value = offset + i * 10;
+            NDArray array = manager.create(new float[] {value, value + 1});
+            array.setName("data");
+            records[i] = new NDList(array);
+        }
+        return records;
+    }
+}
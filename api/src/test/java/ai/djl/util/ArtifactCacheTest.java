@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.util;
+
+import ai.djl.test.mock.MockModel;
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ArtifactCacheTest {
+
+    @Test
+    public void testArtifactCache() throws IOException {
+        CountingModel model = new CountingModel();
+        ArtifactCache cache = new ArtifactCache(model);
+
+        for (int i = 0; i < 3; ++i) {
+            List<String> synset = cache.get("synset.txt", Utils::readLines);
+            Assert.assertEquals(synset, Arrays.asList("cat", "dog"));
+        }
+        Assert.assertEquals(model.opens.get(), 1);
+
+        // another function parses the same artifact into another type
+        Function<InputStream, Integer> count = is -> Utils.readLines(is).size();
+        Assert.assertEquals(cache.get("synset.txt", count).intValue(), 2);
+        Assert.assertEquals(cache.get("synset.txt", count).intValue(), 2);
+        Assert.assertEquals(model.opens.get(), 2);
+        Assert.assertEquals(cache.size(), 2);
+
+        // a capturing lambda created for every call is still a single entry
+        for (int i = 0; i < 3; ++i) {
+            int offset = i;
+            Assert.assertEquals(cache.get("synset.txt", is -> offset).intValue(), 0);
+        }
+        Assert.assertEquals(model.opens.get(), 3);
+        Assert.assertEquals(cache.size(), 3);
+
+        cache.invalidate("synset.txt");
+        Assert.assertEquals(cache.size(), 0);
+        cache.get("synset.txt", Utils::readLines);
+        Assert.assertEquals(model.opens.get(), 4);
+
+        cache.clear();
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test(expectedExceptions = FileNotFoundException.class)
+    public void testMissingArtifact() throws IOException {
+        new ArtifactCache(new CountingModel()).get("missing.txt", Utils::readLines);
+    }
+
+    private static final class CountingModel extends MockModel {
+
+        AtomicInteger opens = new AtomicInteger();
+
+        /** {@inheritDoc} */
+        @Override
+        public InputStream getArtifactAsStream(String name) throws IOException {
+            if (!"synset.txt".equals(name)) {
+                throw new FileNotFoundException(name);
+            }
+            opens.incrementAndGet();
+            return new ByteArrayInputStream("cat\ndog\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -14,6 +14,7 @@ package ai.djl.basicdataset;
 
 import ai.djl.modality.cv.transform.ToTensor;
 import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
@@ -22,16 +23,25 @@ import ai.djl.repository.MRL;
 import ai.djl.repository.Repository;
 import ai.djl.repository.dataset.ZooDataset;
 import ai.djl.training.dataset.ArrayDataset;
+import ai.djl.training.dataset.Record;
 import ai.djl.translate.Pipeline;
 import ai.djl.util.Utils;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
 
 /**
  * CIFAR10 image classification dataset from https://www.cs.toronto.edu/~kriz/cifar.html.
  *
  * <p>Each sample is an image (in 3-D {@link NDArray}) with shape (32, 32, 3).
+ *
+ * <p>By default the whole dataset is loaded into a single {@link NDArray}. With {@link
+ * Builder#optMemoryMapped(boolean)}, the cached binary file is memory-mapped instead and each
+ * record is copied from the mapped file and converted to float when it is accessed.
  */
 public final class Cifar10 extends ArrayDataset implements ZooDataset {
 
@@ -44,6 +54,8 @@ public final class Cifar10 extends ArrayDataset implements ZooDataset {
     private Artifact artifact;
     private Usage usage;
     private boolean prepared;
+    private boolean memoryMapped;
+    private ByteBuffer mappedData;
 
     Cifar10(Builder builder) {
         super(builder);
@@ -51,6 +63,7 @@ public final class Cifar10 extends ArrayDataset implements ZooDataset {
         this.repository = builder.repository;
         this.artifact = builder.artifact;
         this.usage = builder.usage;
+        this.memoryMapped = builder.memoryMapped;
     }
 
     /**
@@ -121,6 +134,13 @@ public final class Cifar10 extends ArrayDataset implements ZooDataset {
             default:
                 throw new UnsupportedOperationException("Validation data not available.");
         }
+        if (memoryMapped) {
+            mappedData = map(repository.getFile(item, null));
+            if (mappedData.capacity() % DATA_AND_LABEL_SIZE != 0) {
+                throw new IOException("Invalid CIFAR10 file size: " + mappedData.capacity());
+            }
+            return;
+        }
         NDArray dataAndLabels = readData(item);
         data =
                 new NDArray[] {
@@ -137,6 +157,42 @@ public final class Cifar10 extends ArrayDataset implements ZooDataset {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public long size() {
+        if (mappedData != null) {
+            return mappedData.capacity() / DATA_AND_LABEL_SIZE;
+        }
+        return super.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Record get(NDManager manager, long index) {
+        if (mappedData == null) {
+            return super.get(manager, index);
+        }
+        int offset = Math.toIntExact(index) * DATA_AND_LABEL_SIZE;
+        int label = mappedData.get(offset) & 0xFF;
+        ByteBuffer image = mappedData.duplicate();
+        image.position(offset + 1);
+        image.limit(offset + DATA_AND_LABEL_SIZE);
+        NDArray datum;
+        try (NDArray array =
+                        manager.create(image.slice(), new Shape(3, 32, 32), DataType.UINT8);
+                NDArray hwc = array.transpose(1, 2, 0)) {
+            datum = hwc.asType(DataType.FLOAT32, true);
+        }
+        return new Record(new NDList(datum), new NDList(manager.create((float) label)));
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
     private NDArray readData(Artifact.Item item) throws IOException {
         try (InputStream is = repository.openStream(item, null)) {
             byte[] buf = Utils.toByteArray(is);
@@ -156,6 +212,7 @@ public final class Cifar10 extends ArrayDataset implements ZooDataset {
         private Repository repository;
         private Artifact artifact;
         private Usage usage;
+        private boolean memoryMapped;
 
         /** Constructs a new builder. */
         public Builder() {
@@ -214,6 +271,17 @@ public final class Cifar10 extends ArrayDataset implements ZooDataset {
             return this;
         }
 
+        /**
+         * Sets whether to memory-map the cached dataset file instead of loading it into memory.
+         *
+         * @param memoryMapped {@code true} to memory-map the dataset file
+         * @return this builder
+         */
+        public Builder optMemoryMapped(boolean memoryMapped) {
+            this.memoryMapped = memoryMapped;
+            return this;
+        }
+
         /**
          * Builds a new {@link Cifar10}.
          *
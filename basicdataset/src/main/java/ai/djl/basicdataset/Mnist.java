@@ -14,6 +14,7 @@ package ai.djl.basicdataset;
 
 import ai.djl.modality.cv.transform.ToTensor;
 import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
@@ -22,26 +23,44 @@ import ai.djl.repository.MRL;
 import ai.djl.repository.Repository;
 import ai.djl.repository.dataset.ZooDataset;
 import ai.djl.training.dataset.ArrayDataset;
+import ai.djl.training.dataset.Record;
 import ai.djl.translate.Pipeline;
 import ai.djl.util.Utils;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
 
 /**
  * MNIST handwritten digits dataset from http://yann.lecun.com/exdb/mnist.
  *
  * <p>Each sample is an image (in 3-D NDArray) with shape (28, 28, 1).
+ *
+ * <p>By default the whole dataset is loaded into a single {@link NDArray}. With {@link
+ * Builder#optMemoryMapped(boolean)}, the cached IDX files are memory-mapped instead and each record
+ * is copied from the mapped file and converted to float when it is accessed, so memory usage and
+ * startup time do not grow with the size of the dataset and processes on the same host share the
+ * page cache.
  */
 public final class Mnist extends ArrayDataset implements ZooDataset {
 
     private static final String ARTIFACT_ID = "mnist";
+    private static final int IMAGE_SIZE = 28 * 28;
+    private static final int DATA_OFFSET = 16;
+    private static final int LABEL_OFFSET = 8;
 
     private NDManager manager;
     private Repository repository;
     private Artifact artifact;
     private Usage usage;
     private boolean prepared;
+    private boolean memoryMapped;
+    private ByteBuffer mappedData;
+    private ByteBuffer mappedLabels;
+    private long mappedSize;
 
     private Mnist(Builder builder) {
         super(builder);
@@ -49,6 +68,7 @@ public final class Mnist extends ArrayDataset implements ZooDataset {
         this.repository = builder.repository;
         this.artifact = builder.artifact;
         this.usage = builder.usage;
+        this.memoryMapped = builder.memoryMapped;
     }
 
     /**
@@ -122,13 +142,57 @@ public final class Mnist extends ArrayDataset implements ZooDataset {
             default:
                 throw new UnsupportedOperationException("Validation data not available.");
         }
+        if (memoryMapped) {
+            mappedLabels = map(repository.getFile(labelItem, null));
+            mappedData = map(repository.getFile(imageItem, null));
+            mappedSize = mappedLabels.capacity() - LABEL_OFFSET;
+            if (mappedData.capacity() - DATA_OFFSET != mappedSize * IMAGE_SIZE) {
+                throw new IOException("The size of data didn't match with the size of labels");
+            }
+            return;
+        }
         labels = new NDArray[] {readLabel(labelItem)};
         data = new NDArray[] {readData(imageItem, labels[0].size())};
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public long size() {
+        if (mappedData != null) {
+            return mappedSize;
+        }
+        return super.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Record get(NDManager manager, long index) {
+        if (mappedData == null) {
+            return super.get(manager, index);
+        }
+        ByteBuffer image = mappedData.duplicate();
+        int offset = DATA_OFFSET + Math.toIntExact(index) * IMAGE_SIZE;
+        image.position(offset);
+        image.limit(offset + IMAGE_SIZE);
+        NDArray datum;
+        try (NDArray array =
+                manager.create(image.slice(), new Shape(28, 28, 1), DataType.UINT8)) {
+            datum = array.asType(DataType.FLOAT32, true);
+        }
+        int label = mappedLabels.get(LABEL_OFFSET + Math.toIntExact(index)) & 0xFF;
+        return new Record(new NDList(datum), new NDList(manager.create((float) label)));
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
     private NDArray readData(Artifact.Item item, long length) throws IOException {
         try (InputStream is = repository.openStream(item, null)) {
-            if (is.skip(16) != 16) {
+            if (is.skip(DATA_OFFSET) != DATA_OFFSET) {
                 throw new AssertionError("Failed skip data.");
             }
 
@@ -142,7 +206,7 @@ public final class Mnist extends ArrayDataset implements ZooDataset {
 
     private NDArray readLabel(Artifact.Item item) throws IOException {
         try (InputStream is = repository.openStream(item, null)) {
-            if (is.skip(8) != 8) {
+            if (is.skip(LABEL_OFFSET) != LABEL_OFFSET) {
                 throw new AssertionError("Failed skip data.");
             }
 
@@ -161,6 +225,7 @@ public final class Mnist extends ArrayDataset implements ZooDataset {
         private Repository repository;
         private Artifact artifact;
         private Usage usage;
+        private boolean memoryMapped;
 
         /** Constructs a new builder. */
         public Builder() {
@@ -219,6 +284,17 @@ public final class Mnist extends ArrayDataset implements ZooDataset {
             return this;
         }
 
+        /**
+         * Sets whether to memory-map the cached dataset files instead of loading them into memory.
+         *
+         * @param memoryMapped {@code true} to memory-map the dataset files
+         * @return this builder
+         */
+        public Builder optMemoryMapped(boolean memoryMapped) {
+            this.memoryMapped = memoryMapped;
+            return this;
+        }
+
         /**
          * Builds the {@link Mnist}.
          *
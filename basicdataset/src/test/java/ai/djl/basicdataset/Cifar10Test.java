@@ -56,6 +56,35 @@ public class Cifar10Test {
         }
     }
 
+    @Test
+    public void testCifar10MemoryMapped() throws IOException {
+        TrainingConfig config =
+                new DefaultTrainingConfig(Initializer.ONES, Loss.softmaxCrossEntropyLoss());
+
+        try (Model model = Model.newInstance()) {
+            model.setBlock(Blocks.identityBlock());
+
+            Repository repository = Repository.newInstance("test", "src/test/resources/mlrepo");
+            Cifar10 cifar10 =
+                    new Cifar10.Builder()
+                            .setManager(model.getNDManager())
+                            .optUsage(Usage.TEST)
+                            .optRepository(repository)
+                            .optMemoryMapped(true)
+                            .setSampling(32, true)
+                            .build();
+
+            cifar10.prepare();
+            try (Trainer trainer = model.newTrainer(config)) {
+                for (Batch batch : trainer.iterateDataset(cifar10)) {
+                    Assert.assertEquals(batch.getData().size(), 1);
+                    Assert.assertEquals(batch.getLabels().size(), 1);
+                    batch.close();
+                }
+            }
+        }
+    }
+
     @Test
     public void testCifar10Remote() throws IOException {
         TrainingConfig config =
@@ -58,6 +58,36 @@ public class MnistTest {
         }
     }
 
+    @Test
+    public void testMnistMemoryMapped() throws IOException {
+        TrainingConfig config =
+                new DefaultTrainingConfig(Initializer.ONES, Loss.softmaxCrossEntropyLoss());
+
+        try (Model model = Model.newInstance()) {
+            model.setBlock(Blocks.identityBlock());
+
+            NDManager manager = model.getNDManager();
+            Repository repository = Repository.newInstance("test", "src/test/resources/mlrepo");
+            Mnist mnist =
+                    new Mnist.Builder()
+                            .setManager(manager)
+                            .optUsage(Dataset.Usage.TEST)
+                            .optRepository(repository)
+                            .optMemoryMapped(true)
+                            .setSampling(32, true)
+                            .build();
+
+            mnist.prepare();
+            try (Trainer trainer = model.newTrainer(config)) {
+                for (Batch batch : trainer.iterateDataset(mnist)) {
+                    Assert.assertEquals(batch.getData().size(), 1);
+                    Assert.assertEquals(batch.getLabels().size(), 1);
+                    batch.close();
+                }
+            }
+        }
+    }
+
     @Test
     public void testMnistRemote() throws IOException {
         TrainingConfig config =
@@ -16,7 +16,7 @@ import ai.djl.ModelException;
 import ai.djl.examples.inference.util.AbstractBenchmark;
 import ai.djl.examples.inference.util.Arguments;
 import ai.djl.examples.util.MemoryUtils;
-import ai.djl.inference.Predictor;
+import ai.djl.inference.PredictorPool;
 import ai.djl.metric.Metrics;
 import ai.djl.modality.Classifications;
 import ai.djl.modality.cv.util.BufferedImageUtils;
@@ -59,9 +59,12 @@ public class MultithreadedBenchmark extends AbstractBenchmark<Classifications> {
         logger.info("Multithreaded inference with {} threads.", numOfThreads);
 
         metrics.addMetric("thread", numOfThreads);
+        PredictorPool<BufferedImage, Classifications> pool =
+                new PredictorPool<>(model, model.getTranslator(), numOfThreads);
+        pool.setMetrics(metrics);
         List<PredictorCallable> callables = new ArrayList<>(numOfThreads);
         for (int i = 0; i < numOfThreads; ++i) {
-            callables.add(new PredictorCallable(model, img, metrics, iteration, i, i == 0));
+            callables.add(new PredictorCallable(pool, img, metrics, iteration, i, i == 0));
         }
 
         Classifications classification = null;
@@ -81,6 +84,7 @@ public class MultithreadedBenchmark extends AbstractBenchmark<Classifications> {
             logger.error("", e);
         } finally {
             executorService.shutdown();
+            pool.close();
         }
         if (successThreads != numOfThreads) {
             logger.error("Only {}/{} threads finished.", successThreads, numOfThreads);
@@ -91,7 +95,7 @@ public class MultithreadedBenchmark extends AbstractBenchmark<Classifications> {
 
     private static class PredictorCallable implements Callable<Classifications> {
 
-        private Predictor<BufferedImage, Classifications> predictor;
+        private PredictorPool<BufferedImage, Classifications> pool;
         private BufferedImage img;
         private Metrics metrics;
         private int iteration;
@@ -99,19 +103,18 @@ public class MultithreadedBenchmark extends AbstractBenchmark<Classifications> {
         private boolean collectMemory;
 
         public PredictorCallable(
-                ZooModel<BufferedImage, Classifications> model,
+                PredictorPool<BufferedImage, Classifications> pool,
                 BufferedImage img,
                 Metrics metrics,
                 int iteration,
                 int workerId,
                 boolean collectMemory) {
-            this.predictor = model.newPredictor();
+            this.pool = pool;
             this.img = img;
             this.metrics = metrics;
             this.iteration = iteration;
             this.workerId = String.format("%02d", workerId);
             this.collectMemory = collectMemory;
-            predictor.setMetrics(metrics);
         }
 
         /** {@inheritDoc} */
@@ -119,7 +122,7 @@ public class MultithreadedBenchmark extends AbstractBenchmark<Classifications> {
         public Classifications call() throws TranslateException {
             Classifications result = null;
             for (int i = 0; i < iteration; i++) {
-                result = predictor.predict(img);
+                result = pool.predict(img);
                 if (collectMemory) {
                     MemoryUtils.collectMemoryInfo(metrics);
                 }
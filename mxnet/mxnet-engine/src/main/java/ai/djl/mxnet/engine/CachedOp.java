@@ -66,7 +66,7 @@ public class CachedOp extends NativeResource {
             List<Parameter> parameters,
             List<Integer> paramIndices,
             PairList<String, Integer> dataIndices) {
-        super(handle);
+        super(handle, JnaUtils::freeCachedOp);
         this.parameters = parameters;
         this.dataIndices = dataIndices;
         this.paramIndices = paramIndices;
@@ -146,7 +146,7 @@ public class CachedOp extends NativeResource {
     /** {@inheritDoc} */
     @Override
     public void close() {
-        Pointer pointer = handle.getAndSet(null);
+        Pointer pointer = releaseHandle();
         if (pointer != null) {
             manager.detach(getUid());
             JnaUtils.freeCachedOp(pointer);
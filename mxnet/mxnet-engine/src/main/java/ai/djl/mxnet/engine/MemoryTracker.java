@@ -0,0 +1,269 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.engine;
+
+import ai.djl.Device;
+import ai.djl.ndarray.MemoryUsage;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code MemoryTracker} counts the native memory held by an {@link MxNDManager} and its
+ * sub-managers.
+ *
+ * <p>Each allocation is counted by the tracker of its manager and by all the ancestors, so the
+ * tracker of the system manager holds the total of the process. When the total reaches the
+ * {@code DJL_MEMORY_REPORT_THRESHOLD} system property or environment variable, in bytes, the
+ * allocation sites holding the most memory are logged once, until the total drops below it.
+ *
+ * <p>The size of an array whose shape is not known at creation is counted once the array reads
+ * its shape, so tracking does not add a native call for every array. The arrays of a scoped
+ * manager are only counted once they are moved to another manager.
+ */
+final class MemoryTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoryTracker.class);
+
+    private static final long REPORT_THRESHOLD = getReportThreshold();
+    private static final int REPORT_SITES = 10;
+    private static final Map<String, AtomicLong> SITES = new ConcurrentHashMap<>();
+
+    private MemoryTracker parent;
+    private long threshold;
+    private Map<Device, AtomicLong[]> usages = new ConcurrentHashMap<>();
+    private AtomicLong totalBytes = new AtomicLong();
+    private AtomicBoolean reported = new AtomicBoolean();
+    private AtomicInteger reports = new AtomicInteger();
+
+    MemoryTracker(MemoryTracker parent) {
+        this(parent, REPORT_THRESHOLD);
+    }
+
+    /**
+     * Constructs a {@code MemoryTracker} with a report threshold.
+     *
+     * @param parent the tracker of the parent manager, or {@code null} for the root tracker
+     * @param threshold the total in bytes above which the root tracker reports, or -1 to never
+     *     report; sub-trackers use the threshold of their parent
+     */
+    MemoryTracker(MemoryTracker parent, long threshold) {
+        this.parent = parent;
+        this.threshold = parent == null ? threshold : parent.threshold;
+    }
+
+    /**
+     * Counts a new native resource.
+     *
+     * @param device the device of the resource
+     * @param bytes the size of the resource in bytes
+     * @return the {@link Allocation} to run once the resource is released
+     */
+    Allocation allocate(Device device, long bytes) {
+        String site = null;
+        if (threshold >= 0) {
+            site = getAllocationSite();
+            SITES.computeIfAbsent(site, k -> new AtomicLong()).addAndGet(bytes);
+        }
+        add(device, bytes, 1, null);
+        return new Allocation(this, device, bytes, site);
+    }
+
+    /**
+     * Returns a snapshot of the memory counted by this tracker.
+     *
+     * @return a snapshot of the memory counted by this tracker
+     */
+    MemoryUsage getMemoryUsage() {
+        Map<Device, long[]> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<Device, AtomicLong[]> entry : usages.entrySet()) {
+            AtomicLong[] usage = entry.getValue();
+            long bytes = usage[0].get();
+            long handles = usage[1].get();
+            if (bytes != 0 || handles != 0) {
+                snapshot.put(entry.getKey(), new long[] {bytes, handles});
+            }
+        }
+        return new MemoryUsage(snapshot);
+    }
+
+    /**
+     * Returns the number of times the allocation sites have been reported.
+     *
+     * @return the number of times the allocation sites have been reported
+     */
+    int getReportCount() {
+        return reports.get();
+    }
+
+    // updates this tracker and its ancestors up to, but excluding, the given one
+    private void add(Device device, long bytes, long handles, MemoryTracker stop) {
+        MemoryTracker tracker = this;
+        while (tracker != stop) {
+            AtomicLong[] usage =
+                    tracker.usages.computeIfAbsent(
+                            device, k -> new AtomicLong[] {new AtomicLong(), new AtomicLong()});
+            usage[0].addAndGet(bytes);
+            usage[1].addAndGet(handles);
+            if (tracker.parent == null) {
+                tracker.checkThreshold(bytes);
+            }
+            tracker = tracker.parent;
+        }
+    }
+
+    private void checkThreshold(long bytes) {
+        if (threshold < 0) {
+            return;
+        }
+        // a running total of all devices, the check runs on every allocation and release
+        long total = totalBytes.addAndGet(bytes);
+        if (total < threshold) {
+            reported.set(false);
+        } else if (bytes > 0 && reported.compareAndSet(false, true)) {
+            reports.incrementAndGet();
+            report(total);
+        }
+    }
+
+    private static void report(long total) {
+        List<Map.Entry<String, Long>> sites =
+                SITES.entrySet()
+                        .stream()
+                        .map(e -> new AbstractMap.SimpleEntry<>(e.getKey(), e.getValue().get()))
+                        .filter(e -> e.getValue() > 0)
+                        .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
+                        .limit(REPORT_SITES)
+                        .collect(Collectors.toList());
+        StringBuilder sb = new StringBuilder(100);
+        sb.append("Native memory in use reached ")
+                .append(total)
+                .append(" bytes, the largest allocation sites are:");
+        for (Map.Entry<String, Long> site : sites) {
+            sb.append("\n\t").append(site.getValue()).append(" bytes at ").append(site.getKey());
+        }
+        logger.warn(sb.toString());
+    }
+
+    // the first frame outside of the engine is the code that created the array
+    private static String getAllocationSite() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            String className = element.getClassName();
+            if (!className.startsWith("ai.djl.mxnet.")
+                    && !className.startsWith("ai.djl.ndarray.")
+                    && !className.startsWith("java.")) {
+                return element.toString();
+            }
+        }
+        return "unknown";
+    }
+
+    private static long getReportThreshold() {
+        String threshold = System.getProperty("DJL_MEMORY_REPORT_THRESHOLD");
+        if (threshold == null || threshold.isEmpty()) {
+            threshold = System.getenv("DJL_MEMORY_REPORT_THRESHOLD");
+            if (threshold == null || threshold.isEmpty()) {
+                return -1;
+            }
+        }
+        return Long.parseLong(threshold);
+    }
+
+    /** The accounting of a live native resource, which is released when the resource is. */
+    static final class Allocation implements Runnable {
+
+        private MemoryTracker tracker;
+        private Device device;
+        private long bytes;
+        private String site;
+
+        Allocation(MemoryTracker tracker, Device device, long bytes, String site) {
+            this.tracker = tracker;
+            this.device = device;
+            this.bytes = bytes;
+            this.site = site;
+        }
+
+        /**
+         * Moves the accounting to another tracker, when the resource is attached to another
+         * manager.
+         *
+         * @param target the tracker of the new manager
+         */
+        synchronized void moveTo(MemoryTracker target) {
+            if (tracker == null || tracker == target) {
+                return;
+            }
+            // the common ancestors count the resource already
+            Set<MemoryTracker> ancestors = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (MemoryTracker t = target; t != null; t = t.parent) {
+                ancestors.add(t);
+            }
+            MemoryTracker common = tracker;
+            while (common != null && !ancestors.contains(common)) {
+                common = common.parent;
+            }
+            tracker.add(device, -bytes, -1, common);
+            target.add(device, bytes, 1, common);
+            tracker = target;
+        }
+
+        /**
+         * Updates the accounting once more metadata of the resource is known.
+         *
+         * @param device the device of the resource, or {@code null} if it is still unknown
+         * @param bytes the size of the resource in bytes, or 0 if it is still unknown
+         */
+        synchronized void update(Device device, long bytes) {
+            if (tracker == null) {
+                return;
+            }
+            Device newDevice = device == null ? this.device : device;
+            long newBytes = bytes == 0 ? this.bytes : bytes;
+            if (newDevice.equals(this.device) && newBytes == this.bytes) {
+                return;
+            }
+            tracker.add(this.device, -this.bytes, -1, null);
+            tracker.add(newDevice, newBytes, 1, null);
+            if (site != null) {
+                SITES.get(site).addAndGet(newBytes - this.bytes);
+            }
+            this.device = newDevice;
+            this.bytes = newBytes;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized void run() {
+            if (tracker == null) {
+                return;
+            }
+            tracker.add(device, -bytes, -1, null);
+            if (site != null) {
+                SITES.get(site).addAndGet(-bytes);
+            }
+            tracker = null;
+        }
+    }
+}
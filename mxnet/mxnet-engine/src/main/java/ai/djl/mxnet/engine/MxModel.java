@@ -17,6 +17,7 @@ import ai.djl.MalformedModelException;
 import ai.djl.Model;
 import ai.djl.inference.Predictor;
 import ai.djl.mxnet.jna.JnaUtils;
+import ai.djl.mxnet.jna.ResourceCleaner;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
@@ -28,6 +29,7 @@ import ai.djl.training.Trainer;
 import ai.djl.training.TrainingConfig;
 import ai.djl.training.initializer.Initializer;
 import ai.djl.translate.Translator;
+import ai.djl.util.ArtifactCache;
 import ai.djl.util.Pair;
 import ai.djl.util.PairList;
 import ai.djl.util.Utils;
@@ -72,7 +74,8 @@ public class MxModel implements Model {
     private DataType dataType;
     private Map<String, String> properties;
     private PairList<String, Shape> inputData;
-    private Map<String, Object> artifacts = new ConcurrentHashMap<>();
+    private ArtifactCache artifacts;
+    private ResourceCleaner.Cleanable cleanable;
     // the variable is used to avoid ParameterStore copy for the first time
     private AtomicBoolean first;
 
@@ -86,7 +89,9 @@ public class MxModel implements Model {
         dataType = DataType.FLOAT32;
         properties = new ConcurrentHashMap<>();
         manager = MxNDManager.getSystemManager().newSubManager(device);
+        cleanable = manager.closeOnCleanup(this, manager::close);
         first = new AtomicBoolean(true);
+        artifacts = new ArtifactCache(this);
     }
 
     /**
@@ -209,6 +214,21 @@ public class MxModel implements Model {
         return new MxPredictor<>(this, translator, shouldCopyParameters);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The parameters are only shared in thread-safe predictor mode. Otherwise the cached ops of
+     * predictors sharing parameters must not run concurrently, so every predictor but the first
+     * gets its own copy.
+     */
+    @Override
+    public <I, O> Predictor<I, O> newPredictor(Translator<I, O> translator, boolean copy) {
+        boolean firstPredictor = first.getAndSet(false);
+        boolean shouldCopyParameters =
+                copy || (!JnaUtils.useThreadSafePredictor() && !firstPredictor);
+        return new MxPredictor<>(this, translator, shouldCopyParameters);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void setDataType(DataType dataType) {
@@ -269,28 +289,15 @@ public class MxModel implements Model {
     }
 
     /** {@inheritDoc} */
-    @SuppressWarnings("unchecked")
     @Override
     public <T> T getArtifact(String name, Function<InputStream, T> function) throws IOException {
-        try {
-            Object artifact =
-                    artifacts.computeIfAbsent(
-                            name,
-                            v -> {
-                                try (InputStream is = getArtifactAsStream(name)) {
-                                    return function.apply(is);
-                                } catch (IOException e) {
-                                    throw new IllegalStateException(e);
-                                }
-                            });
-            return (T) artifact;
-        } catch (RuntimeException e) {
-            Throwable t = e.getCause();
-            if (t instanceof IOException) {
-                throw (IOException) e.getCause();
-            }
-            throw e;
-        }
+        return artifacts.get(name, function);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void invalidateArtifact(String name) {
+        artifacts.invalidate(name);
     }
 
     /** {@inheritDoc} */
@@ -336,18 +343,9 @@ public class MxModel implements Model {
     public void close() {
         // TODO workaround for MXNet Engine crash issue
         JnaUtils.waitAll();
+        cleanable.cancel();
         manager.close();
-    }
-
-    /** {@inheritDoc} */
-    @SuppressWarnings("deprecation")
-    @Override
-    protected void finalize() throws Throwable {
-        if (manager.isOpen()) {
-            logger.warn("MxModel was not closed explicitly.");
-            manager.close();
-        }
-        super.finalize();
+        artifacts.clear();
     }
 
     @SuppressWarnings("PMD.UseConcurrentHashMap")
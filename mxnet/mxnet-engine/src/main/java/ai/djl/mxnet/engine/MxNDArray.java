@@ -90,7 +90,8 @@ public class MxNDArray extends NativeResource implements NDArray {
      * @param handle the pointer to the native MxNDArray memory
      */
     MxNDArray(MxNDManager manager, Pointer handle) {
-        super(handle);
+        // the arrays of a scoped manager are closed with it, they do not need the cleaner
+        super(handle, JnaUtils::freeNdArray, !manager.isScoped());
         this.manager = manager;
         this.mxNDArrayEx = new MxNDArrayEx(this);
     }
@@ -130,6 +131,7 @@ public class MxNDArray extends NativeResource implements NDArray {
     public DataType getDataType() {
         if (dataType == null) {
             dataType = JnaUtils.getDataType(getHandle());
+            updateAllocation();
         }
         return dataType;
     }
@@ -139,6 +141,7 @@ public class MxNDArray extends NativeResource implements NDArray {
     public Device getDevice() {
         if (device == null) {
             device = JnaUtils.getDevice(getHandle());
+            updateAllocation();
         }
         return device;
     }
@@ -148,10 +151,33 @@ public class MxNDArray extends NativeResource implements NDArray {
     public Shape getShape() {
         if (shape == null) {
             shape = JnaUtils.getShape(getHandle());
+            updateAllocation();
         }
         return shape;
     }
 
+    /**
+     * Returns the device of this array if it is known without a native call.
+     *
+     * @param defaultDevice the device to return if it is not known
+     * @return the device of this array, or {@code defaultDevice}
+     */
+    Device getKnownDevice(Device defaultDevice) {
+        return device == null ? defaultDevice : device;
+    }
+
+    /**
+     * Returns the size of this array in bytes if it is known without a native call.
+     *
+     * @return the size of this array in bytes, or 0 if the shape or data type is not known yet
+     */
+    long getKnownByteSize() {
+        if (shape == null || dataType == null) {
+            return 0;
+        }
+        return shape.size() * dataType.getNumOfBytes();
+    }
+
     /** {@inheritDoc} */
     @Override
     public SparseFormat getSparseFormat() {
@@ -174,6 +200,7 @@ public class MxNDArray extends NativeResource implements NDArray {
     public void detach() {
         manager.detach(getUid());
         manager = MxNDManager.getSystemManager();
+        manager.attach(getUid(), this);
     }
 
     /** {@inheritDoc} */
@@ -220,6 +247,7 @@ public class MxNDArray extends NativeResource implements NDArray {
      */
     public void setShouldFree(boolean shouldFree) {
         this.shouldFree = shouldFree;
+        setFreeOnCleanup(shouldFree);
     }
 
     /**
@@ -1630,13 +1658,21 @@ public class MxNDArray extends NativeResource implements NDArray {
         if (!shouldFree) {
             return;
         }
-        Pointer pointer = handle.getAndSet(null);
+        Pointer pointer = releaseHandle();
         if (pointer != null) {
             // TODO: remove after fixing multi-thread data loading issue
             // JnaUtils.waitToRead(pointer);
             JnaUtils.freeNdArray(pointer);
-            manager.detach(getUid());
+            manager.detachInternal(this);
             manager = null;
         }
     }
+
+    // counts the metadata read lazily in the memory tracker of the manager
+    private void updateAllocation() {
+        Runnable listener = getReleaseListener();
+        if (listener instanceof MemoryTracker.Allocation) {
+            ((MemoryTracker.Allocation) listener).update(device, getKnownByteSize());
+        }
+    }
 }
@@ -15,6 +15,9 @@ package ai.djl.mxnet.engine;
 import ai.djl.Device;
 import ai.djl.engine.EngineException;
 import ai.djl.mxnet.jna.JnaUtils;
+import ai.djl.mxnet.jna.NativeResource;
+import ai.djl.mxnet.jna.ResourceCleaner;
+import ai.djl.ndarray.MemoryUsage;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
@@ -28,6 +31,8 @@ import java.lang.ref.WeakReference;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -56,12 +61,16 @@ public class MxNDManager implements NDManager {
     private Device device;
     private Map<String, Reference<AutoCloseable>> resources;
     private AtomicBoolean closed = new AtomicBoolean(false);
+    private MemoryTracker memoryTracker;
 
     private MxNDManager(NDManager parent, Device device) {
         this.parent = parent;
         this.device = Device.defaultIfNull(device);
         resources = new ConcurrentHashMap<>();
         uid = UUID.randomUUID().toString();
+        MemoryTracker parentTracker =
+                parent instanceof MxNDManager ? ((MxNDManager) parent).memoryTracker : null;
+        memoryTracker = new MemoryTracker(parentTracker);
     }
 
     static MxNDManager getSystemManager() {
@@ -82,7 +91,7 @@ public class MxNDManager implements NDManager {
      */
     public MxNDArray create(Pointer handle) {
         MxNDArray array = new MxNDArray(this, handle);
-        attach(array.getUid(), array);
+        attachInternal(array);
         return array;
     }
 
@@ -95,7 +104,7 @@ public class MxNDManager implements NDManager {
      */
     public MxSparseNDArray create(Pointer handle, SparseFormat fmt) {
         MxSparseNDArray array = new MxSparseNDArray(this, handle, fmt);
-        attach(array.getUid(), array);
+        attachInternal(array);
         return array;
     }
 
@@ -105,7 +114,7 @@ public class MxNDManager implements NDManager {
         dev = Device.defaultIfNull(dev, device);
         Pointer handle = JnaUtils.createNdArray(dev, shape, dataType, shape.dimension(), false);
         MxNDArray array = new MxNDArray(this, handle, dev, shape, dataType);
-        attach(array.getUid(), array);
+        attachInternal(array);
         return array;
     }
 
@@ -286,6 +295,14 @@ public class MxNDManager implements NDManager {
         return manager;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public MxNDManager newScopedManager() {
+        MxNDManager manager = new ScopedManager(this, device);
+        attach(manager.uid, manager);
+        return manager;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Device getDevice() {
@@ -300,6 +317,7 @@ public class MxNDManager implements NDManager {
         }
         WeakReference<AutoCloseable> ref = new WeakReference<>(resource);
         resources.put(resourceId, ref);
+        track(resource);
     }
 
     /** {@inheritDoc} */
@@ -312,6 +330,40 @@ public class MxNDManager implements NDManager {
         resources.remove(resourceId);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public MemoryUsage getMemoryUsage() {
+        return memoryTracker.getMemoryUsage();
+    }
+
+    /**
+     * Attaches a resource created by this manager.
+     *
+     * @param resource the resource to attach
+     */
+    void attachInternal(NativeResource resource) {
+        attach(resource.getUid(), resource);
+    }
+
+    /**
+     * Detaches a resource that is being closed.
+     *
+     * @param resource the resource to detach
+     */
+    void detachInternal(NativeResource resource) {
+        detach(resource.getUid());
+    }
+
+    /**
+     * Returns whether the resources of this manager are closed with it for sure, so they do not
+     * need to be registered with the {@link ResourceCleaner}.
+     *
+     * @return {@code true} if this is a scoped manager
+     */
+    boolean isScoped() {
+        return false;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void invoke(
@@ -453,6 +505,56 @@ public class MxNDManager implements NDManager {
         }
     }
 
+    void track(AutoCloseable resource) {
+        if (!(resource instanceof NativeResource)) {
+            return;
+        }
+        NativeResource nativeResource = (NativeResource) resource;
+        Runnable listener = nativeResource.getReleaseListener();
+        if (listener instanceof MemoryTracker.Allocation) {
+            ((MemoryTracker.Allocation) listener).moveTo(memoryTracker);
+            return;
+        }
+        if (nativeResource.isReleased()) {
+            return;
+        }
+        Device dev = device;
+        long bytes = 0;
+        if (resource instanceof MxNDArray) {
+            // only uses the metadata known without a native call, the array updates the
+            // allocation once it reads the rest
+            MxNDArray array = (MxNDArray) resource;
+            dev = array.getKnownDevice(device);
+            bytes = array.getKnownByteSize();
+        }
+        MemoryTracker.Allocation allocation = memoryTracker.allocate(dev, bytes);
+        nativeResource.setReleaseListener(allocation);
+        if (nativeResource.isReleased()) {
+            // closed by another thread before the listener was set
+            allocation.run();
+        }
+    }
+
+    /**
+     * Registers an action to run once the owner of this manager is garbage collected while this
+     * manager is still open.
+     *
+     * @param owner the object that closes this manager
+     * @param close the action to close the owner, which must not refer to the owner
+     * @return the {@link ResourceCleaner.Cleanable} to cancel once the owner is closed
+     */
+    ResourceCleaner.Cleanable closeOnCleanup(Object owner, Runnable close) {
+        String type = owner.getClass().getSimpleName();
+        return ResourceCleaner.register(
+                owner,
+                () -> {
+                    if (isOpen()) {
+                        logger.warn("{} was not closed explicitly.", type);
+                        close.run();
+                    }
+                });
+    }
+
     boolean isOpen() {
         return !closed.get();
     }
@@ -477,7 +579,10 @@ public class MxNDManager implements NDManager {
 
         /** {@inheritDoc} */
         @Override
-        public void attach(String resourceId, AutoCloseable resource) {}
+        public void attach(String resourceId, AutoCloseable resource) {
+            // the resources of the system manager are not closed with it, but still counted
+            track(resource);
+        }
 
         /** {@inheritDoc} */
         @Override
@@ -487,4 +592,109 @@ public class MxNDManager implements NDManager {
         @Override
         public void close() {}
     }
+
+    /**
+     * The ScopedManager is an {@link MxNDManager} owned by one thread at a time, which keeps its
+     * resources in an array instead of a synchronized map.
+     *
+     * <p>Its arrays are not counted by the {@link MemoryTracker}s one by one, which would update
+     * every ancestor tracker for each of them. They are released together on close, and only the
+     * arrays moved to another manager are counted there. Until then, they are part of the memory
+     * usage of the scoped manager only. For the same reason, they are only registered with the
+     * {@link ResourceCleaner} once they are moved to another manager, so a scoped manager must
+     * always be closed.
+     */
+    private static final class ScopedManager extends MxNDManager {
+
+        private AutoCloseable[] scopedResources = new AutoCloseable[16];
+        private int size;
+
+        ScopedManager(NDManager parent, Device device) {
+            super(parent, device);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void attach(String resourceId, AutoCloseable resource) {
+            if (!isOpen()) {
+                throw new IllegalStateException("NDManager has been closed already.");
+            }
+            if (size == scopedResources.length) {
+                scopedResources = Arrays.copyOf(scopedResources, size * 2);
+            }
+            scopedResources[size++] = resource;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void detach(String resourceId) {
+            // the resources closed or moved to another manager are skipped on close
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        void attachInternal(NativeResource resource) {
+            // the resources are kept by position, so their ids are never built
+            attach(null, resource);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        void detachInternal(NativeResource resource) {}
+
+        /** {@inheritDoc} */
+        @Override
+        boolean isScoped() {
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>Adds up the arrays in this scope, so it must be called by the thread that owns it.
+         */
+        @Override
+        public MemoryUsage getMemoryUsage() {
+            MemoryUsage tracked = super.getMemoryUsage();
+            Map<Device, long[]> usages = new LinkedHashMap<>();
+            for (Device dev : tracked.getDevices()) {
+                usages.put(dev, new long[] {tracked.getBytes(dev), tracked.getHandles(dev)});
+            }
+            for (int i = 0; i < size; ++i) {
+                if (!(scopedResources[i] instanceof MxNDArray)) {
+                    continue;
+                }
+                MxNDArray array = (MxNDArray) scopedResources[i];
+                if (array.getManager() == this && !array.isReleased()) {
+                    long[] usage = usages.computeIfAbsent(array.getDevice(), k -> new long[2]);
+                    usage[0] += array.getShape().size() * array.getDataType().getNumOfBytes();
+                    usage[1]++;
+                }
+            }
+            return new MemoryUsage(usages);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            if (!isOpen()) {
+                return;
+            }
+            // the resources are released in the reverse order of their creation
+            for (int i = size - 1; i >= 0; --i) {
+                AutoCloseable resource = scopedResources[i];
+                scopedResources[i] = null;
+                if (resource instanceof NDArray && ((NDArray) resource).getManager() != this) {
+                    continue;
+                }
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    logger.error("Resource close failed.", e);
+                }
+            }
+            size = 0;
+            super.close();
+        }
+    }
 }
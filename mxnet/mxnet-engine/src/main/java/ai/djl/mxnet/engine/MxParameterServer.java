@@ -32,7 +32,7 @@ public class MxParameterServer extends NativeResource implements ParameterServer
      * @param optimizer the optimizer to use for the parameter server updates
      */
     public MxParameterServer(Optimizer optimizer) {
-        super(createdKVStore());
+        super(createdKVStore(), JnaUtils::parameterStoreClose);
         JnaUtils.parameterStoreSetUpdater(
                 getHandle(), null, new OptimizerCallback(optimizer), null);
     }
@@ -71,7 +71,7 @@ public class MxParameterServer extends NativeResource implements ParameterServer
     /** {@inheritDoc} */
     @Override
     public void close() {
-        Pointer pointer = handle.getAndSet(null);
+        Pointer pointer = releaseHandle();
         if (pointer != null) {
             JnaUtils.parameterStoreClose(pointer);
         }
@@ -14,10 +14,9 @@ package ai.djl.mxnet.engine;
 
 import ai.djl.inference.BasePredictor;
 import ai.djl.inference.Predictor;
+import ai.djl.mxnet.jna.ResourceCleaner;
 import ai.djl.ndarray.NDList;
 import ai.djl.translate.Translator;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * {@code MxPredictor} is the MXNet implementation of {@link Predictor}.
@@ -28,7 +27,7 @@ import org.slf4j.LoggerFactory;
  */
 public class MxPredictor<I, O> extends BasePredictor<I, O> {
 
-    private static final Logger logger = LoggerFactory.getLogger(MxPredictor.class);
+    private ResourceCleaner.Cleanable cleanable;
 
     /**
      * Constructs a {@code MxPredictor}.
@@ -39,6 +38,8 @@ public class MxPredictor<I, O> extends BasePredictor<I, O> {
      */
     MxPredictor(MxModel model, Translator<I, O> translator, boolean copy) {
         super(model, translator, copy);
+        MxNDManager ndManager = (MxNDManager) manager;
+        cleanable = ndManager.closeOnCleanup(this, ndManager::close);
     }
 
     /** {@inheritDoc} */
@@ -48,16 +49,9 @@ public class MxPredictor<I, O> extends BasePredictor<I, O> {
     }
 
     /** {@inheritDoc} */
-    @SuppressWarnings("deprecation")
     @Override
-    protected void finalize() throws Throwable {
-        if (((MxNDManager) manager).isOpen()) {
-            if (logger.isDebugEnabled()) {
-                logger.warn(
-                        "MxPredictor was not closed explicitly: {}", getClass().getSimpleName());
-            }
-            close();
-        }
-        super.finalize();
+    public void close() {
+        cleanable.cancel();
+        super.close();
     }
 }
@@ -16,6 +16,7 @@ import ai.djl.Device;
 import ai.djl.Model;
 import ai.djl.TrainingDivergedException;
 import ai.djl.metric.Metrics;
+import ai.djl.mxnet.jna.ResourceCleaner;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDArrays;
 import ai.djl.ndarray.NDList;
@@ -34,14 +35,10 @@ import ai.djl.training.loss.Loss;
 import ai.djl.training.metrics.TrainingMetric;
 import java.util.ArrayList;
 import java.util.List;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /** {@code MxTrainer} is the MXNet implementation of the {@link Trainer}. */
 public class MxTrainer implements Trainer {
 
-    private static final Logger logger = LoggerFactory.getLogger(MxTrainer.class);
-
     private MxModel model;
     private MxNDManager manager;
     private Metrics metrics;
@@ -52,6 +49,7 @@ public class MxTrainer implements Trainer {
     private List<TrainingMetric> validateMetrics;
     private Loss trainingLoss;
     private Loss validationLoss;
+    private ResourceCleaner.Cleanable cleanable;
     long batchBeginTime;
 
     private boolean gradientsChecked;
@@ -87,6 +85,17 @@ public class MxTrainer implements Trainer {
 
         parameterStore = new ParameterStore(manager, false);
         parameterStore.setParameterServer(parameterServer, devices);
+
+        // the action must not refer to this trainer
+        ParameterStore store = parameterStore;
+        MxNDManager ndManager = manager;
+        cleanable =
+                manager.closeOnCleanup(
+                        this,
+                        () -> {
+                            store.sync();
+                            ndManager.close();
+                        });
     }
 
     /** {@inheritDoc} */
@@ -328,22 +337,10 @@ public class MxTrainer implements Trainer {
         gradientsChecked = true;
     }
 
-    /** {@inheritDoc} */
-    @SuppressWarnings("deprecation")
-    @Override
-    protected void finalize() throws Throwable {
-        if (manager.isOpen()) {
-            if (logger.isDebugEnabled()) {
-                logger.warn("Model was not closed explicitly: {}", getClass().getSimpleName());
-            }
-            close();
-        }
-        super.finalize();
-    }
-
     /** {@inheritDoc} */
     @Override
     public void close() {
+        cleanable.cancel();
         parameterStore.sync();
         manager.close();
     }
@@ -49,7 +49,7 @@ public class Symbol extends NativeResource {
      * @param pointer the symbol's native data location
      */
     Symbol(MxNDManager manager, Pointer pointer) {
-        super(pointer);
+        super(pointer, JnaUtils::freeSymbol);
         this.manager = manager;
         manager.attach(getUid(), this);
         //        argParams = JnaUtils.listSymbolArguments(getHandle());
@@ -274,7 +274,7 @@ public class Symbol extends NativeResource {
     /** {@inheritDoc} */
     @Override
     public void close() {
-        Pointer pointer = handle.getAndSet(null);
+        Pointer pointer = releaseHandle();
         if (pointer != null) {
             manager.detach(getUid());
             JnaUtils.freeSymbol(pointer);
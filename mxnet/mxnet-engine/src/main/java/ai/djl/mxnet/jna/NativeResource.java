@@ -14,26 +14,54 @@ package ai.djl.mxnet.jna;
 
 import com.sun.jna.Pointer;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * {@code NativeResource} is an internal class for {@link AutoCloseable} blocks of memory created in
  * the MXNet Engine.
+ *
+ * <p>A resource created with a release function is freed by the {@link ResourceCleaner} if it is
+ * garbage collected without being closed. Resources that are closed by their owner for sure, such
+ * as the arrays of a scoped manager, can defer the registration with the cleaner until they get a
+ * release listener, which happens once they are tracked by another manager.
  */
 public abstract class NativeResource implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(NativeResource.class);
 
     protected final AtomicReference<Pointer> handle;
+    private long address;
     private String uid;
+    private Consumer<Pointer> releaser;
     private Exception exception;
+    private boolean free = true;
+    private volatile Release release;
 
     protected NativeResource(Pointer pointer) {
         this.handle = new AtomicReference<>(pointer);
-        uid = String.valueOf(Pointer.nativeValue(pointer));
-        if (logger.isTraceEnabled()) {
-            exception = new Exception();
+        address = Pointer.nativeValue(pointer);
+    }
+
+    protected NativeResource(Pointer pointer, Consumer<Pointer> releaser) {
+        this(pointer, releaser, true);
+    }
+
+    /**
+     * Constructs a {@code NativeResource} that is freed with the given function.
+     *
+     * @param pointer the native handle
+     * @param releaser the function that frees the native handle
+     * @param cleanup {@code true} to register with the {@link ResourceCleaner} now, {@code false}
+     *     to defer it until a release listener is set
+     */
+    protected NativeResource(Pointer pointer, Consumer<Pointer> releaser, boolean cleanup) {
+        this(pointer);
+        this.releaser = releaser;
+        exception = logger.isTraceEnabled() ? new Exception() : null;
+        if (cleanup) {
+            register();
         }
     }
 
@@ -65,29 +93,131 @@ public abstract class NativeResource implements AutoCloseable {
      * @return the unique ID of this resource
      */
     public final String getUid() {
+        // built on first use, most arrays are never looked up by their id
+        if (uid == null) {
+            uid = String.valueOf(address);
+        }
         return uid;
     }
 
+    /**
+     * Returns the listener called once this resource is released.
+     *
+     * @return the listener called once this resource is released, or {@code null}
+     */
+    public Runnable getReleaseListener() {
+        Release r = release;
+        return r == null ? null : r.listener;
+    }
+
+    /**
+     * Sets the listener called once this resource is released, either by {@link #close()} or by
+     * the garbage collector.
+     *
+     * <p>The listener must not refer to this resource. It is ignored if this resource was not
+     * created with a release function. Setting it registers this resource with the {@link
+     * ResourceCleaner} if that was deferred.
+     *
+     * @param listener the listener called once this resource is released
+     */
+    public void setReleaseListener(Runnable listener) {
+        if (releaser != null) {
+            register().listener = listener;
+        }
+    }
+
+    /**
+     * Sets whether the native handle is freed when this resource is garbage collected.
+     *
+     * @param free {@code true} to free the native handle when this resource is garbage collected
+     */
+    protected synchronized void setFreeOnCleanup(boolean free) {
+        this.free = free;
+        if (release != null) {
+            release.free = free;
+        }
+    }
+
+    /**
+     * Takes the native handle out of this resource, so it can be freed by {@link #close()}.
+     *
+     * @return the native handle, or {@code null} if this resource has been released already
+     */
+    protected Pointer releaseHandle() {
+        Pointer pointer = handle.getAndSet(null);
+        Release r = release;
+        if (pointer != null && r != null) {
+            r.cleanable.cancel();
+            r.released();
+        }
+        return pointer;
+    }
+
+    // registers this resource with the cleaner once
+    private synchronized Release register() {
+        if (release == null) {
+            String type = getClass().getSimpleName();
+            Release r = new Release(handle, releaser, address, type, exception);
+            r.free = free;
+            r.cleanable = ResourceCleaner.register(this, r);
+            release = r;
+        }
+        return release;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void close() {
         throw new UnsupportedOperationException("Not implemented.");
     }
 
-    /** {@inheritDoc} */
-    @SuppressWarnings("deprecation")
-    @Override
-    protected void finalize() throws Throwable {
-        if (handle.get() != null) {
+    /** Frees the native handle of a resource that was not closed. */
+    private static final class Release implements Runnable {
+
+        private AtomicReference<Pointer> handle;
+        private Consumer<Pointer> releaser;
+        private long address;
+        private String type;
+        private Exception exception;
+        ResourceCleaner.Cleanable cleanable;
+        volatile boolean free = true;
+        volatile Runnable listener;
+
+        Release(
+                AtomicReference<Pointer> handle,
+                Consumer<Pointer> releaser,
+                long address,
+                String type,
+                Exception exception) {
+            this.handle = handle;
+            this.releaser = releaser;
+            this.address = address;
+            this.type = type;
+            this.exception = exception;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void run() {
+            Pointer pointer = handle.getAndSet(null);
+            if (pointer == null) {
+                return;
+            }
             if (exception != null) {
-                logger.warn(
-                        "Resource ({}) was not closed explicitly: {}",
-                        getUid(),
-                        getClass().getSimpleName());
+                logger.warn("Resource ({}) was not closed explicitly: {}", address, type);
                 logger.warn("Resource was created:", exception);
             }
+            if (free) {
+                releaser.accept(pointer);
+            }
+            released();
+        }
+
+        void released() {
+            Runnable l = listener;
+            if (l != null) {
+                l.run();
+            }
         }
-        close();
-        super.finalize();
     }
 }
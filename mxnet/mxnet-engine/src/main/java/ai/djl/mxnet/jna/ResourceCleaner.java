@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.jna;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code ResourceCleaner} runs a cleanup action once an object becomes phantom reachable.
+ *
+ * <p>It replaces {@code finalize()} for the native resources of the MXNet engine. Unlike a
+ * finalizer, it does not slow down the allocation of the objects, and the object is reclaimed in
+ * a single garbage collection. The cleanup action must not refer to the object, otherwise the
+ * object never becomes phantom reachable. The actions run on a single daemon thread.
+ */
+public final class ResourceCleaner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceCleaner.class);
+
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+    // keeps the registered references reachable until they are cleaned
+    private static final Set<Cleanable> CLEANABLES = ConcurrentHashMap.newKeySet();
+
+    static {
+        Thread thread = new Thread(ResourceCleaner::run, "djl-resource-cleaner");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private ResourceCleaner() {}
+
+    /**
+     * Registers an action to run when an object becomes phantom reachable.
+     *
+     * @param referent the object to monitor
+     * @param action the cleanup action, which must not refer to the object
+     * @return a {@link Cleanable} to run or cancel the action explicitly
+     */
+    public static Cleanable register(Object referent, Runnable action) {
+        Cleanable cleanable = new Cleanable(referent, action);
+        CLEANABLES.add(cleanable);
+        return cleanable;
+    }
+
+    private static void run() {
+        while (true) {
+            try {
+                ((Cleanable) QUEUE.remove()).clean();
+            } catch (InterruptedException e) {
+                // the cleaner runs as long as the JVM
+            } catch (RuntimeException e) {
+                logger.error("Failed to clean up a native resource.", e);
+            }
+        }
+    }
+
+    /** A registered cleanup action, which runs at most once. */
+    public static final class Cleanable extends PhantomReference<Object> {
+
+        private Runnable action;
+        private AtomicBoolean done = new AtomicBoolean();
+
+        Cleanable(Object referent, Runnable action) {
+            super(referent, QUEUE);
+            this.action = action;
+        }
+
+        /** Runs the cleanup action if it has not run yet, and unregisters it. */
+        public void clean() {
+            if (!done.getAndSet(true)) {
+                CLEANABLES.remove(this);
+                action.run();
+            }
+        }
+
+        /** Unregisters the cleanup action without running it. */
+        public void cancel() {
+            if (!done.getAndSet(true)) {
+                CLEANABLES.remove(this);
+                clear();
+            }
+        }
+    }
+}
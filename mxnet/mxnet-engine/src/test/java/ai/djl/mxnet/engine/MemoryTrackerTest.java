@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.engine;
+
+import ai.djl.Device;
+import ai.djl.ndarray.MemoryUsage;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class MemoryTrackerTest {
+
+    @Test
+    public void testAllocation() {
+        MemoryTracker root = new MemoryTracker(null, -1);
+        MemoryTracker child = new MemoryTracker(root);
+        MemoryTracker grandChild = new MemoryTracker(child);
+
+        MemoryTracker.Allocation allocation = grandChild.allocate(Device.cpu(), 100);
+        grandChild.allocate(Device.gpu(), 10);
+        child.allocate(Device.cpu(), 1);
+        assertUsage(grandChild.getMemoryUsage(), 110, 2);
+        assertUsage(child.getMemoryUsage(), 111, 3);
+        assertUsage(root.getMemoryUsage(), 111, 3);
+        Assert.assertEquals(root.getMemoryUsage().getBytes(Device.cpu()), 101L);
+
+        allocation.run();
+        allocation.run();
+        assertUsage(grandChild.getMemoryUsage(), 10, 1);
+        assertUsage(root.getMemoryUsage(), 11, 2);
+    }
+
+    @Test
+    public void testMoveTo() {
+        MemoryTracker root = new MemoryTracker(null, -1);
+        MemoryTracker parent = new MemoryTracker(root);
+        MemoryTracker first = new MemoryTracker(parent);
+        MemoryTracker second = new MemoryTracker(parent);
+        MemoryTracker other = new MemoryTracker(root);
+
+        MemoryTracker.Allocation allocation = first.allocate(Device.cpu(), 100);
+        allocation.moveTo(second);
+        assertUsage(first.getMemoryUsage(), 0, 0);
+        assertUsage(second.getMemoryUsage(), 100, 1);
+        assertUsage(parent.getMemoryUsage(), 100, 1);
+        assertUsage(root.getMemoryUsage(), 100, 1);
+
+        // moving up to an ancestor only leaves the trackers below it
+        allocation.moveTo(parent);
+        assertUsage(second.getMemoryUsage(), 0, 0);
+        assertUsage(parent.getMemoryUsage(), 100, 1);
+
+        allocation.moveTo(other);
+        assertUsage(parent.getMemoryUsage(), 0, 0);
+        assertUsage(other.getMemoryUsage(), 100, 1);
+        assertUsage(root.getMemoryUsage(), 100, 1);
+
+        // the allocation is released from the tracker it was moved to
+        allocation.run();
+        allocation.moveTo(first);
+        assertUsage(other.getMemoryUsage(), 0, 0);
+        assertUsage(first.getMemoryUsage(), 0, 0);
+        assertUsage(root.getMemoryUsage(), 0, 0);
+    }
+
+    @Test
+    public void testUpdate() {
+        MemoryTracker root = new MemoryTracker(null, -1);
+        MemoryTracker child = new MemoryTracker(root);
+
+        MemoryTracker.Allocation allocation = child.allocate(Device.cpu(), 0);
+        assertUsage(root.getMemoryUsage(), 0, 1);
+        allocation.update(Device.gpu(), 0);
+        allocation.update(null, 64);
+        assertUsage(child.getMemoryUsage(), 64, 1);
+        Assert.assertEquals(root.getMemoryUsage().getBytes(Device.gpu()), 64L);
+        Assert.assertEquals(root.getMemoryUsage().getHandles(Device.cpu()), 0L);
+
+        allocation.run();
+        allocation.update(Device.cpu(), 128);
+        assertUsage(root.getMemoryUsage(), 0, 0);
+    }
+
+    @Test
+    public void testReportThreshold() {
+        MemoryTracker root = new MemoryTracker(null, 100);
+        MemoryTracker child = new MemoryTracker(root);
+
+        MemoryTracker.Allocation first = child.allocate(Device.cpu(), 60);
+        Assert.assertEquals(root.getReportCount(), 0);
+        MemoryTracker.Allocation second = child.allocate(Device.cpu(), 60);
+        Assert.assertEquals(root.getReportCount(), 1);
+        child.allocate(Device.cpu(), 10).run();
+        Assert.assertEquals(root.getReportCount(), 1);
+
+        // the report is armed again once the total drops below the threshold
+        second.run();
+        child.allocate(Device.cpu(), 60);
+        Assert.assertEquals(root.getReportCount(), 2);
+        first.run();
+        Assert.assertEquals(root.getReportCount(), 2);
+
+        // the threshold applies to the total of all devices
+        MemoryTracker other = new MemoryTracker(null, 100);
+        other.allocate(Device.cpu(), 60);
+        other.allocate(Device.gpu(), 60);
+        Assert.assertEquals(other.getReportCount(), 1);
+    }
+
+    private static void assertUsage(MemoryUsage usage, long bytes, long handles) {
+        Assert.assertEquals(usage.getBytes(), bytes);
+        Assert.assertEquals(usage.getHandles(), handles);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.engine;
+
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+import ai.djl.mxnet.jna.LibUtils;
+import ai.djl.mxnet.test.MockMxnetLibrary;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.training.dataset.Batch;
+import ai.djl.translate.StackBatchifier;
+import com.sun.jna.Pointer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.Assert;
+import org.testng.IObjectFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.ObjectFactory;
+import org.testng.annotations.Test;
+
+@PrepareForTest(LibUtils.class)
+public class ScopedManagerTest extends PowerMockTestCase {
+
+    private MockMxnetLibrary library;
+    private List<Pointer> freed;
+
+    @BeforeClass
+    public void prepare() {
+        mockStatic(LibUtils.class);
+        library = new MockMxnetLibrary();
+        PowerMockito.when(LibUtils.loadLibrary()).thenReturn(library);
+    }
+
+    @BeforeMethod
+    public void recordFrees() {
+        freed = new ArrayList<>();
+        library.setFunction(
+                "MXNDArrayFree",
+                objects -> {
+                    freed.add((Pointer) objects[0]);
+                    return 0;
+                });
+    }
+
+    @AfterMethod
+    public void postProcessing() {
+        library.resetFunctions();
+    }
+
+    @Test
+    public void testClose() {
+        try (MxNDManager parent = MxNDManager.getSystemManager().newSubManager();
+                MxNDManager other = MxNDManager.getSystemManager().newSubManager()) {
+            MxNDManager scope = parent.newScopedManager();
+            MxNDArray first = (MxNDArray) scope.create(new Shape(2));
+            MxNDArray moved = (MxNDArray) scope.create(new Shape(2));
+            MxNDArray last = (MxNDArray) scope.create(new Shape(2));
+            List<Pointer> expected = Arrays.asList(last.getHandle(), first.getHandle());
+            Assert.assertEquals(scope.getMemoryUsage().getHandles(), 3L);
+            Assert.assertEquals(parent.getMemoryUsage().getHandles(), 0L);
+
+            // an array moved to another manager is counted there and survives the scope
+            moved.attach(other);
+            Assert.assertEquals(scope.getMemoryUsage().getHandles(), 2L);
+            Assert.assertEquals(other.getMemoryUsage().getHandles(), 1L);
+            Assert.assertEquals(other.getMemoryUsage().getBytes(), 8L);
+
+            scope.close();
+            Assert.assertEquals(freed, expected);
+            Assert.assertTrue(first.isReleased());
+            Assert.assertTrue(last.isReleased());
+            Assert.assertFalse(moved.isReleased());
+            Assert.assertThrows(IllegalStateException.class, () -> scope.create(new Shape(2)));
+        }
+    }
+
+    @Test
+    public void testNestedScopes() {
+        try (MxNDManager parent = MxNDManager.getSystemManager().newSubManager()) {
+            MxNDManager outer = parent.newScopedManager();
+            MxNDArray first = (MxNDArray) outer.create(new Shape(2));
+            MxNDManager inner = outer.newScopedManager();
+            MxNDArray nested = (MxNDArray) inner.create(new Shape(2));
+            MxNDArray last = (MxNDArray) outer.create(new Shape(2));
+            List<Pointer> expected =
+                    Arrays.asList(last.getHandle(), nested.getHandle(), first.getHandle());
+
+            // the inner scope is released in its place in the reverse order
+            outer.close();
+            Assert.assertEquals(freed, expected);
+            Assert.assertTrue(nested.isReleased());
+            Assert.assertThrows(IllegalStateException.class, () -> inner.create(new Shape(2)));
+        }
+    }
+
+    @Test
+    public void testBatchHandBack() {
+        try (MxNDManager owner = MxNDManager.getSystemManager().newSubManager()) {
+            NDArray reused = owner.create(new Shape(2));
+            NDArray label = owner.create(new Shape(2));
+            // hands the reused array back on release, like ReusableStackBatchifier
+            StackBatchifier batchifier =
+                    new StackBatchifier() {
+                        /** {@inheritDoc} */
+                        @Override
+                        public void release(NDList batch) {
+                            for (NDArray array : batch) {
+                                if (array == reused) {
+                                    array.attach(owner);
+                                }
+                            }
+                        }
+                    };
+
+            NDManager scope = owner.newScopedManager();
+            Batch batch = new Batch(scope, new NDList(reused), new NDList(label), batchifier);
+            Assert.assertSame(reused.getManager(), scope);
+            batch.close();
+            Assert.assertSame(reused.getManager(), owner);
+            Assert.assertFalse(reused.isReleased());
+            Assert.assertTrue(label.isReleased());
+        }
+    }
+
+    @ObjectFactory
+    public IObjectFactory getObjectFactory() {
+        return new org.powermock.modules.testng.PowerMockObjectFactory();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.mxnet.jna;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ResourceCleanerTest {
+
+    @Test
+    public void testClean() {
+        Object referent = new Object();
+        AtomicInteger runs = new AtomicInteger();
+        ResourceCleaner.Cleanable cleanable =
+                ResourceCleaner.register(referent, runs::incrementAndGet);
+        cleanable.clean();
+        cleanable.clean();
+        cleanable.cancel();
+        Assert.assertEquals(runs.get(), 1);
+
+        cleanable = ResourceCleaner.register(referent, runs::incrementAndGet);
+        cleanable.cancel();
+        cleanable.clean();
+        Assert.assertEquals(runs.get(), 1);
+    }
+
+    @Test
+    public void testGarbageCollected() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        ResourceCleaner.register(new Object(), runs::incrementAndGet);
+        for (int i = 0; i < 100 && runs.get() == 0; ++i) {
+            System.gc(); // NOPMD
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(runs.get(), 1);
+    }
+}
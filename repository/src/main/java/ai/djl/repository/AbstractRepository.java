@@ -14,17 +14,22 @@ package ai.djl.repository;
 
 import ai.djl.util.Progress;
 import ai.djl.util.Utils;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.security.DigestInputStream;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipInputStream;
 
@@ -104,21 +109,95 @@ public abstract class AbstractRepository implements Repository {
         }
 
         Files.createDirectories(parentDir);
-        Path tmp = Files.createTempDirectory(parentDir, resourceDir.toFile().getName());
-        if (progress != null) {
-            long totalSize = 0;
-            for (Artifact.Item item : files.values()) {
-                totalSize += item.getSize();
+        // only one process assembles the artifact, the others wait for it and reuse it
+        Path lockFile = parentDir.resolve('.' + resourceDir.toFile().getName() + ".lock");
+        ContentCache.Lock lock = ContentCache.Lock.acquire(lockFile);
+        try {
+            if (Files.exists(resourceDir)) {
+                return;
             }
-            progress.reset("Downloading", totalSize);
+            assemble(cacheDir, parentDir, resourceDir, baseUri, files, progress);
+        } finally {
+            lock.close();
         }
+    }
 
+    private void assemble(
+            Path cacheDir,
+            Path parentDir,
+            Path resourceDir,
+            URI baseUri,
+            Map<String, Artifact.Item> files,
+            Progress progress)
+            throws IOException {
+        ContentCache store = new ContentCache(cacheDir.resolve(".store"), getMaxCacheSize());
+        // partial downloads are kept outside of tmp, so a failed prepare can resume them
+        Path downloadDir = cacheDir.resolve(".downloads");
+
+        // lock the items in the order of their keys, so processes sharing items do not deadlock,
+        // and download each key once, since items with the same content share a part file
+        TreeMap<String, List<Artifact.Item>> items = new TreeMap<>();
+        Map<String, URI> uris = new HashMap<>();
+        for (Artifact.Item item : files.values()) {
+            URI fileUri = URI.create(item.getUri());
+            if (!fileUri.isAbsolute()) {
+                fileUri = getBaseUri().resolve(baseUri).resolve(fileUri);
+            }
+            String key = getCacheKey(item, fileUri);
+            items.computeIfAbsent(key, k -> new ArrayList<>()).add(item);
+            uris.put(key, fileUri);
+        }
+
+        Path tmp = Files.createTempDirectory(parentDir, resourceDir.toFile().getName());
+        List<ContentCache.Lock> locks = new ArrayList<>(items.size());
         try {
-            for (Artifact.Item item : files.values()) {
-                download(tmp, baseUri, item, progress);
+            List<Downloader.Request> requests = new ArrayList<>();
+            long totalSize = 0;
+            for (Map.Entry<String, List<Artifact.Item>> entry : items.entrySet()) {
+                String key = entry.getKey();
+                locks.add(store.lock(key));
+                if (store.get(key) == null) {
+                    Artifact.Item item = entry.getValue().get(0);
+                    URL url = uris.get(key).toURL();
+                    requests.add(
+                            new Downloader.Request(
+                                    url, downloadDir.resolve(key), item.getSha1Hash()));
+                    totalSize += item.getSize();
+                }
+            }
+
+            if (progress != null) {
+                progress.reset("Downloading", totalSize);
+            }
+            new Downloader().download(requests, progress);
+            if (progress != null) {
+                progress.reset("Extracting", totalSize);
+            }
+
+            for (Map.Entry<String, List<Artifact.Item>> entry : items.entrySet()) {
+                String key = entry.getKey();
+                Artifact.Item first = entry.getValue().get(0);
+                Path downloaded = downloadDir.resolve(key);
+                Path content =
+                        store.computeIfAbsent(
+                                key, path -> extract(first, downloaded, path, progress));
+                Files.deleteIfExists(downloaded);
+
+                for (Artifact.Item item : entry.getValue()) {
+                    String fileName = item.getName();
+                    if ("dir".equals(item.getType()) && fileName.isEmpty()) {
+                        ContentCache.link(content, tmp);
+                    } else {
+                        // honer the name set in metadata.json
+                        ContentCache.link(content, tmp.resolve(fileName));
+                    }
+                }
             }
             Files.move(tmp, resourceDir, StandardCopyOption.ATOMIC_MOVE);
         } finally {
+            for (int i = locks.size() - 1; i >= 0; --i) {
+                locks.get(i).close();
+            }
             Utils.deleteQuietly(tmp);
             if (progress != null) {
                 progress.end();
@@ -147,117 +226,66 @@ public abstract class AbstractRepository implements Repository {
         return dir;
     }
 
-    private void download(Path tmp, URI baseUri, Artifact.Item item, Progress progress)
-            throws IOException {
-        URI fileUri = URI.create(item.getUri());
-        if (!fileUri.isAbsolute()) {
-            fileUri = getBaseUri().resolve(baseUri).resolve(fileUri);
-        }
-
-        try (InputStream is = fileUri.toURL().openStream()) {
-            ProgressInputStream pis = new ProgressInputStream(is, progress);
-            String fileName = item.getName();
-            String extension = item.getExtension();
-            if ("dir".equals(item.getType())) {
-                Path dir;
-                if (!fileName.isEmpty()) {
-                    // honer the name set in metadata.json
-                    dir = tmp.resolve(fileName);
-                    Files.createDirectories(dir);
-                } else {
-                    dir = tmp;
-                }
-                if (!"zip".equals(extension)) {
-                    throw new IOException("File type is not supported: " + extension);
-                }
-                ZipUtils.unzip(pis, dir);
-            } else {
-                Path file = tmp.resolve(fileName);
-                if ("zip".equals(extension)) {
-                    ZipInputStream zis = new ZipInputStream(pis);
-                    zis.getNextEntry();
-                    Files.copy(zis, file);
-                } else if ("gzip".equals(extension)) {
-                    Files.copy(new GZIPInputStream(pis), file);
-                } else if (extension.isEmpty()) {
-                    Files.copy(pis, file);
-                } else {
-                    throw new IOException("File type is not supported: " + extension);
-                }
-            }
-            pis.validateChecksum(item);
-        }
-    }
-
     /**
-     * A {@code ProgressInputStream} is a wrapper around an {@link InputStream} that also uses
-     * {@link Progress}.
+     * Returns the maximum size in bytes of the shared content cache.
+     *
+     * <p>It is read from the {@code DJL_CACHE_MAX_SIZE} system property or environment variable,
+     * and is unbounded by default.
+     *
+     * @return the maximum size in bytes of the shared content cache
      */
-    private static final class ProgressInputStream extends InputStream {
-
-        private DigestInputStream dis;
-        private Progress progress;
-
-        /**
-         * Constructs a new ProgressInputStream with an input stream and progress.
-         *
-         * @param is the input stream
-         * @param progress the (optionally null) progress tracker
-         */
-        public ProgressInputStream(InputStream is, Progress progress) {
-            MessageDigest md;
-            try {
-                md = MessageDigest.getInstance("SHA1");
-            } catch (NoSuchAlgorithmException e) {
-                throw new AssertionError("SHA1 algorithm not found.", e);
+    protected long getMaxCacheSize() {
+        String maxSize = System.getProperty("DJL_CACHE_MAX_SIZE");
+        if (maxSize == null || maxSize.isEmpty()) {
+            maxSize = System.getenv("DJL_CACHE_MAX_SIZE");
+            if (maxSize == null || maxSize.isEmpty()) {
+                return Long.MAX_VALUE;
             }
-            dis = new DigestInputStream(is, md);
-            this.progress = progress;
         }
+        return Long.parseLong(maxSize);
+    }
 
-        /** {@inheritDoc} */
-        @Override
-        public int read() throws IOException {
-            int ret = dis.read();
-            if (progress != null) {
-                if (ret >= 0) {
-                    progress.increment(1);
-                } else {
-                    progress.end();
-                }
-            }
-            return ret;
+    // the items are stored by their content, the type is part of the key since a zip file is
+    // extracted differently as a directory and as a file
+    static String getCacheKey(Artifact.Item item, URI fileUri) {
+        String hash = item.getSha1Hash();
+        if (hash == null) {
+            // items without a checksum are stored by the SHA1 of their full URI
+            MessageDigest md = Downloader.newDigest();
+            byte[] uri = fileUri.toString().getBytes(StandardCharsets.UTF_8);
+            hash = Hex.toHexString(md.digest(uri));
         }
+        return hash.toLowerCase() + ("dir".equals(item.getType()) ? ".dir" : ".file");
+    }
 
-        /** {@inheritDoc} */
-        @Override
-        public int read(byte[] b, int off, int len) throws IOException {
-            int size = dis.read(b, off, len);
-            if (progress != null) {
-                progress.increment(size);
+    private static void extract(
+            Artifact.Item item, Path downloaded, Path dest, Progress progress) throws IOException {
+        String extension = item.getExtension();
+        if ("dir".equals(item.getType())) {
+            if (!"zip".equals(extension)) {
+                throw new IOException("File type is not supported: " + extension);
             }
-            return size;
+            Files.createDirectories(dest);
+            // the downloaded file is seekable, so the entries are extracted in parallel
+            ZipUtils.unzip(downloaded, dest, progress);
+            return;
         }
 
-        private void validateChecksum(Artifact.Item item) throws IOException {
-            // drain InputSteam to get correct sha1 hash
-            Utils.toByteArray(dis);
-            String sha1 = Hex.toHexString(dis.getMessageDigest().digest());
-            if (!sha1.equalsIgnoreCase(item.getSha1Hash())) {
-                throw new IOException(
-                        "Checksum error: "
-                                + item.getName()
-                                + ", expected sha1: "
-                                + item.getSha1Hash()
-                                + ", actual sha1: "
-                                + sha1);
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(downloaded))) {
+            if ("zip".equals(extension)) {
+                ZipInputStream zis = new ZipInputStream(is);
+                zis.getNextEntry();
+                Files.copy(zis, dest);
+            } else if ("gzip".equals(extension)) {
+                Files.copy(new GZIPInputStream(is), dest);
+            } else if (extension.isEmpty()) {
+                Files.copy(is, dest);
+            } else {
+                throw new IOException("File type is not supported: " + extension);
             }
         }
-
-        /** {@inheritDoc} */
-        @Override
-        public void close() throws IOException {
-            dis.close();
+        if (progress != null) {
+            progress.increment(Files.size(downloaded));
         }
     }
 }
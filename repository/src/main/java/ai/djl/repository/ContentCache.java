@@ -0,0 +1,377 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Utils;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@code ContentCache} is a directory of files and directories keyed by the hash of their content.
+ *
+ * <p>Every entry is created at most once, even when several processes share the directory: the
+ * creation of an entry holds a {@link Lock} on it, which is a file lock across processes and a
+ * lock between the threads of this process. Artifacts are assembled from the entries with hard
+ * links by {@link #link(Path, Path)}, so the same content used by several artifacts, such as an
+ * unchanged file across model versions, is stored once on disk.
+ *
+ * <p>When the entries exceed the maximum size, the least recently used ones are removed. Since
+ * the files of an artifact are hard links, the space of an evicted entry is only freed once the
+ * artifacts linking it are deleted as well.
+ */
+public class ContentCache {
+
+    private static final ConcurrentMap<Path, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    private Path root;
+    private long maxSize;
+
+    /**
+     * Creates a {@code ContentCache}.
+     *
+     * @param root the directory of the cache entries
+     * @param maxSize the maximum size of all the entries in bytes
+     */
+    public ContentCache(Path root, long maxSize) {
+        this.root = root;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the path of the entry with the given key, or {@code null} if it does not exist.
+     *
+     * @param key the key of the entry
+     * @return the path of the entry, or {@code null} if it does not exist
+     * @throws IOException if the entry can not be read
+     */
+    public Path get(String key) throws IOException {
+        Path entry = root.resolve(key);
+        if (!Files.exists(entry)) {
+            return null;
+        }
+        touch(entry);
+        return entry;
+    }
+
+    /**
+     * Returns the path of the entry with the given key, creating it with the loader if it does not
+     * exist.
+     *
+     * <p>The caller should hold the {@link #lock(String)} of the key to create the entry without
+     * waiting in between. Otherwise, the lock is taken by this method.
+     *
+     * @param key the key of the entry
+     * @param loader the function to write the content of the entry to a given path
+     * @return the path of the entry
+     * @throws IOException if the entry can not be created
+     */
+    public Path computeIfAbsent(String key, Loader loader) throws IOException {
+        Path entry = get(key);
+        if (entry != null) {
+            return entry;
+        }
+        Lock lock = lock(key);
+        try {
+            entry = get(key);
+            if (entry != null) {
+                return entry;
+            }
+            Path tmp = Files.createTempDirectory(root, '.' + key);
+            try {
+                Path content = tmp.resolve(key);
+                loader.load(content);
+                entry = root.resolve(key);
+                Files.move(content, entry, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Utils.deleteQuietly(tmp);
+            }
+        } finally {
+            lock.close();
+        }
+        evict(key);
+        return entry;
+    }
+
+    /**
+     * Locks the entry with the given key, waiting for other threads and processes to release it.
+     *
+     * @param key the key of the entry
+     * @return the {@link Lock} to close to release the entry
+     * @throws IOException if the lock file can not be created
+     */
+    public Lock lock(String key) throws IOException {
+        Files.createDirectories(root);
+        return Lock.acquire(root.resolve(key + ".lock"));
+    }
+
+    /**
+     * Removes the least recently used entries until the entries fit in the maximum size.
+     *
+     * @throws IOException if the entries can not be listed
+     */
+    public void evict() throws IOException {
+        evict(null);
+    }
+
+    private void evict(String keep) throws IOException {
+        if (maxSize == Long.MAX_VALUE || !Files.isDirectory(root)) {
+            return;
+        }
+        List<Path> entries;
+        try (Stream<Path> stream = Files.list(root)) {
+            // skip the lock files and the temporary directories of new entries
+            entries =
+                    stream.filter(
+                                    p -> {
+                                        String name = p.getFileName().toString();
+                                        return !name.startsWith(".") && !name.endsWith(".lock");
+                                    })
+                            .collect(Collectors.toList());
+        }
+        List<Long> sizes = new ArrayList<>(entries.size());
+        long total = 0;
+        for (Path entry : entries) {
+            long size = size(entry);
+            sizes.add(size);
+            total += size;
+        }
+        if (total <= maxSize) {
+            return;
+        }
+
+        List<Integer> order = new ArrayList<>(entries.size());
+        List<FileTime> times = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); ++i) {
+            order.add(i);
+            times.add(Files.getLastModifiedTime(entries.get(i)));
+        }
+        order.sort((a, b) -> times.get(a).compareTo(times.get(b)));
+        for (int i : order) {
+            if (total <= maxSize) {
+                break;
+            }
+            Path entry = entries.get(i);
+            String key = entry.getFileName().toString();
+            if (key.equals(keep)) {
+                continue;
+            }
+            // skip the entries being created or evicted by others
+            try (Lock lock = Lock.tryAcquire(root.resolve(key + ".lock"))) {
+                if (lock != null && Files.exists(entry)) {
+                    Utils.deleteQuietly(entry);
+                    total -= sizes.get(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Links a cache entry to a target path with hard links, copying the files if the file system
+     * does not support hard links.
+     *
+     * @param source the file or directory of the entry
+     * @param target the path to create
+     * @throws IOException if the target can not be created
+     */
+    public static void link(Path source, Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            linkFile(source, target);
+            return;
+        }
+        try (Stream<Path> stream = Files.walk(source)) {
+            stream.forEach(
+                    path -> {
+                        Path dest = target.resolve(source.relativize(path).toString());
+                        try {
+                            if (Files.isDirectory(path)) {
+                                Files.createDirectories(dest);
+                            } else {
+                                linkFile(path, dest);
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void linkFile(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Files.copy(source, target);
+        }
+    }
+
+    private static void touch(Path entry) throws IOException {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (FileSystemException ignore) {
+            // the entry may be read-only for this process, the access time is best effort
+        }
+    }
+
+    private static long size(Path entry) throws IOException {
+        try (Stream<Path> stream = Files.walk(entry)) {
+            return stream.mapToLong(
+                            p -> {
+                                try {
+                                    BasicFileAttributes attributes =
+                                            Files.readAttributes(p, BasicFileAttributes.class);
+                                    return attributes.isRegularFile() ? attributes.size() : 0;
+                                } catch (IOException e) {
+                                    return 0;
+                                }
+                            })
+                    .sum();
+        }
+    }
+
+    /** Writes the content of a cache entry. */
+    public interface Loader {
+
+        /**
+         * Writes the content of the entry to a given path.
+         *
+         * @param path the file or directory to create
+         * @throws IOException if the content can not be written
+         */
+        void load(Path path) throws IOException;
+    }
+
+    /**
+     * A lock on a file that is held both by a thread of this process and by this process against
+     * other processes.
+     */
+    public static final class Lock implements AutoCloseable {
+
+        private ReentrantLock threadLock;
+        private FileChannel channel;
+        private FileLock fileLock;
+
+        private Lock(ReentrantLock threadLock, FileChannel channel, FileLock fileLock) {
+            this.threadLock = threadLock;
+            this.channel = channel;
+            this.fileLock = fileLock;
+        }
+
+        /**
+         * Acquires the lock of a file, waiting until it is available.
+         *
+         * @param file the lock file, which is created if it does not exist
+         * @return the acquired {@code Lock}
+         * @throws IOException if the lock file can not be created or locked
+         */
+        public static Lock acquire(Path file) throws IOException {
+            ReentrantLock threadLock = threadLock(file);
+            threadLock.lock();
+            if (threadLock.getHoldCount() > 1) {
+                // this thread holds the file lock already
+                return new Lock(threadLock, null, null);
+            }
+            try {
+                FileChannel channel = open(file);
+                try {
+                    return new Lock(threadLock, channel, channel.lock());
+                } catch (IOException | RuntimeException e) {
+                    channel.close();
+                    throw e;
+                }
+            } catch (IOException | RuntimeException e) {
+                threadLock.unlock();
+                throw e;
+            }
+        }
+
+        /**
+         * Acquires the lock of a file if it is available.
+         *
+         * @param file the lock file, which is created if it does not exist
+         * @return the acquired {@code Lock}, or {@code null} if it is held by others
+         * @throws IOException if the lock file can not be created
+         */
+        public static Lock tryAcquire(Path file) throws IOException {
+            ReentrantLock threadLock = threadLock(file);
+            if (!threadLock.tryLock()) {
+                return null;
+            }
+            if (threadLock.getHoldCount() > 1) {
+                // this thread holds it already, a second file lock would overlap
+                threadLock.unlock();
+                return null;
+            }
+            try {
+                FileChannel channel = open(file);
+                try {
+                    FileLock fileLock = channel.tryLock();
+                    if (fileLock != null) {
+                        return new Lock(threadLock, channel, fileLock);
+                    }
+                } catch (OverlappingFileLockException e) {
+                    // held through another channel of this process
+                }
+                channel.close();
+            } catch (IOException | RuntimeException e) {
+                threadLock.unlock();
+                throw e;
+            }
+            threadLock.unlock();
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() throws IOException {
+            try {
+                if (channel != null) {
+                    fileLock.release();
+                    channel.close();
+                }
+            } finally {
+                threadLock.unlock();
+            }
+        }
+
+        private static ReentrantLock threadLock(Path file) {
+            return LOCKS.computeIfAbsent(
+                    file.toAbsolutePath().normalize(), k -> new ReentrantLock());
+        }
+
+        private static FileChannel open(Path file) throws IOException {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        }
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Progress;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code Downloader} fetches files in parallel with a bounded pool of threads.
+ *
+ * <p>Each file is first written to a {@code .part} file next to its destination. If a download is
+ * interrupted, the next attempt, either a retry or a later call, continues from the end of the
+ * {@code .part} file with an HTTP {@code Range} request when the server supports it. The SHA1 hash
+ * is computed while the bytes arrive, so a file is verified as soon as its last byte is written.
+ * The file is only moved to its destination after the hash matches. A file with a wrong hash
+ * fails with a {@link ChecksumException} and is not retried.
+ *
+ * <p>The bytes received by all threads are reported to a single {@link Progress}.
+ */
+public class Downloader {
+
+    private static final Logger logger = LoggerFactory.getLogger(Downloader.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private int parallelism;
+    private int maxRetries;
+    private long retryDelay;
+
+    /** Creates a {@code Downloader} with 4 threads and 3 retries for each file. */
+    public Downloader() {
+        this(4, 3, 1000);
+    }
+
+    /**
+     * Creates a {@code Downloader}.
+     *
+     * @param parallelism the maximum number of files to download at the same time
+     * @param maxRetries the number of times to resume a file after a failed attempt
+     * @param retryDelay the delay in milliseconds before the first retry, doubled for each retry
+     */
+    public Downloader(int parallelism, int maxRetries, long retryDelay) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        this.maxRetries = maxRetries;
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Downloads a single file.
+     *
+     * @param request the file to download
+     * @param progress the (optionally null) progress tracker
+     * @throws IOException if the file can not be downloaded or has a wrong checksum
+     */
+    public void download(Request request, Progress progress) throws IOException {
+        download(Collections.singletonList(request), progress);
+    }
+
+    /**
+     * Downloads files in parallel.
+     *
+     * <p>The {@link Progress} is incremented by the number of bytes received, but it is neither
+     * reset nor ended by this method.
+     *
+     * @param requests the files to download, requests for the same file are downloaded once
+     * @param progress the (optionally null) progress tracker
+     * @throws IOException if any of the files can not be downloaded or has a wrong checksum
+     * @throws IllegalArgumentException if two requests for the same file differ
+     */
+    public void download(List<Request> requests, Progress progress) throws IOException {
+        // requests for the same file would write to the same part file concurrently
+        Map<Path, Request> unique = new LinkedHashMap<>();
+        for (Request request : requests) {
+            Path file = request.getFile().toAbsolutePath().normalize();
+            Request previous = unique.putIfAbsent(file, request);
+            if (previous != null && !previous.isSameContent(request)) {
+                throw new IllegalArgumentException("Conflicting downloads to " + file);
+            }
+        }
+        requests = new ArrayList<>(unique.values());
+        if (requests.isEmpty()) {
+            return;
+        }
+        SharedProgress shared = new SharedProgress(progress);
+        if (requests.size() == 1 || parallelism == 1) {
+            for (Request request : requests) {
+                fetch(request, shared);
+            }
+            return;
+        }
+
+        int threads = Math.min(parallelism, requests.size());
+        ExecutorService executor =
+                Executors.newFixedThreadPool(
+                        threads,
+                        r -> {
+                            Thread thread = new Thread(r, "djl-download");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(requests.size());
+            for (Request request : requests) {
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    try {
+                                        fetch(request, shared);
+                                    } catch (IOException e) {
+                                        throw new UncheckedIOException(e);
+                                    }
+                                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Download interrupted.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException("Download failed.", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void fetch(Request request, SharedProgress shared) throws IOException {
+        FileProgress progress = new FileProgress(shared);
+        Path file = request.getFile();
+        if (Files.exists(file)) {
+            // completed by an earlier call
+            MessageDigest md = newDigest();
+            long size = digest(file, md);
+            if (request.getSha1() == null || request.getSha1().equalsIgnoreCase(hex(md))) {
+                progress.increment(size);
+                return;
+            }
+            Files.delete(file);
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        long delay = retryDelay;
+        for (int attempt = 0; ; ++attempt) {
+            try {
+                transfer(request, progress);
+                return;
+            } catch (ChecksumException e) {
+                // the part file is deleted, downloading it again would give the same content
+                progress.rollback();
+                throw e;
+            } catch (IOException e) {
+                // the part file is digested and counted again by the next attempt
+                progress.rollback();
+                if (attempt >= maxRetries || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                logger.warn("Failed to download {}, retrying: {}", request.getUrl(), e.toString());
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Download interrupted.", e);
+            }
+            delay *= 2;
+        }
+    }
+
+    private void transfer(Request request, FileProgress progress) throws IOException {
+        Path file = request.getFile();
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        MessageDigest md = newDigest();
+        long existing = 0;
+        if (Files.exists(part)) {
+            // the digest continues from the bytes already on disk
+            existing = digest(part, md);
+            progress.increment(existing);
+        }
+
+        URLConnection conn = request.getUrl().openConnection();
+        boolean append = false;
+        if (conn instanceof HttpURLConnection) {
+            HttpURLConnection http = (HttpURLConnection) conn;
+            if (existing > 0) {
+                http.setRequestProperty("Range", "bytes=" + existing + '-');
+            }
+            int code = http.getResponseCode();
+            if (code == HttpURLConnection.HTTP_PARTIAL) {
+                append = true;
+            } else if (code == 416 && existing > 0) {
+                // the part file is already complete
+                http.disconnect();
+                complete(request, part, md);
+                return;
+            } else if (code != HttpURLConnection.HTTP_OK) {
+                http.disconnect();
+                throw new IOException("Failed to download " + request.getUrl() + ": HTTP " + code);
+            }
+        }
+        if (!append && existing > 0) {
+            // the server ignored the range, start over
+            md.reset();
+            progress.rollback();
+        }
+
+        byte[] buf = new byte[BUFFER_SIZE];
+        try (InputStream is = conn.getInputStream();
+                OutputStream os =
+                        Files.newOutputStream(
+                                part,
+                                StandardOpenOption.CREATE,
+                                StandardOpenOption.WRITE,
+                                append
+                                        ? StandardOpenOption.APPEND
+                                        : StandardOpenOption.TRUNCATE_EXISTING)) {
+            long received = 0;
+            int read;
+            while ((read = is.read(buf)) != -1) {
+                os.write(buf, 0, read);
+                md.update(buf, 0, read);
+                progress.increment(read);
+                received += read;
+            }
+            long length = conn.getContentLengthLong();
+            if (length >= 0 && received < length) {
+                // keep the part file, the next attempt resumes from its end
+                throw new IOException(
+                        "Connection closed after " + received + " of " + length + " bytes.");
+            }
+        }
+        complete(request, part, md);
+    }
+
+    private void complete(Request request, Path part, MessageDigest md) throws IOException {
+        String sha1 = hex(md);
+        String expected = request.getSha1();
+        if (expected != null && !expected.equalsIgnoreCase(sha1)) {
+            Files.deleteIfExists(part);
+            throw new ChecksumException(
+                    "Checksum error: "
+                            + request.getUrl()
+                            + ", expected sha1: "
+                            + expected
+                            + ", actual sha1: "
+                            + sha1);
+        }
+        Files.move(part, request.getFile(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static long digest(Path file, MessageDigest md) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        long size = 0;
+        try (InputStream is = Files.newInputStream(file)) {
+            int read;
+            while ((read = is.read(buf)) != -1) {
+                md.update(buf, 0, read);
+                size += read;
+            }
+        }
+        return size;
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("SHA1 algorithm not found.", e);
+        }
+    }
+
+    private static String hex(MessageDigest md) {
+        return Hex.toHexString(md.digest());
+    }
+
+    /** A file to download. */
+    public static final class Request {
+
+        private URL url;
+        private Path file;
+        private String sha1;
+
+        /**
+         * Creates a {@code Request}.
+         *
+         * @param url the URL to download from
+         * @param file the destination file
+         * @param sha1 the expected SHA1 hash in hex, or {@code null} to skip the verification
+         */
+        public Request(URL url, Path file, String sha1) {
+            this.url = url;
+            this.file = file;
+            this.sha1 = sha1;
+        }
+
+        /**
+         * Returns the URL to download from.
+         *
+         * @return the URL to download from
+         */
+        public URL getUrl() {
+            return url;
+        }
+
+        /**
+         * Returns the destination file.
+         *
+         * @return the destination file
+         */
+        public Path getFile() {
+            return file;
+        }
+
+        /**
+         * Returns the expected SHA1 hash.
+         *
+         * @return the expected SHA1 hash, or {@code null} if not verified
+         */
+        public String getSha1() {
+            return sha1;
+        }
+
+        boolean isSameContent(Request other) {
+            return url.toString().equals(other.url.toString())
+                    && (sha1 == null ? other.sha1 == null : sha1.equalsIgnoreCase(other.sha1));
+        }
+    }
+
+    /** Serializes the progress updates of the download threads. */
+    private static final class SharedProgress {
+
+        private Progress progress;
+
+        SharedProgress(Progress progress) {
+            this.progress = progress;
+        }
+
+        synchronized void increment(long increment) {
+            if (progress != null && increment != 0) {
+                progress.increment(increment);
+            }
+        }
+    }
+
+    /** Tracks the bytes counted for one file, so a failed attempt can be taken back. */
+    private static final class FileProgress {
+
+        private SharedProgress shared;
+        private long received;
+
+        FileProgress(SharedProgress shared) {
+            this.shared = shared;
+        }
+
+        void increment(long increment) {
+            received += increment;
+            shared.increment(increment);
+        }
+
+        void rollback() {
+            shared.increment(-received);
+            received = 0;
+        }
+    }
+}
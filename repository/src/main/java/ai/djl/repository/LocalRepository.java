@@ -92,7 +92,7 @@ public class LocalRepository extends AbstractRepository {
         if (artifacts.isEmpty()) {
             return null;
         }
-        // TODO: find highest version.
+        // the artifacts are sorted from the highest version
         return artifacts.get(0);
     }
 }
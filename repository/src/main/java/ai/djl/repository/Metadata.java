@@ -13,10 +13,12 @@
 package ai.djl.repository;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * A {@code Metadata} is a collection of {@link Artifact}s with unified metadata (including {@link
@@ -41,21 +43,42 @@ public class Metadata {
     private Date lastUpdated;
 
     private transient URI repositoryUri;
+    private transient volatile Index index;
 
     /**
      * Returns the artifacts matching the version and property requirements.
      *
+     * <p>The artifacts are sorted from the highest to the lowest version, so the first one is the
+     * newest matching artifact.
+     *
      * @param versionRange the version range for the artifact
      * @param filter the property filter
      * @return the matching artifacts
      */
     public List<Artifact> search(VersionRange versionRange, Map<String, String> filter) {
-        List<Artifact> results = versionRange.matches(artifacts);
-        if (filter == null) {
-            return results;
+        Index idx = getIndex();
+        List<Artifact> candidates = idx.sorted;
+        if (filter != null) {
+            // start from the fewest artifacts having one of the filter properties
+            for (Map.Entry<String, String> entry : filter.entrySet()) {
+                Map<String, List<Artifact>> values = idx.properties.get(entry.getKey());
+                List<Artifact> list = values == null ? null : values.get(entry.getValue());
+                if (list == null) {
+                    return Collections.emptyList();
+                }
+                if (list.size() < candidates.size()) {
+                    candidates = list;
+                }
+            }
         }
 
-        return results.stream().filter(a -> a.hasProperties(filter)).collect(Collectors.toList());
+        List<Artifact> results = new ArrayList<>();
+        for (Artifact artifact : candidates) {
+            if (versionRange.contains(artifact) && artifact.hasProperties(filter)) {
+                results.add(artifact);
+            }
+        }
+        return results;
     }
 
     /**
@@ -182,6 +205,7 @@ public class Metadata {
      */
     public void setArtifacts(List<Artifact> artifacts) {
         this.artifacts = artifacts;
+        index = null;
     }
 
     /**
@@ -242,4 +266,34 @@ public class Metadata {
             }
         }
     }
+
+    private Index getIndex() {
+        Index idx = index;
+        if (idx == null) {
+            idx = new Index(artifacts);
+            index = idx;
+        }
+        return idx;
+    }
+
+    /** The artifacts sorted by version and grouped by property values. */
+    private static final class Index {
+
+        List<Artifact> sorted;
+        Map<String, Map<String, List<Artifact>>> properties;
+
+        Index(List<Artifact> artifacts) {
+            sorted = artifacts == null ? new ArrayList<>() : new ArrayList<>(artifacts);
+            sorted.sort(Collections.reverseOrder(new Artifact.VersionComparator()));
+            properties = new HashMap<>();
+            for (Artifact artifact : sorted) {
+                for (Map.Entry<String, String> entry : artifact.getProperties().entrySet()) {
+                    properties
+                            .computeIfAbsent(entry.getKey(), k -> new HashMap<>())
+                            .computeIfAbsent(entry.getValue(), k -> new ArrayList<>())
+                            .add(artifact);
+                }
+            }
+        }
+    }
 }
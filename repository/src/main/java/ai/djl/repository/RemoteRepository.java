@@ -17,13 +17,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.net.HttpURLConnection;
 import java.net.URI;
+import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A {@code RemoteRepository} is a {@link Repository} located on a remote web server.
@@ -32,10 +38,13 @@ import java.util.Map;
  */
 public class RemoteRepository extends AbstractRepository {
 
-    private static final long ONE_DAY = Duration.ofDays(1).toMillis();
+    private static final Logger logger = LoggerFactory.getLogger(RemoteRepository.class);
+
+    private static final long REVALIDATE_INTERVAL = Duration.ofMinutes(1).toMillis();
 
     private String name;
     private URI uri;
+    private Map<URI, CachedMetadata> index;
 
     /**
      * (Internal) Constructs a remote repository.
@@ -48,6 +57,7 @@ public class RemoteRepository extends AbstractRepository {
     public RemoteRepository(String name, URI uri) {
         this.name = name;
         this.uri = uri;
+        index = new ConcurrentHashMap<>();
     }
 
     /** {@inheritDoc} */
@@ -62,38 +72,119 @@ public class RemoteRepository extends AbstractRepository {
         return uri;
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The metadata is kept in memory and in the cache directory. It is revalidated with a
+     * conditional request ({@code If-None-Match} and {@code If-Modified-Since}) at most once every
+     * minute, and not at all with the {@code offline} system property. If the server can not be
+     * reached, the cached metadata is used.
+     */
     @Override
     public Metadata locate(MRL mrl) throws IOException {
         URI mrlUri = mrl.toURI();
-        URI file = uri.resolve(mrlUri.getPath() + "/metadata.json");
+        CachedMetadata cached = index.get(mrlUri);
+        if (cached != null && isFresh(cached)) {
+            return cached.metadata;
+        }
+        synchronized (this) {
+            cached = index.get(mrlUri);
+            if (cached != null && isFresh(cached)) {
+                return cached.metadata;
+            }
+            cached = revalidate(mrlUri, cached);
+            index.put(mrlUri, cached);
+            return cached.metadata;
+        }
+    }
+
+    private boolean isFresh(CachedMetadata cached) {
+        return Boolean.getBoolean("offline")
+                || System.currentTimeMillis() - cached.checked < REVALIDATE_INTERVAL;
+    }
+
+    private CachedMetadata revalidate(URI mrlUri, CachedMetadata cached) throws IOException {
         Path cacheDir = getCacheDirectory().resolve(mrlUri.getPath());
         if (!Files.exists(cacheDir)) {
             Files.createDirectories(cacheDir);
         }
         Path cacheFile = cacheDir.resolve("metadata.json");
-        if (Files.exists(cacheFile)) {
-            try (Reader reader = Files.newBufferedReader(cacheFile)) {
-                Metadata metadata = GSON.fromJson(reader, Metadata.class);
-                Date lastUpdated = metadata.getLastUpdated();
-                if (Boolean.getBoolean("offline")
-                        || System.currentTimeMillis() - lastUpdated.getTime() < ONE_DAY) {
-                    metadata.setRepositoryUri(mrlUri);
-                    return metadata;
-                }
+        Path headerFile = cacheDir.resolve("metadata.headers");
+        if (cached == null && Files.exists(cacheFile)) {
+            cached = readCache(mrlUri, cacheFile, headerFile);
+            if (Boolean.getBoolean("offline")) {
+                return cached;
             }
         }
 
-        try (InputStream is = file.toURL().openStream()) {
-            String json = Utils.toString(is);
+        URI file = uri.resolve(mrlUri.getPath() + "/metadata.json");
+        try {
+            URLConnection conn = file.toURL().openConnection();
+            if (conn instanceof HttpURLConnection && cached != null) {
+                if (cached.etag != null) {
+                    conn.setRequestProperty("If-None-Match", cached.etag);
+                }
+                if (cached.lastModified != null) {
+                    conn.setRequestProperty("If-Modified-Since", cached.lastModified);
+                }
+                if (((HttpURLConnection) conn).getResponseCode()
+                        == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    ((HttpURLConnection) conn).disconnect();
+                    cached.checked = System.currentTimeMillis();
+                    return cached;
+                }
+            }
+
+            String json;
+            try (InputStream is = conn.getInputStream()) {
+                json = Utils.toString(is);
+            }
             Metadata metadata = GSON.fromJson(json, Metadata.class);
             metadata.setLastUpdated(new Date());
             try (Writer writer = Files.newBufferedWriter(cacheFile)) {
                 writer.write(GSON.toJson(metadata));
             }
+            Properties headers = new Properties();
+            String etag = conn.getHeaderField("ETag");
+            String lastModified = conn.getHeaderField("Last-Modified");
+            if (etag != null) {
+                headers.setProperty("ETag", etag);
+            }
+            if (lastModified != null) {
+                headers.setProperty("Last-Modified", lastModified);
+            }
+            try (Writer writer = Files.newBufferedWriter(headerFile)) {
+                headers.store(writer, null);
+            }
             metadata.setRepositoryUri(mrlUri);
-            return metadata;
+            return new CachedMetadata(metadata, etag, lastModified, System.currentTimeMillis());
+        } catch (IOException e) {
+            if (cached == null) {
+                throw e;
+            }
+            logger.warn("Failed to revalidate {}, using the cached metadata.", file, e);
+            cached.checked = System.currentTimeMillis();
+            return cached;
+        }
+    }
+
+    private CachedMetadata readCache(URI mrlUri, Path cacheFile, Path headerFile)
+            throws IOException {
+        Metadata metadata;
+        try (Reader reader = Files.newBufferedReader(cacheFile)) {
+            metadata = GSON.fromJson(reader, Metadata.class);
         }
+        metadata.setRepositoryUri(mrlUri);
+        Properties headers = new Properties();
+        if (Files.exists(headerFile)) {
+            try (Reader reader = Files.newBufferedReader(headerFile)) {
+                headers.load(reader);
+            }
+        }
+        String etag = headers.getProperty("ETag");
+        String lastModified = headers.getProperty("Last-Modified");
+        // the cached file has to be revalidated before it is used online
+        return new CachedMetadata(metadata, etag, lastModified, 0);
     }
 
     /** {@inheritDoc} */
@@ -106,7 +197,23 @@ public class RemoteRepository extends AbstractRepository {
         if (artifacts.isEmpty()) {
             return null;
         }
-        // TODO: find highest version.
+        // the artifacts are sorted from the highest version
         return artifacts.get(0);
     }
+
+    /** The metadata of an artifact with the validators of its response. */
+    private static final class CachedMetadata {
+
+        Metadata metadata;
+        String etag;
+        String lastModified;
+        volatile long checked;
+
+        CachedMetadata(Metadata metadata, String etag, String lastModified, long checked) {
+            this.metadata = metadata;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.checked = checked;
+        }
+    }
 }
@@ -28,7 +28,8 @@ import java.util.stream.Collectors;
  */
 public final class VersionRange {
 
-    private static final VersionRange ANY = new VersionRange(null, Collections.emptyList());
+    private static final VersionRange ANY =
+            new VersionRange(null, Collections.singletonList(Restriction.EVERYTHING));
 
     private Version recommendedVersion;
     private List<Restriction> restrictions;
@@ -12,21 +12,38 @@
  */
 package ai.djl.repository;
 
+import ai.djl.util.Progress;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 /** Utilities for working with zip files. */
 public final class ZipUtils {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private ZipUtils() {}
 
     /**
      * Unzips an input stream to a given path.
      *
+     * <p>The entries are extracted one at a time as they are read. Use {@link #unzip(Path, Path,
+     * Progress)} to extract a zip file in parallel.
+     *
      * @param is the input stream to unzip
      * @param dest the path to store the unzipped files
      * @throws IOException for failures to unzip the input stream and create files in the dest path
@@ -35,8 +52,7 @@ public final class ZipUtils {
         ZipInputStream zis = new ZipInputStream(is);
         ZipEntry entry;
         while ((entry = zis.getNextEntry()) != null) {
-            String name = entry.getName();
-            Path file = dest.resolve(name).toAbsolutePath();
+            Path file = resolve(dest, entry);
             if (entry.isDirectory()) {
                 Files.createDirectories(file);
             } else {
@@ -50,4 +66,137 @@ public final class ZipUtils {
             }
         }
     }
+
+    /**
+     * Unzips a zip file to a given path, extracting the entries in parallel with a thread for each
+     * available processor.
+     *
+     * @param zip the zip file to unzip
+     * @param dest the path to store the unzipped files
+     * @param progress the (optionally null) progress tracker, incremented by the compressed size
+     *     of each extracted entry
+     * @throws IOException for failures to unzip the file and create files in the dest path
+     */
+    public static void unzip(Path zip, Path dest, Progress progress) throws IOException {
+        unzip(zip, dest, Runtime.getRuntime().availableProcessors(), progress);
+    }
+
+    /**
+     * Unzips a zip file to a given path, extracting the entries in parallel.
+     *
+     * <p>The entries are read through the central directory of the zip file, so each thread
+     * inflates a different entry into a file preallocated to the size of the entry.
+     *
+     * @param zip the zip file to unzip
+     * @param dest the path to store the unzipped files
+     * @param parallelism the maximum number of entries to extract at the same time
+     * @param progress the (optionally null) progress tracker, incremented by the compressed size
+     *     of each extracted entry
+     * @throws IOException for failures to unzip the file and create files in the dest path
+     */
+    public static void unzip(Path zip, Path dest, int parallelism, Progress progress)
+            throws IOException {
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            List<ZipEntry> entries = new ArrayList<>();
+            Enumeration<? extends ZipEntry> e = zipFile.entries();
+            while (e.hasMoreElements()) {
+                ZipEntry entry = e.nextElement();
+                Path file = resolve(dest, entry);
+                if (entry.isDirectory()) {
+                    Files.createDirectories(file);
+                } else {
+                    Path parentFile = file.getParent();
+                    if (parentFile == null) {
+                        throw new AssertionError(
+                                "Parent path should never be null: " + file.toString());
+                    }
+                    Files.createDirectories(parentFile);
+                    entries.add(entry);
+                }
+            }
+
+            int threads = Math.min(parallelism, entries.size());
+            if (threads <= 1) {
+                for (ZipEntry entry : entries) {
+                    extract(zipFile, entry, dest, progress);
+                }
+                return;
+            }
+
+            // start with the largest entries, so the small ones fill in at the end
+            entries.sort(Comparator.comparingLong(ZipEntry::getSize).reversed());
+            ExecutorService executor =
+                    Executors.newFixedThreadPool(
+                            threads,
+                            r -> {
+                                Thread thread = new Thread(r, "djl-unzip");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+            try {
+                List<Future<?>> futures = new ArrayList<>(entries.size());
+                for (ZipEntry entry : entries) {
+                    futures.add(
+                            executor.submit(
+                                    () -> {
+                                        try {
+                                            extract(zipFile, entry, dest, progress);
+                                        } catch (IOException ex) {
+                                            throw new UncheckedIOException(ex);
+                                        }
+                                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Unzip interrupted.", ex);
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+                throw new IOException("Failed to unzip " + zip, cause);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static void extract(ZipFile zipFile, ZipEntry entry, Path dest, Progress progress)
+            throws IOException {
+        Path file = resolve(dest, entry);
+        byte[] buf = new byte[BUFFER_SIZE];
+        try (InputStream is = zipFile.getInputStream(entry);
+                RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            long size = entry.getSize();
+            if (size > 0) {
+                raf.setLength(size);
+            }
+            long written = 0;
+            int read;
+            while ((read = is.read(buf)) != -1) {
+                raf.write(buf, 0, read);
+                written += read;
+            }
+            if (written != size) {
+                raf.setLength(written);
+            }
+        }
+        if (progress != null) {
+            synchronized (progress) {
+                progress.increment(entry.getCompressedSize());
+            }
+        }
+    }
+
+    private static Path resolve(Path dest, ZipEntry entry) throws IOException {
+        Path root = dest.toAbsolutePath().normalize();
+        Path file = root.resolve(entry.getName()).normalize();
+        if (!file.startsWith(root)) {
+            throw new IOException("Zip entry is outside of the target dir: " + entry.getName());
+        }
+        return file;
+    }
 }
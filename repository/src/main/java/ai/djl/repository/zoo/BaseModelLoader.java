@@ -40,6 +40,7 @@ public abstract class BaseModelLoader<I, O> implements ModelLoader<I, O> {
     protected String version;
 
     private Metadata metadata;
+    private VersionRange versionRange;
 
     /**
      * Constructs a {@link ModelLoader} given the repository, mrl, and version.
@@ -105,10 +106,10 @@ public abstract class BaseModelLoader<I, O> implements ModelLoader<I, O> {
     }
 
     /**
-     * Returns the first artifact that matches a given criteria.
+     * Returns the artifact with the highest version that matches a given criteria.
      *
      * @param criteria the criteria to match against
-     * @return the first artifact that matches the criteria. Null will be returned if no artifact
+     * @return the newest artifact that matches the criteria. Null will be returned if no artifact
      *     matches
      * @throws IOException for errors while loading the model
      * @throws ModelNotFoundException if the metadata to get artifacts from is not found
@@ -122,7 +123,7 @@ public abstract class BaseModelLoader<I, O> implements ModelLoader<I, O> {
     }
 
     /**
-     * Returns all the artifacts that match a given criteria.
+     * Returns all the artifacts that match a given criteria, from the highest version.
      *
      * @param criteria the criteria to match against
      * @return all the artifacts that match a given criteria
@@ -131,7 +132,10 @@ public abstract class BaseModelLoader<I, O> implements ModelLoader<I, O> {
      */
     public List<Artifact> search(Map<String, String> criteria)
             throws IOException, ModelNotFoundException {
-        return getMetadata().search(VersionRange.parse(version), criteria);
+        if (versionRange == null) {
+            versionRange = VersionRange.parse(version);
+        }
+        return getMetadata().search(versionRange, criteria);
     }
 
     private Metadata getMetadata() throws IOException, ModelNotFoundException {
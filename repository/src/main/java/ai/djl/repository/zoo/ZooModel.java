@@ -113,6 +113,12 @@ public class ZooModel<I, O> implements Model {
         return model.newPredictor(translator);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public <P, Q> Predictor<P, Q> newPredictor(Translator<P, Q> translator, boolean copy) {
+        return model.newPredictor(translator, copy);
+    }
+
     /**
      * Returns the default translator.
      *
@@ -146,6 +152,12 @@ public class ZooModel<I, O> implements Model {
         return model.getArtifact(name, function);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void invalidateArtifact(String name) {
+        model.invalidateArtifact(name);
+    }
+
     /** {@inheritDoc} */
     @Override
     public URL getArtifact(String name) throws IOException {
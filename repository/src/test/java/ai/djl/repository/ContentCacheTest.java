@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Utils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class ContentCacheTest {
+
+    private Path dir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("djl-cache");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        Utils.deleteQuietly(dir);
+    }
+
+    @Test
+    public void testComputeOnce() throws Exception {
+        ContentCache cache = new ContentCache(dir.resolve("store"), Long.MAX_VALUE);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Path>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                futures.add(
+                        executor.submit(
+                                () ->
+                                        cache.computeIfAbsent(
+                                                "abc.file",
+                                                path -> {
+                                                    loads.incrementAndGet();
+                                                    Files.write(path, new byte[] {1, 2, 3});
+                                                })));
+            }
+            for (Future<Path> future : futures) {
+                Assert.assertEquals(Files.readAllBytes(future.get()), new byte[] {1, 2, 3});
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        Assert.assertEquals(loads.get(), 1);
+        Assert.assertNotNull(cache.get("abc.file"));
+        Assert.assertNull(cache.get("missing.file"));
+    }
+
+    @Test
+    public void testLink() throws IOException {
+        ContentCache cache = new ContentCache(dir.resolve("store"), Long.MAX_VALUE);
+        Path entry =
+                cache.computeIfAbsent(
+                        "abc.dir",
+                        path -> {
+                            Files.createDirectories(path.resolve("sub"));
+                            Files.write(path.resolve("sub/a.txt"), new byte[] {1});
+                        });
+        Path v1 = dir.resolve("v1");
+        Path v2 = dir.resolve("v2");
+        ContentCache.link(entry, v1);
+        ContentCache.link(entry, v2);
+        Assert.assertEquals(Files.readAllBytes(v2.resolve("sub/a.txt")), new byte[] {1});
+        // the file is stored once
+        Assert.assertTrue(Files.isSameFile(v1.resolve("sub/a.txt"), v2.resolve("sub/a.txt")));
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        ContentCache cache = new ContentCache(dir.resolve("store"), 250);
+        cache.computeIfAbsent("a.file", path -> Files.write(path, new byte[100]));
+        cache.computeIfAbsent("b.file", path -> Files.write(path, new byte[100]));
+        // make "a" the most recently used
+        Files.setLastModifiedTime(dir.resolve("store/b.file"), FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(dir.resolve("store/a.file"), FileTime.fromMillis(2000));
+
+        cache.computeIfAbsent("c.file", path -> Files.write(path, new byte[100]));
+        Assert.assertTrue(Files.exists(dir.resolve("store/a.file")));
+        Assert.assertFalse(Files.exists(dir.resolve("store/b.file")));
+        Assert.assertTrue(Files.exists(dir.resolve("store/c.file")));
+
+        // a locked entry is not evicted
+        Files.setLastModifiedTime(dir.resolve("store/a.file"), FileTime.fromMillis(1000));
+        ContentCache.Lock lock = cache.lock("a.file");
+        try {
+            cache.computeIfAbsent("d.file", path -> Files.write(path, new byte[100]));
+            Assert.assertTrue(Files.exists(dir.resolve("store/a.file")));
+            Assert.assertFalse(Files.exists(dir.resolve("store/c.file")));
+        } finally {
+            lock.close();
+        }
+    }
+}
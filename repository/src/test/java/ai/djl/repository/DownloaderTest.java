@@ -0,0 +1,213 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Progress;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class DownloaderTest {
+
+    private HttpServer server;
+    private byte[] content;
+    private List<String> ranges = new CopyOnWriteArrayList<>();
+    private AtomicBoolean failNext = new AtomicBoolean();
+    private Path dir;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        content = new byte[300_000];
+        new Random(1).nextBytes(content);
+        dir = Files.createTempDirectory("djl-download");
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+        server.stop(0);
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testParallelDownload() throws IOException {
+        ranges.clear();
+        List<Downloader.Request> requests = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            requests.add(
+                    new Downloader.Request(url("/file" + i), dir.resolve("parallel" + i), sha1()));
+        }
+        CountingProgress progress = new CountingProgress();
+        new Downloader(3, 0, 0).download(requests, progress);
+
+        for (Downloader.Request request : requests) {
+            Assert.assertEquals(Files.readAllBytes(request.getFile()), content);
+        }
+        Assert.assertEquals(progress.value, content.length * 5L);
+        Assert.assertEquals(ranges.size(), 5);
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        ranges.clear();
+        Path file = dir.resolve("resume");
+        // the first response is cut in the middle
+        failNext.set(true);
+        CountingProgress progress = new CountingProgress();
+        new Downloader(1, 2, 10)
+                .download(new Downloader.Request(url("/file"), file, sha1()), progress);
+
+        Assert.assertEquals(Files.readAllBytes(file), content);
+        Assert.assertEquals(progress.value, content.length);
+        Assert.assertEquals(ranges.get(0), "");
+        Assert.assertEquals(ranges.get(1), "bytes=" + content.length / 2 + '-');
+        Assert.assertFalse(Files.exists(dir.resolve("resume.part")));
+    }
+
+    @Test
+    public void testResumeExistingPart() throws IOException {
+        ranges.clear();
+        Path file = dir.resolve("existing");
+        Files.write(dir.resolve("existing.part"), Arrays.copyOf(content, 1000));
+        new Downloader().download(new Downloader.Request(url("/file"), file, sha1()), null);
+
+        Assert.assertEquals(Files.readAllBytes(file), content);
+        Assert.assertEquals(ranges, Arrays.asList("bytes=1000-"));
+    }
+
+    @Test
+    public void testChecksumError() throws IOException {
+        ranges.clear();
+        Path file = dir.resolve("corrupted");
+        String sha1 = "0000000000000000000000000000000000000000";
+        Assert.assertThrows(
+                ChecksumException.class,
+                () ->
+                        new Downloader(1, 3, 0)
+                                .download(new Downloader.Request(url("/file"), file, sha1), null));
+        Assert.assertFalse(Files.exists(file));
+        Assert.assertFalse(Files.exists(dir.resolve("corrupted.part")));
+        // a wrong checksum is not retried
+        Assert.assertEquals(ranges.size(), 1);
+    }
+
+    @Test
+    public void testDuplicateRequests() throws IOException {
+        ranges.clear();
+        Path file = dir.resolve("duplicate");
+        List<Downloader.Request> requests =
+                Arrays.asList(
+                        new Downloader.Request(url("/file"), file, sha1()),
+                        new Downloader.Request(url("/file"), file, sha1()));
+        new Downloader().download(requests, null);
+        Assert.assertEquals(Files.readAllBytes(file), content);
+        Assert.assertEquals(ranges.size(), 1);
+
+        List<Downloader.Request> conflicting =
+                Arrays.asList(
+                        new Downloader.Request(url("/file"), file, sha1()),
+                        new Downloader.Request(url("/other"), file, sha1()));
+        Assert.assertThrows(
+                IllegalArgumentException.class,
+                () -> new Downloader().download(conflicting, null));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        ranges.add(range == null ? "" : range);
+        int start = 0;
+        int code = 200;
+        if (range != null) {
+            start = Integer.parseInt(range.substring(6, range.length() - 1));
+            code = 206;
+            exchange.getResponseHeaders()
+                    .add(
+                            "Content-Range",
+                            "bytes " + start + '-' + (content.length - 1) + '/' + content.length);
+        }
+        int length = content.length - start;
+        exchange.sendResponseHeaders(code, length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            if (failNext.getAndSet(false)) {
+                os.write(content, start, length / 2);
+                os.flush();
+                // closing a fixed length body early drops the connection
+                exchange.close();
+                return;
+            }
+            os.write(content, start, length);
+        }
+    }
+
+    private URL url(String path) throws IOException {
+        return new URL("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private String sha1() {
+        try {
+            return Hex.toHexString(MessageDigest.getInstance("SHA1").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static final class CountingProgress implements Progress {
+
+        long value;
+
+        /** {@inheritDoc} */
+        @Override
+        public void reset(String message, long max) {}
+
+        /** {@inheritDoc} */
+        @Override
+        public void start(long initialProgress) {}
+
+        /** {@inheritDoc} */
+        @Override
+        public void end() {}
+
+        /** {@inheritDoc} */
+        @Override
+        public void increment(long increment) {
+            value += increment;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void update(long progress, String message) {}
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class MetadataTest {
+
+    @Test
+    public void testSearch() {
+        Metadata metadata = new Metadata();
+        metadata.setArtifacts(
+                Arrays.asList(
+                        artifact("0.0.1", "18"),
+                        artifact("0.0.3", "50"),
+                        artifact("0.0.10", "18"),
+                        artifact("0.0.2", "18")));
+
+        List<Artifact> all = metadata.search(VersionRange.parse(null), null);
+        Assert.assertEquals(versions(all), "0.0.10,0.0.3,0.0.2,0.0.1");
+
+        List<Artifact> layers =
+                metadata.search(
+                        VersionRange.parse("[0.0.1,0.0.3)"),
+                        Collections.singletonMap("layers", "18"));
+        Assert.assertEquals(versions(layers), "0.0.2,0.0.1");
+
+        Assert.assertTrue(
+                metadata.search(
+                                VersionRange.parse(null),
+                                Collections.singletonMap("layers", "101"))
+                        .isEmpty());
+        Assert.assertTrue(
+                metadata.search(VersionRange.parse(null), Collections.singletonMap("size", "1"))
+                        .isEmpty());
+    }
+
+    private static Artifact artifact(String version, String layers) {
+        Artifact artifact = new Artifact();
+        artifact.setVersion(version);
+        LinkedHashMap<String, String> properties = new LinkedHashMap<>();
+        properties.put("layers", layers);
+        artifact.setProperties(properties);
+        return artifact;
+    }
+
+    private static String versions(List<Artifact> artifacts) {
+        return artifacts.stream().map(Artifact::getVersion).collect(Collectors.joining(","));
+    }
+}
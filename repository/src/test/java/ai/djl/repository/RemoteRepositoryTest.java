@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Utils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class RemoteRepositoryTest {
+
+    private static final String METADATA =
+            "{\"metadataVersion\":\"0.1\",\"groupId\":\"ai.djl\",\"artifactId\":\"test\","
+                    + "\"artifacts\":[{\"version\":\"0.0.1\",\"name\":\"a\"},"
+                    + "{\"version\":\"0.0.2\",\"name\":\"b\"}]}";
+
+    private HttpServer server;
+    private List<String> requests = new CopyOnWriteArrayList<>();
+    private Path dir;
+    private String cacheDir;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("djl-remote");
+        cacheDir = System.getProperty("DJL_CACHE_DIR");
+        System.setProperty("DJL_CACHE_DIR", dir.toString());
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        server.stop(0);
+        if (cacheDir == null) {
+            System.clearProperty("DJL_CACHE_DIR");
+        } else {
+            System.setProperty("DJL_CACHE_DIR", cacheDir);
+        }
+        Utils.deleteQuietly(dir);
+    }
+
+    @Test
+    public void testCacheKey() {
+        Artifact.Item item = new Artifact.Item();
+        item.setType("file");
+        // the two URIs have the same hashCode()
+        URI first = URI.create("http://127.0.0.1/Aa");
+        URI second = URI.create("http://127.0.0.1/BB");
+        Assert.assertEquals(first.hashCode(), second.hashCode());
+        String key = AbstractRepository.getCacheKey(item, first);
+        Assert.assertEquals(key.length(), 45);
+        Assert.assertNotEquals(AbstractRepository.getCacheKey(item, second), key);
+
+        item.setSha1Hash("ABCDEF");
+        Assert.assertEquals(AbstractRepository.getCacheKey(item, first), "abcdef.file");
+    }
+
+    @Test
+    public void testLocate() throws IOException {
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + '/');
+        MRL mrl = new MRL(new Anchor("cv"), "ai.djl", "test");
+
+        RemoteRepository repository = new RemoteRepository("test", uri);
+        Metadata metadata = repository.locate(mrl);
+        Assert.assertEquals(metadata.getArtifacts().size(), 2);
+        // served from memory
+        Assert.assertSame(repository.locate(mrl), metadata);
+        Assert.assertEquals(requests, Collections.singletonList(""));
+
+        Artifact artifact = repository.resolve(mrl, null, null);
+        Assert.assertEquals(artifact.getVersion(), "0.0.2");
+
+        // a new instance revalidates the cached file
+        repository = new RemoteRepository("test", uri);
+        metadata = repository.locate(mrl);
+        Assert.assertEquals(metadata.getArtifacts().size(), 2);
+        Assert.assertEquals(requests.size(), 2);
+        Assert.assertEquals(requests.get(1), "\"v1\"");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+        requests.add(etag == null ? "" : etag);
+        if ("\"v1\"".equals(etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = METADATA.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Progress;
+import ai.djl.util.Utils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class ZipUtilsTest {
+
+    private Path dir;
+    private Path zip;
+    private byte[][] contents;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("djl-zip");
+        zip = dir.resolve("test.zip");
+        Random random = new Random(1);
+        contents = new byte[10][];
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zip))) {
+            zos.putNextEntry(new ZipEntry("empty/"));
+            zos.closeEntry();
+            for (int i = 0; i < contents.length; ++i) {
+                contents[i] = new byte[random.nextInt(100_000)];
+                // compressible content
+                for (int j = 0; j < contents[i].length; ++j) {
+                    contents[i][j] = (byte) random.nextInt(4);
+                }
+                zos.putNextEntry(new ZipEntry("data/" + i % 3 + "/file" + i));
+                zos.write(contents[i]);
+                zos.closeEntry();
+            }
+        }
+    }
+
+    @AfterClass
+    public void tearDown() {
+        Utils.deleteQuietly(dir);
+    }
+
+    @Test
+    public void testParallelUnzip() throws IOException {
+        Path dest = dir.resolve("parallel");
+        CountingProgress progress = new CountingProgress();
+        ZipUtils.unzip(zip, dest, 4, progress);
+        verify(dest);
+
+        long compressed = 0;
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                if (!entry.isDirectory()) {
+                    compressed += entry.getCompressedSize();
+                }
+            }
+        }
+        Assert.assertEquals(progress.value, compressed);
+    }
+
+    @Test
+    public void testStreamingUnzip() throws IOException {
+        Path dest = dir.resolve("streaming");
+        try (InputStream is = Files.newInputStream(zip)) {
+            ZipUtils.unzip(is, dest);
+        }
+        verify(dest);
+    }
+
+    @Test
+    public void testEntryOutsideOfDest() throws IOException {
+        Path evil = dir.resolve("evil.zip");
+        try (OutputStream os = Files.newOutputStream(evil);
+                ZipOutputStream zos = new ZipOutputStream(os)) {
+            zos.putNextEntry(new ZipEntry("../outside.txt"));
+            zos.write(1);
+            zos.closeEntry();
+        }
+        Path dest = dir.resolve("evil");
+        Assert.assertThrows(IOException.class, () -> ZipUtils.unzip(evil, dest, null));
+        Assert.assertFalse(Files.exists(dir.resolve("outside.txt")));
+    }
+
+    private void verify(Path dest) throws IOException {
+        Assert.assertTrue(Files.isDirectory(dest.resolve("empty")));
+        for (int i = 0; i < contents.length; ++i) {
+            Path file = dest.resolve("data/" + i % 3 + "/file" + i);
+            Assert.assertEquals(Files.readAllBytes(file), contents[i]);
+        }
+    }
+
+    private static final class CountingProgress implements Progress {
+
+        long value;
+
+        /** {@inheritDoc} */
+        @Override
+        public void reset(String message, long max) {}
+
+        /** {@inheritDoc} */
+        @Override
+        public void start(long initialProgress) {}
+
+        /** {@inheritDoc} */
+        @Override
+        public void end() {}
+
+        /** {@inheritDoc} */
+        @Override
+        public void increment(long increment) {
+            value += increment;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void update(long progress, String message) {}
+    }
+}
@@ -22,6 +22,7 @@ import ai.djl.nn.Block;
 import ai.djl.training.Trainer;
 import ai.djl.training.TrainingConfig;
 import ai.djl.translate.Translator;
+import ai.djl.util.ArtifactCache;
 import ai.djl.util.PairList;
 import com.google.protobuf.InvalidProtocolBufferException;
 import java.io.IOException;
@@ -45,6 +46,7 @@ public class TfModel implements Model {
     private Path modelDir;
     private SavedModelBundle bundle;
     private AtomicBoolean first = new AtomicBoolean(true);
+    private ArtifactCache artifacts = new ArtifactCache(this);
 
     private PairList<String, Shape> constructDataDescFromModel(Map<String, TensorInfo> info) {
         PairList<String, Shape> descs = new PairList<>();
@@ -152,6 +154,13 @@ public class TfModel implements Model {
         return new TfPredictor<>(this, translator, first.getAndSet(false));
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public <I, O> Predictor<I, O> newPredictor(Translator<I, O> translator, boolean copy) {
+        first.set(false);
+        return new TfPredictor<>(this, translator, copy);
+    }
+
     /** {@inheritDoc} */
     @Override
     public PairList<String, Shape> describeInput() {
@@ -172,8 +181,14 @@ public class TfModel implements Model {
 
     /** {@inheritDoc} */
     @Override
-    public <T> T getArtifact(String name, Function<InputStream, T> function) {
-        return null;
+    public <T> T getArtifact(String name, Function<InputStream, T> function) throws IOException {
+        return artifacts.get(name, function);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void invalidateArtifact(String name) {
+        artifacts.invalidate(name);
     }
 
     /** {@inheritDoc} */
@@ -191,8 +206,9 @@ public class TfModel implements Model {
 
     /** {@inheritDoc} */
     @Override
-    public InputStream getArtifactAsStream(String name) {
-        return null;
+    public InputStream getArtifactAsStream(String name) throws IOException {
+        URL url = getArtifact(name);
+        return url == null ? null : url.openStream();
     }
 
     /** {@inheritDoc} */
@@ -219,5 +235,7 @@ public class TfModel implements Model {
 
     /** {@inheritDoc} */
     @Override
-    public void close() {}
+    public void close() {
+        artifacts.clear();
+    }
 }